@@ -0,0 +1,69 @@
+-- Thêm username_normalized/email_normalized cho bảng users đã có dữ liệu (PostgreSQL).
+--
+-- Chạy một lần TRƯỚC khi deploy bản có hai cột này. ddl-auto=update không làm được việc này: Hibernate
+-- sinh "ADD COLUMN ... NOT NULL" không có giá trị mặc định, câu lệnh lỗi trên bảng có dòng và cột không
+-- được tạo, đăng nhập (tra theo cột chuẩn hóa) hỏng hết.
+--
+--   psql "$DATABASE_URL" -v ON_ERROR_STOP=1 -f scripts/db/users-normalized-identifiers.sql
+--
+-- Cả script nằm trong một transaction: lỗi ở bước nào thì không có gì thay đổi, sửa rồi chạy lại.
+-- Script không tự sửa dữ liệu: username/email trùng theo hoa/thường làm script dừng và liệt kê (bước 3).
+-- Chạy lại trên DB đã migrate cũng an toàn.
+
+BEGIN;
+
+-- Chặn đăng ký trong lúc migrate, nếu không dòng mới có thể trùng sau bước xử lý trùng lặp
+LOCK TABLE users IN SHARE ROW EXCLUSIVE MODE;
+
+-- 1. Thêm cột, cho phép null
+ALTER TABLE users ADD COLUMN IF NOT EXISTS username_normalized varchar(50);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS email_normalized varchar(100);
+
+-- 2. Gán giá trị như User.normalize (trim + lower-case; username/email chỉ gồm ký tự ASCII)
+UPDATE users
+SET username_normalized = lower(trim(username)),
+    email_normalized = lower(trim(email));
+
+-- 3. Username hoặc email chỉ khác nhau chữ hoa/thường: script không tự đổi tên hay gộp tài khoản (người dùng
+--    sẽ không đăng nhập được bằng tên cũ mà không biết). Dừng lại và liệt kê từng nhóm trùng kèm id;
+--    xử lý tay (đổi username/email của tài khoản thừa, báo cho chủ tài khoản) rồi chạy lại script.
+--    Xem lại danh sách:
+--      SELECT username_normalized, array_agg(username || ' (' || id || ')') FROM users GROUP BY 1 HAVING count(*) > 1;
+--      SELECT email_normalized, array_agg(email || ' (' || id || ')') FROM users GROUP BY 1 HAVING count(*) > 1;
+DO $$
+DECLARE
+    usernames text;
+    emails text;
+BEGIN
+    SELECT string_agg(format('%s: %s', username_normalized, accounts), E'\n')
+    INTO usernames
+    FROM (SELECT username_normalized,
+                 string_agg(format('%s (%s)', username, id), ', ' ORDER BY created_at NULLS LAST, id) AS accounts
+          FROM users GROUP BY username_normalized HAVING count(*) > 1) d;
+    SELECT string_agg(format('%s: %s', email_normalized, accounts), E'\n')
+    INTO emails
+    FROM (SELECT email_normalized,
+                 string_agg(format('%s (%s)', email, id), ', ' ORDER BY created_at NULLS LAST, id) AS accounts
+          FROM users GROUP BY email_normalized HAVING count(*) > 1) d;
+    IF usernames IS NOT NULL OR emails IS NOT NULL THEN
+        RAISE EXCEPTION 'Username/email chỉ khác nhau chữ hoa/thường, cần xử lý trước khi migrate'
+            USING DETAIL = concat_ws(E'\n',
+                                     'Username trùng:' || E'\n' || usernames,
+                                     'Email trùng:' || E'\n' || emails);
+    END IF;
+END $$;
+
+-- 4. NOT NULL và unique constraint. uk_users_* trước đây (user-007) nằm trên username/email gốc:
+--    bỏ đi rồi tạo lại trên cột chuẩn hóa. Index cũ trên cột gốc không còn được dùng.
+ALTER TABLE users ALTER COLUMN username_normalized SET NOT NULL;
+ALTER TABLE users ALTER COLUMN email_normalized SET NOT NULL;
+
+ALTER TABLE users DROP CONSTRAINT IF EXISTS uk_users_username;
+ALTER TABLE users DROP CONSTRAINT IF EXISTS uk_users_email;
+ALTER TABLE users ADD CONSTRAINT uk_users_username UNIQUE (username_normalized);
+ALTER TABLE users ADD CONSTRAINT uk_users_email UNIQUE (email_normalized);
+
+DROP INDEX IF EXISTS idx_users_username;
+DROP INDEX IF EXISTS idx_users_email;
+
+COMMIT;
@@ -0,0 +1,18 @@
+-- Khóa ngoại watch_progress.movie_id -> movies.id (PostgreSQL), cho bảng watch_progress đã có dữ liệu.
+--
+-- ddl-auto=update tự thêm fk_watch_progress_movie, nhưng câu lệnh lỗi (và khóa ngoại không được tạo) nếu còn
+-- vị trí xem của phim đã bị xóa. Chạy một lần trước khi deploy:
+--
+--   psql "$DATABASE_URL" -v ON_ERROR_STOP=1 -f scripts/db/watch-progress-movie-fk.sql
+
+BEGIN;
+
+-- Vị trí xem của phim không còn tồn tại không bao giờ hiện trong "xem tiếp" (truy vấn JOIN movies)
+DELETE FROM watch_progress p
+WHERE NOT EXISTS (SELECT 1 FROM movies m WHERE m.id = p.movie_id);
+
+ALTER TABLE watch_progress DROP CONSTRAINT IF EXISTS fk_watch_progress_movie;
+ALTER TABLE watch_progress
+    ADD CONSTRAINT fk_watch_progress_movie FOREIGN KEY (movie_id) REFERENCES movies (id) ON DELETE CASCADE;
+
+COMMIT;
@@ -0,0 +1,127 @@
+#!/usr/bin/env sh
+# Đo thời gian khởi động và độ trễ request đầu tiên của các chế độ:
+#   plain    jar thường, không profile fast-startup
+#   profile  profile fast-startup (lazy springdoc, không đọc metadata JDBC)
+#   cds      profile fast-startup + archive CDS
+#   aot-cds  build -Paot + profile fast-startup + archive CDS (giống Dockerfile)
+#
+# Cần Postgres và Redis đang chạy (docker-compose.yml.example), cấu hình bằng biến môi trường chuẩn của Spring
+# (SPRING_DATASOURCE_URL, SPRING_DATASOURCE_USERNAME, SPRING_DATASOURCE_PASSWORD, SPRING_DATA_REDIS_HOST...).
+# Schema phải có sẵn vì profile fast-startup dùng ddl-auto=none.
+#
+#   RUNS=5 FIRST_REQUEST=/api/auth/availability?username=probe scripts/startup-benchmark.sh
+#   REFRESH_ONLY=1 scripts/startup-benchmark.sh   # chỉ đo đến khi refresh xong context, không cần DB/Redis
+#                                                 # (bỏ chế độ plain vì Hibernate cần kết nối DB khi không có profile)
+#
+# Kết quả: target/startup/results.csv (mode,run,startup_ms,first_request_ms)
+set -eu
+
+cd "$(dirname "$0")/.."
+
+MVN=${MVN:-./mvnw}
+RUNS=${RUNS:-5}
+PORT=${PORT:-8080}
+FIRST_REQUEST=${FIRST_REQUEST:-/api/auth/availability?username=startup-probe}
+REFRESH_ONLY=${REFRESH_ONLY:-0}
+if [ "$REFRESH_ONLY" = 1 ]; then
+    MODES=${MODES:-profile cds aot-cds}
+else
+    MODES=${MODES:-plain profile cds aot-cds}
+fi
+# Lần chạy ghi CDS và chế độ REFRESH_ONLY không mở kết nối, chỉ cần URL hợp lệ
+export SPRING_DATASOURCE_URL=${SPRING_DATASOURCE_URL:-jdbc:postgresql://localhost:5432/movie_db}
+OUT=$PWD/target/startup
+RESULTS=$OUT/results.csv
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# build <thư mục> [tham số maven]: đóng gói và tách jar (app.jar + lib/) như Dockerfile
+build() {
+    dir=$1
+    shift
+    $MVN -q -B -DskipTests "$@" package
+    rm -rf "$dir"
+    cp target/*.jar "$OUT/app.jar"
+    java -Djarmode=tools -jar "$OUT/app.jar" extract --destination "$dir"
+    rm "$OUT/app.jar"
+}
+
+# train <thư mục> [tham số JVM]: ghi archive CDS bằng một lần chạy dừng ngay sau khi refresh context
+train() {
+    dir=$1
+    shift
+    (cd "$dir" && java -XX:ArchiveClassesAtExit=app.jsa -Dspring.context.exit=onRefresh "$@" -jar app.jar > train.log 2>&1)
+}
+
+# measure <mode> <run> <thư mục> [tham số JVM]
+measure() {
+    mode=$1
+    run=$2
+    dir=$3
+    shift 3
+    log=$OUT/$mode-$run.log
+
+    if [ "$REFRESH_ONLY" = 1 ]; then
+        start=$(now_ms)
+        (cd "$dir" && java "$@" -Dspring.context.exit=onRefresh -jar app.jar) > "$log" 2>&1
+        echo "$mode,$run,$(( $(now_ms) - start )),"
+        return
+    fi
+
+    start=$(now_ms)
+    (cd "$dir" && exec java "$@" -jar app.jar --server.port="$PORT") > "$log" 2>&1 &
+    pid=$!
+    until grep -q "Started MovieApplication" "$log"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "$mode lần $run không khởi động được, xem $log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    startup=$(( $(now_ms) - start ))
+    first=$(curl -s -o /dev/null -w '%{time_total}' "http://localhost:$PORT$FIRST_REQUEST")
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "$mode,$run,$startup,$(awk "BEGIN { printf \"%d\", $first * 1000 }")"
+}
+
+$MVN -q -B clean
+mkdir -p "$OUT"
+build "$OUT/plain"
+case " $MODES " in
+    *" aot-cds "*) build "$OUT/aot" -Paot ;;
+esac
+
+PROFILE=-Dspring.profiles.active=fast-startup
+AOT=-Dspring.aot.enabled=true
+for mode in $MODES; do
+    case $mode in
+        cds) train "$OUT/plain" "$PROFILE" ;;
+        aot-cds) train "$OUT/aot" "$PROFILE" "$AOT" ;;
+    esac
+done
+
+echo "mode,run,startup_ms,first_request_ms" > "$RESULTS"
+for run in $(seq 1 "$RUNS"); do
+    for mode in $MODES; do
+        case $mode in
+            plain) measure plain "$run" "$OUT/plain" ;;
+            profile) measure profile "$run" "$OUT/plain" "$PROFILE" ;;
+            cds) measure cds "$run" "$OUT/plain" "$PROFILE" -XX:SharedArchiveFile=app.jsa ;;
+            aot-cds) measure aot-cds "$run" "$OUT/aot" "$PROFILE" "$AOT" -XX:SharedArchiveFile=app.jsa ;;
+            *) echo "Chế độ không hợp lệ: $mode" >&2; exit 1 ;;
+        esac
+    done
+done | tee -a "$RESULTS"
+
+# Trung bình theo chế độ
+awk -F, 'NR > 1 { n[$1]++; s[$1] += $3; f[$1] += $4 }
+         END {
+             for (m in n) {
+                 printf "%-8s startup %6d ms", m, s[m] / n[m]
+                 if (f[m] > 0) printf "  first request %5d ms", f[m] / n[m]
+                 printf "\n"
+             }
+         }' "$RESULTS"
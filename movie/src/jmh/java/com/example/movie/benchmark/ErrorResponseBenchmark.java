@@ -0,0 +1,109 @@
+package com.example.movie.benchmark;
+
+import com.example.movie.dto.response.ErrorResponse;
+import com.example.movie.exception.AppException;
+import com.example.movie.exception.ErrorBodyCache;
+import com.example.movie.exception.GlobalExceptionHandler;
+import com.example.movie.security.service.InvalidCredentialsException;
+import com.example.movie.utils.CachedClock;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chi phí của một request bị từ chối: tạo exception rồi dựng body JSON.
+ *
+ * legacy* tái hiện đường cũ (exception chụp stack trace, ErrorResponse mới với LocalDateTime.now(), serialize bằng Jackson),
+ * các benchmark còn lại đi qua GlobalExceptionHandler hiện tại. depth giả lập độ sâu stack của một request thật
+ * (Tomcat + filter chain + Spring MVC) vì chi phí chụp stack trace tỉ lệ với nó.
+ *
+ * Chạy với -prof gc để xem số byte cấp phát mỗi lần: -Djmh.args="ErrorResponseBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorResponseBenchmark {
+
+    private static final String DUPLICATE_MESSAGE = "Tên đăng nhập đã tồn tại!";
+    private static final String BAD_CREDENTIALS_MESSAGE = "Tài khoản hoặc mật khẩu không chính xác";
+
+    @Param({"10", "150"})
+    private int depth;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final CachedClock clock = new CachedClock(Duration.ofMillis(10));
+    private final GlobalExceptionHandler exceptionHandler =
+            new GlobalExceptionHandler(new ErrorBodyCache(objectMapper, clock, 256), clock);
+
+    @Benchmark
+    public byte[] legacyAppException() throws JsonProcessingException {
+        return atDepth(depth, this::legacyAppExceptionBody);
+    }
+
+    @Benchmark
+    public byte[] appException() throws JsonProcessingException {
+        return atDepth(depth, () -> exceptionHandler
+                .handleAppException(new AppException(DUPLICATE_MESSAGE, HttpStatus.CONFLICT))
+                .getBody());
+    }
+
+    @Benchmark
+    public byte[] legacyBadCredentials() throws JsonProcessingException {
+        return atDepth(depth, this::legacyBadCredentialsBody);
+    }
+
+    @Benchmark
+    public byte[] badCredentials() throws JsonProcessingException {
+        return atDepth(depth, () -> exceptionHandler
+                .handleAuthenticationException(new InvalidCredentialsException("Bad credentials"))
+                .getBody());
+    }
+
+    private byte[] legacyAppExceptionBody() throws JsonProcessingException {
+        // AppException trước đây là RuntimeException thường, luôn chụp stack trace
+        RuntimeException ex = new RuntimeException(DUPLICATE_MESSAGE);
+        return objectMapper.writeValueAsBytes(ErrorResponse.builder()
+                .status(HttpStatus.CONFLICT.value())
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    private byte[] legacyBadCredentialsBody() throws JsonProcessingException {
+        BadCredentialsException ex = new BadCredentialsException("Bad credentials");
+        return objectMapper.writeValueAsBytes(ErrorResponse.builder()
+                .status(HttpStatus.UNAUTHORIZED.value())
+                .message(ex.getMessage() != null ? BAD_CREDENTIALS_MESSAGE : null)
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    private static byte[] atDepth(int depth, Body body) throws JsonProcessingException {
+        return depth <= 0 ? body.get() : atDepth(depth - 1, body);
+    }
+
+    @FunctionalInterface
+    private interface Body {
+        byte[] get() throws JsonProcessingException;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.movie.benchmark;
+
+import com.example.movie.dto.response.ErrorResponse;
+import com.example.movie.dto.response.UserResponse;
+import com.example.movie.enums.Role;
+import com.example.movie.exception.AppException;
+import com.example.movie.exception.ErrorBodyCache;
+import com.example.movie.exception.GlobalExceptionHandler;
+import com.example.movie.utils.CachedClock;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ghi JSON cho response thành công và lỗi, với ObjectMapper cấu hình giống Spring Boot (JavaTimeModule, ISO date).
+ * appExceptionToJson đo toàn bộ đường lỗi: tạo exception, GlobalExceptionHandler dựng body, rồi serialize.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final CachedClock clock = new CachedClock(Duration.ofMillis(10));
+    private final GlobalExceptionHandler exceptionHandler =
+            new GlobalExceptionHandler(new ErrorBodyCache(objectMapper, clock, 256), clock);
+
+    private UserResponse userResponse;
+    private ErrorResponse errorResponse;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        userResponse = UserResponse.builder()
+                .id(UUID.randomUUID())
+                .username("benchmark-user")
+                .email("benchmark@test.com")
+                .displayName("Benchmark User")
+                .avatarUrl("https://cdn.example.com/avatar.png")
+                .role(Role.USER)
+                .createdAt(LocalDateTime.now())
+                .build();
+        errorResponse = ErrorResponse.builder()
+                .status(HttpStatus.BAD_REQUEST.value())
+                .message("Dữ liệu không hợp lệ")
+                .timestamp(LocalDateTime.now())
+                .errors(Map.of(
+                        "username", "Username phải từ 3 đến 50 ký tự",
+                        "email", "Email không đúng định dạng"
+                ))
+                .build();
+    }
+
+    @Benchmark
+    public byte[] userResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(userResponse);
+    }
+
+    @Benchmark
+    public byte[] errorResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(errorResponse);
+    }
+
+    @Benchmark
+    public byte[] appExceptionToJson() {
+        AppException ex = new AppException("Tên đăng nhập đã tồn tại!", HttpStatus.CONFLICT);
+        // Body đã là JSON dựng sẵn
+        return exceptionHandler.handleAppException(ex).getBody();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.movie.benchmark;
+
+import com.example.movie.stats.MovieCounters;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thông lượng tăng lượt xem khi nhiều thread cùng đếm: MovieCounters (LongAdder) so với một AtomicLong
+ * mỗi phim. "hot" = mọi thread đếm cùng một phim (phim đang trending), "spread" = 10.000 phim.
+ * Chạy với số thread tăng dần để xem khả năng mở rộng theo số core, vd:
+ * for t in 1 2 4 8; do mvn -Pjmh test-compile exec:exec -Djmh.args="MovieCounterBenchmark -t $t"; done
+ * Chỉ có ý nghĩa khi có nhiều core và -t không vượt số core: với "hot", mọi core tranh nhau một cache line
+ * nên "atomic" không tăng theo số thread, còn cell của "adder" tách theo thread nên tăng theo số core.
+ * Trên máy một core không có tranh chấp, "atomic" nhanh hơn vì mỗi lần tăng ít việc hơn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MovieCounterBenchmark {
+
+    @Param({"adder", "atomic"})
+    public String counter;
+
+    @Param({"hot", "spread"})
+    public String keys;
+
+    private UUID[] movieIds;
+    private MovieCounters counters;
+    private Map<UUID, AtomicLong> atomics;
+
+    @Setup
+    public void setUp() {
+        movieIds = new UUID[keys.equals("hot") ? 1 : 10_000];
+        for (int i = 0; i < movieIds.length; i++) {
+            movieIds[i] = UUID.randomUUID();
+        }
+        counters = new MovieCounters();
+        atomics = new ConcurrentHashMap<>();
+        for (UUID movieId : movieIds) {
+            counters.recordView(movieId);
+            atomics.put(movieId, new AtomicLong());
+        }
+    }
+
+    @Benchmark
+    public void recordView() {
+        UUID movieId = movieIds[movieIds.length == 1 ? 0 : ThreadLocalRandom.current().nextInt(movieIds.length)];
+        if (counter.equals("adder")) {
+            counters.recordView(movieId);
+        } else {
+            atomics.get(movieId).incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.movie.benchmark;
+
+import com.example.movie.search.IndexedMovie;
+import com.example.movie.search.MovieSearchIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Truy vấn trên chỉ mục tên phim với movies tên sinh ngẫu nhiên (tiếng Việt có dấu + tên gốc tiếng Anh).
+ * Từ được chọn lệch về đầu danh sách (gần giống phân bố Zipf) nên "nguoi", "cua" xuất hiện trong rất nhiều tên.
+ *
+ * Cần heap vài GB cho 1M phim: -Djmh.args="MovieSearchBenchmark -jvmArgsAppend -Xmx4g"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovieSearchBenchmark {
+
+    private static final String[] VIETNAMESE = {
+            "Người", "Của", "Những", "Tình", "Yêu", "Mùa", "Hè", "Đêm", "Ngày", "Bố", "Già", "Mắt", "Biếc",
+            "Hai", "Phượng", "Lật", "Mặt", "Nhà", "Bà", "Nữ", "Trạng", "Nguyên", "Em", "Chưa", "Mười", "Tám",
+            "Cô", "Ba", "Sài", "Gòn", "Hà", "Nội", "Đất", "Rừng", "Phương", "Nam", "Tiệc", "Trăng", "Máu",
+            "Kẻ", "Ăn", "Hồn", "Thang", "Máy", "Chị", "Chị", "Ngoại", "Cô", "Dâu", "Hào", "Môn", "Song", "Lang",
+            "Tấm", "Cám", "Chuyện", "Chưa", "Kể", "Cánh", "Đồng", "Bất", "Tận", "Lửa", "Phật", "Mai"
+    };
+    private static final String[] ENGLISH = {
+            "The", "Of", "Love", "Night", "Summer", "Father", "Blood", "House", "Dark", "Return", "Last", "King",
+            "Moon", "River", "Storm", "Ghost", "City", "War", "Dream", "Secret", "Legend", "Girl", "Brother"
+    };
+
+    @Param({"1000000"})
+    private int movies;
+
+    private MovieSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<IndexedMovie> catalog = new ArrayList<>(movies);
+        for (int i = 0; i < movies; i++) {
+            catalog.add(new IndexedMovie(UUID.randomUUID(), title(random, VIETNAMESE, 2, 5),
+                    title(random, ENGLISH, 1, 4) + " " + i, 1950 + random.nextInt(76), random.nextInt(1_000_000), 1));
+        }
+        index = new MovieSearchIndex(16);
+        // Như lúc dựng lại chỉ mục, cộng thêm một ít phim được thêm sau đó (nằm ngoài các tầng)
+        index.load(catalog.subList(0, movies - movies / 100));
+        catalog.subList(movies - movies / 100, movies).forEach(index::put);
+    }
+
+    // Hai từ phổ biến: giao hai posting list dài rồi chấm điểm mọi doc khớp
+    @Benchmark
+    public List<IndexedMovie> searchCommonTerms() {
+        return index.search("người của", 10);
+    }
+
+    @Benchmark
+    public List<IndexedMovie> searchSelectiveTerms() {
+        return index.search("đất rừng phương nam", 10);
+    }
+
+    // Tên riêng hiếm (số thứ tự trong tên gốc): posting list ngắn
+    @Benchmark
+    public List<IndexedMovie> searchRareTerm() {
+        return index.search("storm 123456", 10);
+    }
+
+    // Một ký tự: đọc top giữ sẵn ở node của trie
+    @Benchmark
+    public List<IndexedMovie> suggestOneLetter() {
+        return index.suggest("m", 10);
+    }
+
+    @Benchmark
+    public List<IndexedMovie> suggestPrefix() {
+        return index.suggest("phuo", 10);
+    }
+
+    // Từ đầy đủ + prefix: giao posting list rồi lọc theo prefix
+    @Benchmark
+    public List<IndexedMovie> suggestAfterWord() {
+        return index.suggest("mat bi", 10);
+    }
+
+    private static String title(SplittableRandom random, String[] words, int minWords, int maxWords) {
+        int count = minWords + random.nextInt(maxWords - minWords + 1);
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                title.append(' ');
+            }
+            // Bình phương của số ngẫu nhiên đều: từ đầu danh sách được chọn nhiều hơn hẳn
+            double skewed = random.nextDouble();
+            title.append(words[(int) (skewed * skewed * words.length)]);
+        }
+        return title.toString();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.movie.benchmark;
+
+import com.example.movie.enums.AuthProvider;
+import com.example.movie.enums.Role;
+import com.example.movie.models.User;
+import com.example.movie.security.principal.UserPrincipal;
+import com.example.movie.security.session.CompactSessionSerializer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * So sánh serializer session gọn với JDK serialization mặc định của Spring Session.
+ * Kích thước (bytes/session) của mỗi định dạng được in ra lúc setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionSerializerBenchmark {
+
+    private final JdkSerializationRedisSerializer jdk = new JdkSerializationRedisSerializer();
+    private final CompactSessionSerializer compact = new CompactSessionSerializer();
+
+    private SecurityContext context;
+    private byte[] jdkBytes;
+    private byte[] compactBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .username("benchmark-user")
+                .email("benchmark@test.com")
+                .passwordHash("$2a$10$7QJ8s0Z1Yy0LJ3m1j1pZ6OeYkH6QeY8W9xg0fFv9F9vZKkYF2Zp2e")
+                .role(Role.USER)
+                .provider(AuthProvider.LOCAL)
+                .build();
+        UserPrincipal principal = UserPrincipal.fromUser(user);
+        context = new SecurityContextImpl(
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities())
+        );
+
+        jdkBytes = jdk.serialize(context);
+        compactBytes = compact.serialize(context);
+        System.out.printf("%nbytes/session: jdk=%d compact=%d%n", jdkBytes.length, compactBytes.length);
+    }
+
+    @Benchmark
+    public byte[] jdkSerialize() {
+        return jdk.serialize(context);
+    }
+
+    @Benchmark
+    public byte[] compactSerialize() {
+        return compact.serialize(context);
+    }
+
+    @Benchmark
+    public Object jdkDeserialize() {
+        return jdk.deserialize(jdkBytes);
+    }
+
+    @Benchmark
+    public Object compactDeserialize() {
+        return compact.deserialize(compactBytes);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.movie.benchmark;
+
+import com.example.movie.dto.request.RegisterRequest;
+import com.example.movie.dto.response.UserResponse;
+import com.example.movie.enums.AuthProvider;
+import com.example.movie.enums.Role;
+import com.example.movie.mapper.UserMapper;
+import com.example.movie.mapper.UserMapperImpl;
+import com.example.movie.models.User;
+import com.example.movie.security.principal.UserPrincipal;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Đường nóng của đăng ký/đăng nhập: map DTO <-> entity, dựng principal và authorities
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMappingBenchmark {
+
+    private final UserMapper userMapper = new UserMapperImpl();
+
+    private User user;
+    private UserPrincipal principal;
+    private RegisterRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .username("benchmark-user")
+                .email("benchmark@test.com")
+                .passwordHash("$2a$10$7QJ8s0Z1Yy0LJ3m1j1pZ6OeYkH6QeY8W9xg0fFv9F9vZKkYF2Zp2e")
+                .displayName("Benchmark User")
+                .avatarUrl("https://cdn.example.com/avatar.png")
+                .role(Role.USER)
+                .provider(AuthProvider.LOCAL)
+                .createdAt(LocalDateTime.now())
+                .build();
+        principal = UserPrincipal.fromUser(user);
+
+        request = new RegisterRequest();
+        request.setUsername("benchmark-user");
+        request.setEmail("benchmark@test.com");
+        request.setPassword("password123");
+        request.setDisplayName("Benchmark User");
+    }
+
+    @Benchmark
+    public UserResponse toResponseFromUser() {
+        return userMapper.toResponse(user);
+    }
+
+    @Benchmark
+    public UserResponse toResponseFromPrincipal() {
+        return userMapper.toResponse(principal);
+    }
+
+    @Benchmark
+    public User toEntity() {
+        return userMapper.toEntity(request);
+    }
+
+    @Benchmark
+    public UserPrincipal principalFromUser() {
+        return UserPrincipal.fromUser(user);
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> principalAuthorities() {
+        return principal.getAuthorities();
+    }
+}
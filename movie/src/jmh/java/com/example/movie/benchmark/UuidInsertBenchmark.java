@@ -0,0 +1,108 @@
+package com.example.movie.benchmark;
+
+import com.example.movie.models.id.UuidV7Generator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * So sánh tốc độ insert (rows/s) và kích thước primary key giữa UUIDv4 ngẫu nhiên và UUIDv7.
+ * Mặc định chạy trên H2; để đo trên Postgres local:
+ * -Djmh.args="UuidInsertBenchmark -p jdbcUrl=jdbc:postgresql://localhost:5432/movie_db -p jdbcUser=... -p jdbcPassword=..."
+ * Kích thước index (Postgres) được in ra khi kết thúc mỗi lần chạy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class UuidInsertBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Param({"v4", "v7"})
+    public String idType;
+
+    @Param("jdbc:h2:mem:uuidbench;DB_CLOSE_DELAY=-1")
+    public String jdbcUrl;
+
+    @Param("sa")
+    public String jdbcUser;
+
+    @Param("")
+    public String jdbcPassword;
+
+    private Connection connection;
+    private PreparedStatement insert;
+    private String table;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        table = "uuid_bench_" + idType;
+        connection = DriverManager.getConnection(jdbcUrl, jdbcUser, jdbcPassword);
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("CREATE TABLE " + table + " (id uuid PRIMARY KEY, username varchar(50) NOT NULL)");
+        }
+        connection.commit();
+        insert = connection.prepareStatement("INSERT INTO " + table + " (id, username) VALUES (?, ?)");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        if (jdbcUrl.startsWith("jdbc:postgresql:")) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(
+                         "SELECT count(*), pg_relation_size('" + table + "_pkey') FROM " + table)) {
+                rs.next();
+                System.out.printf("%n%s: rows=%d pkey=%d bytes (%.1f bytes/row)%n",
+                        idType, rs.getLong(1), rs.getLong(2), (double) rs.getLong(2) / rs.getLong(1));
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE " + table);
+        }
+        connection.commit();
+        insert.close();
+        connection.close();
+    }
+
+    /**
+     * Mỗi lần gọi insert một batch; điểm số là số dòng/giây
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            UUID id = "v7".equals(idType) ? UuidV7Generator.next() : UUID.randomUUID();
+            insert.setObject(1, id);
+            insert.setString(2, "user");
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+}
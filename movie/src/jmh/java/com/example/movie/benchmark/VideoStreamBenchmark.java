@@ -0,0 +1,160 @@
+package com.example.movie.benchmark;
+
+import com.example.movie.MovieApplication;
+import com.example.movie.models.Movie;
+import com.example.movie.repositories.MovieRepository;
+import com.example.movie.support.EmbeddedRedisInitializer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Range GET đồng thời vào /api/movies/{id}/stream qua Tomcat thật (cổng ngẫu nhiên, profile test như AuthLoadHarness).
+ * Mỗi lần gọi là một đoạn chunkKilobytes ở vị trí ngẫu nhiên trong file fileMegabytes, như player đang tua/buffer.
+ * sendfile: đoạn được giao cho Tomcat sendfile; copy: chép qua FileChannel.transferTo vào output stream của response.
+ *
+ * Thêm -prof gc để thấy khác biệt lượng cấp phát trên heap mỗi request:
+ * -Djmh.args="VideoStreamBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class VideoStreamBenchmark {
+
+    @Param({"sendfile", "copy"})
+    public String mode;
+
+    @Param({"256"})
+    public int fileMegabytes;
+
+    @Param({"1024"})
+    public int chunkKilobytes;
+
+    private Path mediaRoot;
+    private ConfigurableApplicationContext application;
+    private HttpClient client;
+    private URI streamUri;
+    private String cookie;
+    private long fileLength;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        mediaRoot = Files.createTempDirectory("media-bench");
+        fileLength = (long) fileMegabytes << 20;
+        writeFile(mediaRoot.resolve("movie.mp4"), fileLength);
+
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        application = new SpringApplicationBuilder(MovieApplication.class)
+                .profiles("test")
+                .initializers(new EmbeddedRedisInitializer())
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:streambench;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--app.auth.rate-limit.enabled=false",
+                        "--app.media.root=" + mediaRoot,
+                        "--app.media.stream.sendfile=" + "sendfile".equals(mode));
+        String baseUrl = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+
+        Movie movie = application.getBean(MovieRepository.class)
+                .save(Movie.builder().title("Benchmark").videoPath("movie.mp4").build());
+        streamUri = URI.create(baseUrl + "/api/movies/" + movie.getId() + "/stream");
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        client.send(json(baseUrl + "/api/auth/register",
+                "{\"username\":\"streambench\",\"email\":\"stream@bench.test\",\"password\":\"password123\"}"),
+                HttpResponse.BodyHandlers.discarding());
+        cookie = client.send(json(baseUrl + "/api/auth/login",
+                        "{\"username\":\"streambench\",\"password\":\"password123\"}"),
+                        HttpResponse.BodyHandlers.discarding())
+                .headers().firstValue("Set-Cookie").orElseThrow()
+                .split(";", 2)[0];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        application.close();
+        try (var files = Files.list(mediaRoot)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(mediaRoot);
+    }
+
+    @Benchmark
+    public long rangeRequest() throws Exception {
+        long chunk = (long) chunkKilobytes << 10;
+        long start = ThreadLocalRandom.current().nextLong(fileLength - chunk);
+        HttpRequest request = HttpRequest.newBuilder(streamUri)
+                .header("Cookie", cookie)
+                .header("Range", "bytes=" + start + "-" + (start + chunk - 1))
+                .GET()
+                .build();
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() != 206) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        try (InputStream body = response.body()) {
+            return body.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    private static HttpRequest json(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    // File có nội dung thật (không phải sparse) để sendfile và copy cùng đọc từ page cache
+    private static void writeFile(Path path, long length) throws IOException {
+        ByteBuffer block = ByteBuffer.allocateDirect(1 << 20);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            for (long written = 0; written < length; written += block.capacity()) {
+                block.clear();
+                while (block.hasRemaining()) {
+                    block.putLong(random.nextLong());
+                }
+                block.flip();
+                while (block.hasRemaining()) {
+                    channel.write(block);
+                }
+            }
+        }
+    }
+}
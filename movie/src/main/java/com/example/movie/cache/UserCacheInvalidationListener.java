@@ -0,0 +1,31 @@
+package com.example.movie.cache;
+
+import com.example.movie.models.User;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener: mọi thay đổi của User (đăng nhập, cập nhật profile, disable)
+ * đều xóa cache profile sau khi transaction commit.
+ */
+@Component
+public class UserCacheInvalidationListener {
+
+    private final ObjectProvider<UserProfileCache> userProfileCache;
+
+    public UserCacheInvalidationListener(ObjectProvider<UserProfileCache> userProfileCache) {
+        this.userProfileCache = userProfileCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        if (user.getId() != null) {
+            userProfileCache.ifAvailable(cache -> cache.evictAfterCommit(user.getId()));
+        }
+    }
+}
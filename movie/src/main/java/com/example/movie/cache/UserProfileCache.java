@@ -0,0 +1,148 @@
+package com.example.movie.cache;
+
+import com.example.movie.dto.response.UserResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Cache 2 tầng cho UserResponse của /api/auth/me:
+ * near-cache Caffeine trong heap (giới hạn size + TTL) đứng trước Redis.
+ * Khi User thay đổi thì xóa cả 2 tầng và phát tin qua Redis pub/sub để các node khác xóa near-cache.
+ */
+@Component
+public class UserProfileCache {
+
+    public static final String CACHE_NAME = "userProfile";
+
+    private static final Logger log = LoggerFactory.getLogger(UserProfileCache.class);
+
+    private final Cache<UUID, UserResponse> nearCache;
+    private final RedisTemplate<String, UserResponse> redisTemplate;
+    private final String keyPrefix;
+    private final String invalidationChannel;
+    private final Duration redisTtl;
+
+    private final Counter redisHits;
+    private final Counter redisMisses;
+    private final Counter redisErrors;
+
+    public UserProfileCache(RedisTemplate<String, UserResponse> userProfileRedisTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${spring.cache.redis.key-prefix:movie:cache:}") String cacheKeyPrefix,
+                            @Value("${app.cache.user-profile.channel:movie:user-profile:invalidate}") String invalidationChannel,
+                            @Value("${app.cache.user-profile.near-max-size:10000}") long nearMaxSize,
+                            @Value("${app.cache.user-profile.near-ttl:30s}") Duration nearTtl,
+                            @Value("${app.cache.user-profile.redis-ttl:10m}") Duration redisTtl) {
+        this.redisTemplate = userProfileRedisTemplate;
+        this.keyPrefix = cacheKeyPrefix + "user-profile:";
+        this.invalidationChannel = invalidationChannel;
+        this.redisTtl = redisTtl;
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(nearMaxSize)
+                .expireAfterWrite(nearTtl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, nearCache, CACHE_NAME + ".near");
+        this.redisHits = redisCounter(meterRegistry, "hit");
+        this.redisMisses = redisCounter(meterRegistry, "miss");
+        this.redisErrors = redisCounter(meterRegistry, "error");
+    }
+
+    public String getInvalidationChannel() {
+        return invalidationChannel;
+    }
+
+    /**
+     * Lấy profile theo thứ tự near-cache -> Redis -> loader (DB).
+     * Redis lỗi thì bỏ qua tầng Redis, không làm hỏng request.
+     */
+    public UserResponse get(UUID userId, Function<UUID, UserResponse> loader) {
+        UserResponse cached = nearCache.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        String key = keyPrefix + userId;
+        try {
+            cached = redisTemplate.opsForValue().get(key);
+        } catch (DataAccessException ex) {
+            redisErrors.increment();
+            log.debug("Redis unavailable while reading user profile {}", userId, ex);
+        }
+        if (cached != null) {
+            redisHits.increment();
+            nearCache.put(userId, cached);
+            return cached;
+        }
+        redisMisses.increment();
+
+        UserResponse loaded = loader.apply(userId);
+        nearCache.put(userId, loaded);
+        try {
+            redisTemplate.opsForValue().set(key, loaded, redisTtl);
+        } catch (DataAccessException ex) {
+            redisErrors.increment();
+            log.debug("Redis unavailable while writing user profile {}", userId, ex);
+        }
+        return loaded;
+    }
+
+    /**
+     * Xóa sau khi transaction commit (nếu có), tránh node khác đọc lại dữ liệu cũ trước khi commit
+     */
+    public void evictAfterCommit(UUID userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        } else {
+            evict(userId);
+        }
+    }
+
+    public void evict(UUID userId) {
+        nearCache.invalidate(userId);
+        try {
+            redisTemplate.delete(keyPrefix + userId);
+            redisTemplate.convertAndSend(invalidationChannel, userId.toString());
+        } catch (DataAccessException ex) {
+            redisErrors.increment();
+            log.warn("Could not propagate user profile invalidation for {}", userId, ex);
+        }
+    }
+
+    /**
+     * Chỉ xóa near-cache của node này, dùng khi nhận tin invalidation từ node khác
+     */
+    public void evictLocal(UUID userId) {
+        nearCache.invalidate(userId);
+    }
+
+    private static Counter redisCounter(MeterRegistry registry, String result) {
+        return Counter.builder("cache.user-profile.redis")
+                .description("Kết quả đọc tầng Redis của cache profile người dùng")
+                .tag("result", result)
+                .register(registry);
+    }
+}
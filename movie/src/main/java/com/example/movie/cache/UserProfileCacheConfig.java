@@ -0,0 +1,54 @@
+package com.example.movie.cache;
+
+import com.example.movie.dto.response.UserResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+@Configuration
+public class UserProfileCacheConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(UserProfileCacheConfig.class);
+
+    @Bean
+    public RedisTemplate<String, UserResponse> userProfileRedisTemplate(
+            RedisConnectionFactory connectionFactory,
+            ObjectMapper objectMapper
+    ) {
+        RedisTemplate<String, UserResponse> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(StringRedisSerializer.UTF_8);
+        template.setValueSerializer(new Jackson2JsonRedisSerializer<>(objectMapper, UserResponse.class));
+        return template;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            UserProfileCache userProfileCache
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            try {
+                userProfileCache.evictLocal(UUID.fromString(body));
+            } catch (IllegalArgumentException ex) {
+                log.warn("Ignoring malformed user profile invalidation message: {}", body);
+            }
+        }, new ChannelTopic(userProfileCache.getInvalidationChannel()));
+        return container;
+    }
+}
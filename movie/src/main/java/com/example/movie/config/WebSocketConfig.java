@@ -0,0 +1,50 @@
+package com.example.movie.config;
+
+import com.example.movie.security.session.WebSocketSessionInterceptor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.server.support.HttpSessionHandshakeInterceptor;
+
+/**
+ * STOMP qua WebSocket tại /ws: client gửi tới /app/..., lỗi trả riêng cho từng user ở /user/queue/errors.
+ * Handshake là request HTTP thường nên cần cookie SESSION (anyRequest().authenticated() trong SecurityConfig).
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    private final WebSocketSessionInterceptor webSocketSessionInterceptor;
+    private final String[] allowedOriginPatterns;
+
+    public WebSocketConfig(WebSocketSessionInterceptor webSocketSessionInterceptor,
+                           @Value("${app.websocket.allowed-origin-patterns:}") String[] allowedOriginPatterns) {
+        this.webSocketSessionInterceptor = webSocketSessionInterceptor;
+        this.allowedOriginPatterns = allowedOriginPatterns;
+    }
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws")
+                // Giữ id session HTTP trong attribute của kết nối để kiểm tra session còn sống ở mỗi frame
+                .addInterceptors(new HttpSessionHandshakeInterceptor())
+                // Để trống: chỉ cho phép cùng origin
+                .setAllowedOriginPatterns(allowedOriginPatterns);
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.setApplicationDestinationPrefixes("/app");
+        registry.enableSimpleBroker("/queue");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(webSocketSessionInterceptor);
+    }
+}
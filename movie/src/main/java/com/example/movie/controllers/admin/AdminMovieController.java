@@ -0,0 +1,48 @@
+package com.example.movie.controllers.admin;
+
+import com.example.movie.dto.request.MovieRequest;
+import com.example.movie.dto.response.MovieResponse;
+import com.example.movie.services.movie.MovieService;
+
+import jakarta.validation.Valid;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/admin/movies")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminMovieController {
+
+    private final MovieService movieService;
+
+    public AdminMovieController(MovieService movieService) {
+        this.movieService = movieService;
+    }
+
+    @PostMapping
+    public ResponseEntity<MovieResponse> create(@Valid @RequestBody MovieRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(movieService.createMovie(request));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<MovieResponse> update(@PathVariable UUID id, @Valid @RequestBody MovieRequest request) {
+        return ResponseEntity.ok(movieService.updateMovie(id, request));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable UUID id) {
+        movieService.deleteMovie(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.movie.controllers.admin;
+
+import com.example.movie.dto.request.UserSearchRequest;
+import com.example.movie.dto.response.UserPageResponse;
+import com.example.movie.services.admin.AdminUserService;
+import com.example.movie.utils.NdjsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+@RestController
+@RequestMapping("/api/admin/users")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminUserController {
+
+    private static final MediaType NDJSON = MediaType.valueOf("application/x-ndjson");
+
+    private final AdminUserService adminUserService;
+    private final ObjectMapper objectMapper;
+
+    public AdminUserController(AdminUserService adminUserService, ObjectMapper objectMapper) {
+        this.adminUserService = adminUserService;
+        this.objectMapper = objectMapper;
+    }
+
+    // Lọc theo role/provider/enabled, phân trang bằng cursor (nextCursor của trang trước)
+    @GetMapping
+    public ResponseEntity<UserPageResponse> list(UserSearchRequest request) {
+        return ResponseEntity.ok(adminUserService.listUsers(request));
+    }
+
+    // Toàn bộ user khớp bộ lọc, mỗi dòng một UserResponse; đọc từ DB theo từng đợt nên bộ nhớ không tăng theo số user
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(UserSearchRequest request) {
+        StreamingResponseBody body = out -> {
+            try (NdjsonWriter writer = new NdjsonWriter(objectMapper, out)) {
+                adminUserService.exportUsers(request, user -> {
+                    try {
+                        writer.write(user);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("users.ndjson").build().toString())
+                .body(body);
+    }
+}
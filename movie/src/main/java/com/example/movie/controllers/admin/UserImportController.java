@@ -0,0 +1,64 @@
+package com.example.movie.controllers.admin;
+
+import com.example.movie.dto.response.ImportSummary;
+import com.example.movie.services.admin.UserImportService;
+import com.example.movie.services.admin.UserImportService.Format;
+import com.example.movie.utils.NdjsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/api/admin/users")
+@PreAuthorize("hasRole('ADMIN')")
+public class UserImportController {
+
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+
+    private final UserImportService userImportService;
+    private final ObjectMapper objectMapper;
+
+    public UserImportController(UserImportService userImportService, ObjectMapper objectMapper) {
+        this.userImportService = userImportService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Body NDJSON hoặc CSV có header (username, email, password | passwordHash, displayName), đọc dạng stream.
+     * Response là NDJSON: mỗi dòng bị loại (trùng, không hợp lệ) một object, dòng cuối là ImportSummary.
+     */
+    @PostMapping(value = "/import", consumes = {NDJSON, CSV}, produces = NDJSON)
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Format format = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.valueOf(CSV))
+                ? Format.CSV
+                : Format.NDJSON;
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        try (NdjsonWriter writer = new NdjsonWriter(objectMapper, response.getOutputStream())) {
+            ImportSummary summary = userImportService.importUsers(request.getInputStream(), format, result -> {
+                try {
+                    writer.write(result);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            writer.write(summary);
+        }
+    }
+}
@@ -2,28 +2,36 @@ package com.example.movie.controllers.auth;
 
 import com.example.movie.dto.request.LoginRequest;
 import com.example.movie.dto.request.RegisterRequest;
+import com.example.movie.dto.response.AvailabilityResponse;
 import com.example.movie.dto.response.UserResponse;
 import com.example.movie.security.principal.UserPrincipal;
 import com.example.movie.services.auth.AuthService;
+import com.example.movie.services.auth.UsernameAvailabilityService;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
     private final AuthService authService;
+    private final UsernameAvailabilityService usernameAvailabilityService;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, UsernameAvailabilityService usernameAvailabilityService) {
         this.authService = authService;
+        this.usernameAvailabilityService = usernameAvailabilityService;
     }
 
     @PostMapping("/register")
@@ -32,6 +40,15 @@ public class AuthController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    // Form đăng ký gọi mỗi lần gõ phím: trả lời từ Bloom filter, chỉ hỏi DB khi có thể đã tồn tại
+    @GetMapping("/availability")
+    public ResponseEntity<AvailabilityResponse> availability(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email
+    ) {
+        return ResponseEntity.ok(usernameAvailabilityService.check(username, email));
+    }
+
     @PostMapping("/login")
     public ResponseEntity<UserResponse> login(
             @Valid @RequestBody LoginRequest loginRequest,
@@ -52,7 +69,22 @@ public class AuthController {
         
         UserResponse response = authService.getCurrentUser(principal.getId());
 
-        return ResponseEntity.ok(response);
+        // Profile thường lấy từ cache nên không chạm DB; If-None-Match khớp thì trả 304, không serialize body
+        return ResponseEntity.ok()
+                .eTag(etag(response))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(response);
+    }
+
+    /**
+     * ETag mạnh theo id và updatedAt (mọi thay đổi qua JPA đều cập nhật updatedAt và xóa cache profile)
+     */
+    private static String etag(UserResponse user) {
+        LocalDateTime version = user.getUpdatedAt() != null ? user.getUpdatedAt() : user.getCreatedAt();
+        long micros = version == null
+                ? 0
+                : ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), version);
+        return "\"" + user.getId() + "-" + Long.toString(micros, 36) + "\"";
     }
 
     @PostMapping("/logout")
@@ -0,0 +1,70 @@
+package com.example.movie.controllers.movie;
+
+import com.example.movie.dto.response.MovieResponse;
+import com.example.movie.dto.response.MovieSearchHit;
+import com.example.movie.dto.response.TrendingMovie;
+import com.example.movie.services.movie.MovieSearchService;
+import com.example.movie.services.movie.MovieService;
+import com.example.movie.services.movie.MovieStatsService;
+import com.example.movie.services.movie.TrendingService;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/movies")
+public class MovieController {
+
+    private final MovieService movieService;
+    private final MovieSearchService movieSearchService;
+    private final MovieStatsService movieStatsService;
+    private final TrendingService trendingService;
+
+    public MovieController(MovieService movieService,
+                           MovieSearchService movieSearchService,
+                           MovieStatsService movieStatsService,
+                           TrendingService trendingService) {
+        this.movieService = movieService;
+        this.movieSearchService = movieSearchService;
+        this.movieStatsService = movieStatsService;
+        this.trendingService = trendingService;
+    }
+
+    // Tìm theo tên phim (có dấu hoặc không), phim phải chứa mọi từ của q
+    @GetMapping("/search")
+    public ResponseEntity<List<MovieSearchHit>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(movieSearchService.search(q, limit));
+    }
+
+    // Ô tìm kiếm gọi mỗi lần gõ phím: từ cuối của q được coi là đang gõ dở
+    @GetMapping("/suggest")
+    public ResponseEntity<List<MovieSearchHit>> suggest(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(movieSearchService.suggest(q, limit));
+    }
+
+    // Phim được xem/phát nhiều nhất trong cửa sổ gần đây, đọc từ bộ nhớ (cập nhật mỗi bucket)
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingMovie>> trending(@RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(trendingService.trending(limit));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<MovieResponse> getMovie(@PathVariable UUID id) {
+        MovieResponse movie = movieService.getMovie(id);
+        movieStatsService.recordView(id);
+        return ResponseEntity.ok(movie);
+    }
+}
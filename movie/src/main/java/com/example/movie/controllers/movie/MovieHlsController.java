@@ -0,0 +1,60 @@
+package com.example.movie.controllers.movie;
+
+import com.example.movie.media.MediaStorage;
+import com.example.movie.media.SegmentStreamer;
+import com.example.movie.media.VideoFile;
+import com.example.movie.services.movie.MovieService;
+import com.example.movie.services.movie.MovieStatsService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/movies")
+public class MovieHlsController {
+
+    private final MovieService movieService;
+    private final MediaStorage mediaStorage;
+    private final SegmentStreamer segmentStreamer;
+    private final MovieStatsService movieStatsService;
+
+    public MovieHlsController(MovieService movieService,
+                              MediaStorage mediaStorage,
+                              SegmentStreamer segmentStreamer,
+                              MovieStatsService movieStatsService) {
+        this.movieService = movieService;
+        this.mediaStorage = mediaStorage;
+        this.segmentStreamer = segmentStreamer;
+        this.movieStatsService = movieStatsService;
+    }
+
+    // Playlist và segment trong thư mục stream của phim, vd /api/movies/{id}/hls/master.m3u8;
+    // URI tương đối trong playlist (720p/index.m3u8, 720p/seg_001.ts) được player phân giải về cùng endpoint này
+    @GetMapping("/{id}/hls/{*file}")
+    public void segment(@PathVariable UUID id,
+                        @PathVariable String file,
+                        HttpServletRequest request,
+                        HttpServletResponse response) throws IOException {
+        String relativePath = file.startsWith("/") ? file.substring(1) : file;
+        VideoFile media = mediaStorage.resolve(movieService.getStreamPath(id), relativePath);
+        if (isPlayStart(request, relativePath)) {
+            movieStatsService.recordPlay(id);
+        }
+        segmentStreamer.stream(request, response, media);
+    }
+
+    // Player tải playlist gốc (master.m3u8, manifest.mpd) một lần khi bắt đầu phát, playlist con và segment thì liên tục
+    private static boolean isPlayStart(HttpServletRequest request, String relativePath) {
+        return HttpMethod.GET.matches(request.getMethod())
+                && relativePath.indexOf('/') < 0
+                && (relativePath.endsWith(".m3u8") || relativePath.endsWith(".mpd"));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.movie.controllers.movie;
+
+import com.example.movie.media.ByteRangeStreamer;
+import com.example.movie.media.MediaStorage;
+import com.example.movie.media.VideoFile;
+import com.example.movie.services.movie.MovieService;
+import com.example.movie.services.movie.MovieStatsService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/movies")
+public class MovieStreamController {
+
+    private final MovieService movieService;
+    private final MediaStorage mediaStorage;
+    private final ByteRangeStreamer byteRangeStreamer;
+    private final MovieStatsService movieStatsService;
+
+    public MovieStreamController(MovieService movieService,
+                                 MediaStorage mediaStorage,
+                                 ByteRangeStreamer byteRangeStreamer,
+                                 MovieStatsService movieStatsService) {
+        this.movieService = movieService;
+        this.mediaStorage = mediaStorage;
+        this.byteRangeStreamer = byteRangeStreamer;
+        this.movieStatsService = movieStatsService;
+    }
+
+    // Phát video theo Range (player gửi "Range: bytes=..." khi tua); HEAD cũng được map vào đây
+    @GetMapping("/{id}/stream")
+    public void stream(@PathVariable UUID id,
+                       HttpServletRequest request,
+                       HttpServletResponse response) throws IOException {
+        VideoFile file = mediaStorage.resolve(movieService.getVideoPath(id));
+        if (isPlayStart(request)) {
+            movieStatsService.recordPlay(id);
+        }
+        byteRangeStreamer.stream(request, response, file);
+    }
+
+    // Mỗi lần tua là một request Range mới; chỉ request lấy cả file hoặc từ đầu đến hết ("bytes=0-") mới tính
+    // là một lượt phát. Range có điểm cuối (vd "bytes=0-1" player gửi để dò trước) không tính
+    private static boolean isPlayStart(HttpServletRequest request) {
+        String range = request.getHeader(HttpHeaders.RANGE);
+        return HttpMethod.GET.matches(request.getMethod())
+                && (range == null || range.replace(" ", "").equals("bytes=0-"));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.movie.controllers.movie;
+
+import com.example.movie.dto.request.WatchProgressMessage;
+import com.example.movie.dto.response.ContinueWatchingItem;
+import com.example.movie.dto.response.ErrorResponse;
+import com.example.movie.exception.AppException;
+import com.example.movie.services.movie.WatchProgressService;
+import com.example.movie.utils.AuthUtils;
+import com.example.movie.utils.CachedClock;
+import jakarta.validation.Valid;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.handler.annotation.support.MethodArgumentNotValidException;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/movies")
+public class WatchProgressController {
+
+    private final WatchProgressService watchProgressService;
+    private final AuthUtils authUtils;
+    // Cùng đồng hồ với GlobalExceptionHandler để lỗi qua WebSocket và REST có timestamp như nhau
+    private final CachedClock clock;
+
+    public WatchProgressController(WatchProgressService watchProgressService, AuthUtils authUtils, CachedClock clock) {
+        this.watchProgressService = watchProgressService;
+        this.authUtils = authUtils;
+        this.clock = clock;
+    }
+
+    // Heartbeat của player qua STOMP (SEND /app/progress), không có phản hồi khi thành công
+    @MessageMapping("/progress")
+    public void progress(@Valid @Payload WatchProgressMessage message) {
+        watchProgressService.record(
+                authUtils.getCurrentUserId(),
+                message.getMovieId(),
+                message.getPositionSeconds(),
+                message.getDurationSeconds()
+        );
+    }
+
+    // Phim đang xem dở của user hiện tại, xem gần nhất trước
+    @GetMapping("/continue-watching")
+    public ResponseEntity<List<ContinueWatchingItem>> continueWatching(
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(watchProgressService.continueWatching(authUtils.getCurrentUserId(), limit));
+    }
+
+    // Phim không tồn tại, quá nhiều phim đang chờ lưu...: báo riêng cho phiên gửi như lỗi 4xx của REST
+    @MessageExceptionHandler(AppException.class)
+    @SendToUser(destinations = "/queue/errors", broadcast = false)
+    public ErrorResponse rejectedMessage(AppException ex) {
+        HttpStatus status = ex.getStatus() != null ? ex.getStatus() : HttpStatus.INTERNAL_SERVER_ERROR;
+        return ErrorResponse.builder()
+                .status(status.value())
+                .message(ex.getMessage())
+                .timestamp(clock.now())
+                .build();
+    }
+
+    // Heartbeat sai định dạng: báo riêng cho phiên gửi (SUBSCRIBE /user/queue/errors), cùng dạng lỗi 400 của REST
+    @MessageExceptionHandler(MethodArgumentNotValidException.class)
+    @SendToUser(destinations = "/queue/errors", broadcast = false)
+    public ErrorResponse invalidMessage(MethodArgumentNotValidException ex) {
+        Map<String, String> errors = new HashMap<>();
+        if (ex.getBindingResult() != null) {
+            for (FieldError fieldError : ex.getBindingResult().getFieldErrors()) {
+                errors.put(fieldError.getField(), fieldError.getDefaultMessage());
+            }
+        }
+        return ErrorResponse.builder()
+                .status(HttpStatus.BAD_REQUEST.value())
+                .message("Dữ liệu không hợp lệ")
+                .timestamp(clock.now())
+                .errors(errors)
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.movie.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Một dòng của file import (NDJSON hoặc CSV có header).
+ * Chỉ cần một trong hai: password (sẽ được băm) hoặc passwordHash (BCrypt có sẵn từ hệ thống cũ).
+ */
+@Getter
+@Setter
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ImportUserRow {
+    @NotBlank(message = "Username không được để trống")
+    @Size(min = 3, max = 50, message = "Username phải từ 3 đến 50 ký tự")
+    private String username;
+
+    @NotBlank(message = "Email không được để trống")
+    @Email(message = "Email không đúng định dạng")
+    @Size(max = 100, message = "Email tối đa 100 ký tự")
+    private String email;
+
+    @Size(min = 6, message = "Mật khẩu phải có ít nhất 6 ký tự")
+    private String password;
+
+    private String passwordHash;
+
+    @Size(max = 100, message = "Tên hiển thị tối đa 100 ký tự")
+    private String displayName;
+}
@@ -0,0 +1,45 @@
+package com.example.movie.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class MovieRequest {
+    @NotBlank(message = "Tên phim không được để trống")
+    @Size(max = 255, message = "Tên phim tối đa 255 ký tự")
+    private String title;
+
+    @Size(max = 255, message = "Tên gốc tối đa 255 ký tự")
+    private String originalTitle;
+
+    @Min(value = 1888, message = "Năm phát hành không hợp lệ")
+    @Max(value = 2100, message = "Năm phát hành không hợp lệ")
+    private Integer releaseYear;
+
+    @Size(max = 4000, message = "Mô tả tối đa 4000 ký tự")
+    private String overview;
+
+    @Positive(message = "Thời lượng phải lớn hơn 0")
+    private Integer durationMinutes;
+
+    @Size(max = 255, message = "URL poster tối đa 255 ký tự")
+    private String posterUrl;
+
+    // Tương đối với app.media.root
+    @Size(max = 500, message = "Đường dẫn video tối đa 500 ký tự")
+    private String videoPath;
+
+    // Thư mục HLS/DASH, tương đối với app.media.root
+    @Size(max = 500, message = "Đường dẫn stream tối đa 500 ký tự")
+    private String streamPath;
+
+    @PositiveOrZero(message = "Độ phổ biến không được âm")
+    private Long popularity;
+}
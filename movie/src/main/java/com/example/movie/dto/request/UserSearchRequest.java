@@ -0,0 +1,22 @@
+package com.example.movie.dto.request;
+
+import com.example.movie.enums.AuthProvider;
+import com.example.movie.enums.Role;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Query param của danh sách/export user cho admin; mọi bộ lọc đều tùy chọn
+ */
+@Getter
+@Setter
+public class UserSearchRequest {
+    private Role role;
+    private AuthProvider provider;
+    private Boolean enabled;
+
+    // nextCursor của trang trước, bỏ trống để lấy trang đầu
+    private String cursor;
+    private Integer limit;
+}
@@ -0,0 +1,26 @@
+package com.example.movie.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * Heartbeat player gửi vài giây một lần qua STOMP tới /app/progress
+ */
+@Getter
+@Setter
+public class WatchProgressMessage {
+    @NotNull(message = "Thiếu movieId")
+    private UUID movieId;
+
+    @NotNull(message = "Thiếu vị trí xem")
+    @PositiveOrZero(message = "Vị trí xem không được âm")
+    private Integer positionSeconds;
+
+    @Positive(message = "Độ dài phim phải lớn hơn 0")
+    private Integer durationSeconds;
+}
@@ -0,0 +1,18 @@
+package com.example.movie.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter
+@Builder
+public class ContinueWatchingItem {
+    private UUID movieId;
+    private String title;
+    private String posterUrl;
+    private int positionSeconds;
+    private Integer durationSeconds;
+    private LocalDateTime watchedAt;
+}
@@ -0,0 +1,27 @@
+package com.example.movie.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Một dòng không được import, trả về ngay trong luồng kết quả
+ */
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportRowResult {
+
+    public enum Status {
+        CONFLICT, INVALID
+    }
+
+    // Số thứ tự bản ghi trong file, bắt đầu từ 1 (không tính header CSV)
+    private long row;
+    private Status status;
+    private String field;
+    private String message;
+    private String username;
+    private String email;
+}
@@ -0,0 +1,16 @@
+package com.example.movie.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Dòng cuối của luồng kết quả import; thiếu dòng này nghĩa là import bị ngắt giữa chừng
+ */
+@Getter
+@Builder
+public class ImportSummary {
+    private long total;
+    private long created;
+    private long conflicts;
+    private long invalid;
+}
@@ -0,0 +1,22 @@
+package com.example.movie.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter
+@Builder
+public class MovieResponse {
+    private UUID id;
+    private String title;
+    private String originalTitle;
+    private Integer releaseYear;
+    private String overview;
+    private Integer durationMinutes;
+    private String posterUrl;
+    private long popularity;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,18 @@
+package com.example.movie.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Một kết quả tìm kiếm/gợi ý, chỉ gồm các trường có sẵn trong chỉ mục (không đọc DB)
+ */
+@Getter
+@Builder
+public class MovieSearchHit {
+    private UUID id;
+    private String title;
+    private String originalTitle;
+    private Integer releaseYear;
+}
@@ -0,0 +1,17 @@
+package com.example.movie.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@Builder
+public class TrendingMovie {
+    private UUID movieId;
+    private String title;
+    private String posterUrl;
+    // Lượt xem/lượt phát trong cửa sổ trending, không phải tổng từ trước đến nay
+    private long views;
+    private long plays;
+}
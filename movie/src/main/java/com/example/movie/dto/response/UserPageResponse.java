@@ -0,0 +1,14 @@
+package com.example.movie.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class UserPageResponse {
+    private List<UserResponse> items;
+    // null khi đã hết dữ liệu
+    private String nextCursor;
+}
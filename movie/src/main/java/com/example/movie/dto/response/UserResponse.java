@@ -3,11 +3,13 @@ package com.example.movie.dto.response;
 import com.example.movie.enums.Role;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.extern.jackson.Jacksonized;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Getter
 @Builder
+@Jacksonized
 public class UserResponse {
     private UUID id;
     private String username;
@@ -16,4 +18,6 @@ public class UserResponse {
     private String avatarUrl;
     private Role role;
     private LocalDateTime createdAt;
+    // Dùng làm ETag của /api/auth/me
+    private LocalDateTime updatedAt;
 }
\ No newline at end of file
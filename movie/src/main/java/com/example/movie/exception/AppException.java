@@ -3,12 +3,25 @@ package com.example.movie.exception;
 import lombok.Getter;
 import org.springframework.http.HttpStatus;
 
+/**
+ * Lỗi nghiệp vụ trả về cho client. Lỗi 4xx là luồng bình thường (trùng username, vượt giới hạn...)
+ * nên không chụp stack trace; chỉ lỗi 5xx mới giữ stack trace để còn điều tra.
+ *
+ * constantMessage = true khi message là chuỗi cố định: body lỗi được dựng sẵn một lần trong ErrorBodyCache.
+ * Message ghép từ dữ liệu (vd "limit phải từ 1 đến " + max) để mặc định false, nếu không sẽ lấp đầy cache.
+ */
 @Getter
 public class AppException extends RuntimeException {
     private final HttpStatus status;
+    private final boolean constantMessage;
 
     public AppException(String message, HttpStatus status) {
-        super(message);
+        this(message, status, false);
+    }
+
+    public AppException(String message, HttpStatus status, boolean constantMessage) {
+        super(message, null, true, status == null || status.is5xxServerError());
         this.status = status;
+        this.constantMessage = constantMessage;
     }
-}
\ No newline at end of file
+}
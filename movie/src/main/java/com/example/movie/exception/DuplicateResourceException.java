@@ -2,8 +2,9 @@ package com.example.movie.exception;
 
 import org.springframework.http.HttpStatus;
 
+// Message luôn là chuỗi cố định ("Tên đăng nhập đã tồn tại!"...) nên body được cache
 public class DuplicateResourceException extends AppException {
     public DuplicateResourceException(String message) {
-        super(message, HttpStatus.CONFLICT); 
+        super(message, HttpStatus.CONFLICT, true);
     }
 }
\ No newline at end of file
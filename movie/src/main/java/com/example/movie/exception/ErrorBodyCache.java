@@ -0,0 +1,148 @@
+package com.example.movie.exception;
+
+import com.example.movie.dto.response.ErrorResponse;
+import com.example.movie.utils.CachedClock;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JSON dựng sẵn cho các lỗi có nội dung cố định (status + message).
+ *
+ * Mỗi cặp được serialize một lần bằng ObjectMapper của ứng dụng rồi tách làm hai nửa quanh timestamp,
+ * nên body ra giống hệt khi serialize ErrorResponse. Mỗi lần lỗi chỉ còn ghép ba mảng byte;
+ * timestamp lấy từ CachedClock và chỉ serialize lại khi đồng hồ nhảy.
+ * Chỉ dùng body() cho message cố định; message thay đổi theo request dùng render().
+ * Số cặp được cache vẫn có giới hạn, vượt quá thì vẫn trả đúng body nhưng không lưu lại.
+ */
+@Component
+public class ErrorBodyCache {
+
+    // Mốc giả để tìm vị trí của timestamp trong JSON dựng sẵn
+    private static final LocalDateTime PLACEHOLDER = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private final ObjectMapper objectMapper;
+    private final CachedClock clock;
+    private final int maxEntries;
+    private final Map<HttpStatus, Map<String, Template>> templates = new ConcurrentHashMap<>();
+    private final byte[] placeholderJson;
+
+    private volatile Stamp stamp;
+
+    public ErrorBodyCache(ObjectMapper objectMapper,
+                          CachedClock clock,
+                          @Value("${app.errors.body-cache.max-entries:256}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.maxEntries = maxEntries;
+        this.placeholderJson = serialize(PLACEHOLDER);
+        LocalDateTime now = clock.now();
+        this.stamp = new Stamp(now, serialize(now));
+    }
+
+    /**
+     * Body JSON của ErrorResponse(status, message, timestamp = bây giờ)
+     */
+    public byte[] body(HttpStatus status, String message) {
+        Map<String, Template> byMessage = templates.computeIfAbsent(status, key -> new ConcurrentHashMap<>());
+        Template template = byMessage.get(message);
+        if (template == null) {
+            template = template(status, message);
+            if (byMessage.size() < maxEntries) {
+                byMessage.putIfAbsent(message, template);
+            }
+        }
+        return template.render(currentStamp());
+    }
+
+    /**
+     * Body JSON của ErrorResponse(status, message, timestamp = bây giờ), không qua cache
+     */
+    public byte[] render(HttpStatus status, String message) {
+        return serialize(ErrorResponse.builder()
+                .status(status.value())
+                .message(message)
+                .timestamp(clock.now())
+                .build());
+    }
+
+    /**
+     * Số body đang được cache
+     */
+    int size() {
+        return templates.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private byte[] currentStamp() {
+        LocalDateTime now = clock.now();
+        Stamp current = stamp;
+        if (current.time != now) {
+            current = new Stamp(now, serialize(now));
+            stamp = current;
+        }
+        return current.json;
+    }
+
+    private Template template(HttpStatus status, String message) {
+        byte[] json = serialize(ErrorResponse.builder()
+                .status(status.value())
+                .message(message)
+                .timestamp(PLACEHOLDER)
+                .build());
+        int at = indexOf(json, placeholderJson);
+        if (at < 0) {
+            // Cấu hình Jackson không ghi timestamp: body không phụ thuộc thời gian
+            return new Template(json, null);
+        }
+        byte[] prefix = Arrays.copyOfRange(json, 0, at);
+        byte[] suffix = Arrays.copyOfRange(json, at + placeholderJson.length, json.length);
+        return new Template(prefix, suffix);
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static int indexOf(byte[] source, byte[] target) {
+        outer:
+        for (int i = 0; i <= source.length - target.length; i++) {
+            for (int j = 0; j < target.length; j++) {
+                if (source[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private record Template(byte[] prefix, byte[] suffix) {
+
+        byte[] render(byte[] timestamp) {
+            if (suffix == null) {
+                return prefix;
+            }
+            byte[] body = new byte[prefix.length + timestamp.length + suffix.length];
+            System.arraycopy(prefix, 0, body, 0, prefix.length);
+            System.arraycopy(timestamp, 0, body, prefix.length, timestamp.length);
+            System.arraycopy(suffix, 0, body, prefix.length + timestamp.length, suffix.length);
+            return body;
+        }
+    }
+
+    private record Stamp(LocalDateTime time, byte[] json) {
+    }
+}
@@ -1,8 +1,12 @@
 package com.example.movie.exception;
 
 import com.example.movie.dto.response.ErrorResponse;
+import com.example.movie.utils.CachedClock;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.validation.FieldError;
@@ -10,38 +14,44 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
-import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final String BAD_CREDENTIALS_MESSAGE = "Tài khoản hoặc mật khẩu không chính xác";
+
+    // Lỗi có nội dung cố định được trả bằng JSON dựng sẵn, timestamp lấy từ đồng hồ cache
+    private final ErrorBodyCache errorBodyCache;
+    private final CachedClock clock;
+
+    public GlobalExceptionHandler(ErrorBodyCache errorBodyCache, CachedClock clock) {
+        this.errorBodyCache = errorBodyCache;
+        this.clock = clock;
+    }
+
     // 1. Xử lý lỗi sai tài khoản hoặc mật khẩu
     @ExceptionHandler({BadCredentialsException.class, UsernameNotFoundException.class})
-    public ResponseEntity<ErrorResponse> handleAuthenticationException(Exception ex) {
-        ErrorResponse error = ErrorResponse.builder()
-                .status(HttpStatus.UNAUTHORIZED.value())
-                .message("Tài khoản hoặc mật khẩu không chính xác")
-                .timestamp(LocalDateTime.now())
-                .build();
-        return new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
+    public ResponseEntity<byte[]> handleAuthenticationException(Exception ex) {
+        return json(HttpStatus.UNAUTHORIZED)
+                .body(errorBodyCache.body(HttpStatus.UNAUTHORIZED, BAD_CREDENTIALS_MESSAGE));
     }
 
     // 2. Xử lý lỗi Validate dữ liệu đầu vào 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationExceptions(MethodArgumentNotValidException ex) {
-        Map<String, String> errors = new HashMap<>();
-        ex.getBindingResult().getAllErrors().forEach((error) -> {
-            String fieldName = ((FieldError) error).getField();
-            String errorMessage = error.getDefaultMessage();
-            errors.put(fieldName, errorMessage);
-        });
+        List<FieldError> fieldErrors = ex.getBindingResult().getFieldErrors();
+        Map<String, String> errors = HashMap.newHashMap(fieldErrors.size());
+        for (FieldError fieldError : fieldErrors) {
+            errors.put(fieldError.getField(), fieldError.getDefaultMessage());
+        }
 
         ErrorResponse error = ErrorResponse.builder()
                 .status(HttpStatus.BAD_REQUEST.value())
                 .message("Dữ liệu không hợp lệ")
-                .timestamp(LocalDateTime.now())
+                .timestamp(clock.now())
                 .errors(errors)
                 .build();
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
@@ -49,28 +59,49 @@ public class GlobalExceptionHandler {
 
     // 3. Xử lý các lỗi tùy chỉnh từ AppException
     @ExceptionHandler(AppException.class)
-    public ResponseEntity<ErrorResponse> handleAppException(AppException ex) {
+    public ResponseEntity<byte[]> handleAppException(AppException ex) {
         HttpStatus status = ex.getStatus() != null ? ex.getStatus() : HttpStatus.INTERNAL_SERVER_ERROR;
 
-        ErrorResponse error = ErrorResponse.builder()
-                .status(status.value())
-                .message(ex.getMessage())
-                .timestamp(LocalDateTime.now())
-                .build();
-        
         // Sử dụng trực tiếp status đã được kiểm tra null
-        return ResponseEntity.status(status).body(error);
+        return json(status).body(body(status, ex));
     }
 
-    // 4. Xử lý các lỗi hệ thống chung khác
+    // 4. Vượt giới hạn đăng nhập: 429 kèm Retry-After (giây, làm tròn lên)
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<byte[]> handleTooManyRequests(TooManyRequestsException ex) {
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return json(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(body(HttpStatus.TOO_MANY_REQUESTS, ex));
+    }
+
+    // 5. Không đủ quyền (@PreAuthorize), nếu không sẽ rơi vào handler 500 bên dưới
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<byte[]> handleAccessDenied(AccessDeniedException ex) {
+        return json(HttpStatus.FORBIDDEN)
+                .body(errorBodyCache.body(HttpStatus.FORBIDDEN, "Bạn không có quyền thực hiện thao tác này"));
+    }
+
+    // 6. Xử lý các lỗi hệ thống chung khác
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGlobalException(Exception ex) {
         ErrorResponse error = ErrorResponse.builder()
                 .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
                 .message("Đã có lỗi hệ thống xảy ra: " + ex.getMessage())
-                .timestamp(LocalDateTime.now())
+                .timestamp(clock.now())
                 .build();
         return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
-}
\ No newline at end of file
+    // Chỉ message cố định mới được cache, message ghép từ dữ liệu được serialize trực tiếp
+    private byte[] body(HttpStatus status, AppException ex) {
+        return ex.isConstantMessage()
+                ? errorBodyCache.body(status, ex.getMessage())
+                : errorBodyCache.render(status, ex.getMessage());
+    }
+
+    private static ResponseEntity.BodyBuilder json(HttpStatus status) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON);
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.example.movie.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+// Message cố định, thời gian chờ nằm ở header Retry-After nên body được cache
+@Getter
+public class TooManyRequestsException extends AppException {
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message, HttpStatus.TOO_MANY_REQUESTS, true);
+        this.retryAfter = retryAfter;
+    }
+}
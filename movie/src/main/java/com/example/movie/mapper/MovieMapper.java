@@ -0,0 +1,25 @@
+package com.example.movie.mapper;
+
+import com.example.movie.dto.request.MovieRequest;
+import com.example.movie.dto.response.MovieResponse;
+import com.example.movie.dto.response.MovieSearchHit;
+import com.example.movie.models.Movie;
+import com.example.movie.search.IndexedMovie;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.ReportingPolicy;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface MovieMapper {
+
+    Movie toEntity(MovieRequest request);
+
+    // PUT thay toàn bộ thông tin phim; popularity do MovieService xử lý (bỏ trống thì giữ nguyên)
+    @Mapping(target = "popularity", ignore = true)
+    void update(MovieRequest request, @MappingTarget Movie movie);
+
+    MovieResponse toResponse(Movie movie);
+
+    MovieSearchHit toHit(IndexedMovie movie);
+}
@@ -3,6 +3,7 @@ package com.example.movie.mapper;
 import com.example.movie.dto.request.RegisterRequest;
 import com.example.movie.dto.response.UserResponse;
 import com.example.movie.models.User;
+import com.example.movie.security.principal.UserPrincipal;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
@@ -16,4 +17,7 @@ public interface UserMapper {
 
     // Từ Entity -> Response 
     UserResponse toResponse(User user);
+
+    // Từ Principal vừa xác thực -> Response, không cần đọc lại DB
+    UserResponse toResponse(UserPrincipal principal);
 }
\ No newline at end of file
@@ -0,0 +1,216 @@
+package com.example.movie.media;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Trả file theo HTTP Range (RFC 9110): 200 cả file, 206 một đoạn hoặc multipart/byteranges, 416 khi đoạn không hợp lệ.
+ * If-Range không khớp ETag/Last-Modified hiện tại thì trả cả file.
+ *
+ * Cả file hoặc một đoạn (trường hợp của mọi video player) được giao cho Tomcat sendfile: Tomcat chuyển thẳng
+ * từ FileChannel sang socket bằng transferTo sau khi servlet trả về, byte không đi qua heap.
+ * Khi connector không hỗ trợ (HTTPS, MockMvc) hoặc với multipart, đoạn được chép bằng FileChannel.transferTo
+ * vào output stream của response qua buffer tạm vài KB, không đọc cả đoạn vào byte[].
+ */
+@Component
+public class ByteRangeStreamer {
+
+    private static final Logger log = LoggerFactory.getLogger(ByteRangeStreamer.class);
+
+    // Request attribute của Tomcat cho sendfile (org.apache.coyote.Constants), end là vị trí loại trừ
+    static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String CRLF = "\r\n";
+
+    private final boolean sendfileEnabled;
+    private final int maxRanges;
+
+    public ByteRangeStreamer(@Value("${app.media.stream.sendfile:true}") boolean sendfileEnabled,
+                             @Value("${app.media.stream.max-ranges:16}") int maxRanges) {
+        this.sendfileEnabled = sendfileEnabled;
+        this.maxRanges = maxRanges;
+    }
+
+    public void stream(HttpServletRequest request, HttpServletResponse response, VideoFile file) throws IOException {
+        long length = file.length();
+        writeValidators(response, file);
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || !ifRangeMatches(request, file)) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(file.mediaType().toString());
+            response.setContentLengthLong(length);
+            writeSingle(request, response, file, 0, length);
+            return;
+        }
+
+        long[][] ranges = parse(rangeHeader, length);
+        if (ranges == null) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        if (ranges.length == 1) {
+            long start = ranges[0][0];
+            long end = ranges[0][1];
+            response.setContentType(file.mediaType().toString());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, contentRange(start, end, length));
+            response.setContentLengthLong(end - start + 1);
+            writeSingle(request, response, file, start, end - start + 1);
+        } else {
+            writeMultipart(request, response, file, ranges);
+        }
+    }
+
+    static void writeValidators(HttpServletResponse response, VideoFile file) {
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, file.etag());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, file.lastModified().toEpochMilli());
+    }
+
+    /**
+     * Các đoạn [start, end] (end bao gồm), null nếu header sai cú pháp, quá nhiều đoạn hoặc không đoạn nào thỏa mãn.
+     * Tổng độ dài các đoạn không được vượt kích thước file (chặn "bytes=0-,0-,0-..." nhân băng thông).
+     */
+    private long[][] parse(String rangeHeader, long length) {
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+        if (ranges.isEmpty() || ranges.size() > maxRanges) {
+            return null;
+        }
+        List<long[]> satisfiable = new ArrayList<>(ranges.size());
+        long total = 0;
+        for (HttpRange range : ranges) {
+            try {
+                long start = range.getRangeStart(length);
+                long end = range.getRangeEnd(length);
+                if (start > end) {
+                    continue;
+                }
+                satisfiable.add(new long[]{start, end});
+                total += end - start + 1;
+            } catch (IllegalArgumentException ex) {
+                // Đoạn bắt đầu sau cuối file: bỏ qua, các đoạn còn lại vẫn được phục vụ
+            }
+        }
+        if (satisfiable.isEmpty() || total > length) {
+            return null;
+        }
+        return satisfiable.toArray(long[][]::new);
+    }
+
+    /**
+     * If-Range là ETag (so khớp mạnh) hoặc HTTP-date (so theo giây); thiếu header thì coi như khớp
+     */
+    private static boolean ifRangeMatches(HttpServletRequest request, VideoFile file) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(file.etag());
+        }
+        long since;
+        try {
+            since = request.getDateHeader(HttpHeaders.IF_RANGE);
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+        return since >= 0 && since / 1000 == file.lastModified().toEpochMilli() / 1000;
+    }
+
+    private void writeSingle(HttpServletRequest request, HttpServletResponse response, VideoFile file,
+                             long start, long count) throws IOException {
+        if (HttpMethod.HEAD.matches(request.getMethod()) || count == 0) {
+            return;
+        }
+        if (sendfileEnabled && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.path().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+            transfer(channel, start, count, Channels.newChannel(response.getOutputStream()));
+        } catch (IOException ex) {
+            // Player hủy request khi người xem tua: không còn gì để trả về
+            log.debug("Range transfer aborted for {}", file.path(), ex);
+        }
+    }
+
+    private void writeMultipart(HttpServletRequest request, HttpServletResponse response, VideoFile file,
+                                long[][] ranges) throws IOException {
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        byte[][] partHeaders = new byte[ranges.length][];
+        long contentLength = 0;
+        for (int i = 0; i < ranges.length; i++) {
+            partHeaders[i] = (CRLF + "--" + boundary + CRLF
+                    + HttpHeaders.CONTENT_TYPE + ": " + file.mediaType() + CRLF
+                    + HttpHeaders.CONTENT_RANGE + ": " + contentRange(ranges[i][0], ranges[i][1], file.length()) + CRLF
+                    + CRLF).getBytes(StandardCharsets.US_ASCII);
+            contentLength += partHeaders[i].length + ranges[i][1] - ranges[i][0] + 1;
+        }
+        byte[] closing = (CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.US_ASCII);
+        contentLength += closing.length;
+
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        if (HttpMethod.HEAD.matches(request.getMethod())) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+            var out = response.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(out);
+            for (int i = 0; i < ranges.length; i++) {
+                out.write(partHeaders[i]);
+                transfer(channel, ranges[i][0], ranges[i][1] - ranges[i][0] + 1, target);
+            }
+            out.write(closing);
+        } catch (IOException ex) {
+            log.debug("Multipart range transfer aborted for {}", file.path(), ex);
+        }
+    }
+
+    private static void transfer(FileChannel channel, long position, long count, WritableByteChannel target)
+            throws IOException {
+        long end = position + count;
+        while (position < end) {
+            long transferred = channel.transferTo(position, end - position, target);
+            if (transferred <= 0) {
+                throw new IOException("File shrank while streaming");
+            }
+            position += transferred;
+        }
+    }
+
+    private static String contentRange(long start, long end, long length) {
+        return "bytes " + start + "-" + end + "/" + length;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.movie.media;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Nội dung một file media nằm trong các block của SegmentArena.
+ *
+ * Đếm tham chiếu: cache giữ một tham chiếu cho đến khi entry bị loại, mỗi request đang gửi giữ thêm một.
+ * Block chỉ trả về arena khi tham chiếu cuối cùng được release, nên request đang gửi không bao giờ đọc phải
+ * block đã được cấp cho segment khác.
+ */
+public final class CachedSegment {
+
+    private final SegmentArena arena;
+    private final int[] blocks;
+    private final int length;
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    CachedSegment(SegmentArena arena, int[] blocks, int length) {
+        this.arena = arena;
+        this.blocks = blocks;
+        this.length = length;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Số byte arena dùng cho segment này (làm tròn lên theo block), là trọng số khi tính giới hạn của cache
+     */
+    int footprint() {
+        return blocks.length * arena.blockSize();
+    }
+
+    /**
+     * Ghi cả segment ra target; chỉ gọi khi đang giữ một tham chiếu
+     */
+    public void writeTo(WritableByteChannel target) throws IOException {
+        int remaining = length;
+        for (int block : blocks) {
+            ByteBuffer buffer = arena.block(block);
+            buffer.limit(Math.min(remaining, buffer.capacity()));
+            remaining -= buffer.limit();
+            while (buffer.hasRemaining()) {
+                target.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Lấy thêm một tham chiếu; false nếu segment đã bị loại và block đã trả về arena
+     */
+    boolean retain() {
+        while (true) {
+            int current = references.get();
+            if (current == 0) {
+                return false;
+            }
+            if (references.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        if (references.decrementAndGet() == 0) {
+            arena.release(blocks);
+        }
+    }
+
+    ByteBuffer block(int index) {
+        return arena.block(blocks[index]);
+    }
+
+    int blockCount() {
+        return blocks.length;
+    }
+}
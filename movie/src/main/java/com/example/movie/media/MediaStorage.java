@@ -0,0 +1,90 @@
+package com.example.movie.media;
+
+import com.example.movie.exception.AppException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Thư mục chứa file media trên đĩa local (app.media.root)
+ */
+@Component
+public class MediaStorage {
+
+    // Định dạng DASH/HLS không có trong mime.types của Spring
+    private static final Map<String, MediaType> STREAMING_TYPES = Map.of(
+            "mpd", MediaType.parseMediaType("application/dash+xml"),
+            "m4s", MediaType.parseMediaType("video/iso.segment"),
+            "vtt", MediaType.parseMediaType("text/vtt")
+    );
+
+    private final Path root;
+
+    public MediaStorage(@Value("${app.media.root:media}") Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    /**
+     * File theo đường dẫn tương đối với root; không cho thoát ra ngoài root (../)
+     */
+    public VideoFile resolve(String relativePath) {
+        return resolve(root, relativePath);
+    }
+
+    /**
+     * File trong thư mục con directory của root (thư mục HLS của một phim); không cho thoát ra ngoài thư mục đó
+     */
+    public VideoFile resolve(String directory, String relativePath) {
+        try {
+            Path base = root.resolve(directory).normalize();
+            if (!base.startsWith(root)) {
+                throw notFound();
+            }
+            return resolve(base, relativePath);
+        } catch (InvalidPathException ex) {
+            throw notFound();
+        }
+    }
+
+    private static VideoFile resolve(Path base, String relativePath) {
+        try {
+            Path path = base.resolve(relativePath).normalize();
+            if (!path.startsWith(base)) {
+                throw notFound();
+            }
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                throw notFound();
+            }
+            return new VideoFile(path, attributes.size(), attributes.lastModifiedTime().toInstant(),
+                    mediaType(path.getFileName().toString()));
+        } catch (IOException | InvalidPathException ex) {
+            throw notFound();
+        }
+    }
+
+    private static MediaType mediaType(String filename) {
+        String extension = StringUtils.getFilenameExtension(filename);
+        MediaType streaming = extension == null ? null : STREAMING_TYPES.get(extension.toLowerCase(Locale.ROOT));
+        if (streaming != null) {
+            return streaming;
+        }
+        return MediaTypeFactory.getMediaType(filename).orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    private static AppException notFound() {
+        return new AppException("Không tìm thấy video", HttpStatus.NOT_FOUND, true);
+    }
+}
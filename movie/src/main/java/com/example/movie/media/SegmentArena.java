@@ -0,0 +1,87 @@
+package com.example.movie.media;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Vùng nhớ off-heap chia thành các block cố định, cấp phát theo danh sách block trống.
+ *
+ * Slab là direct ByteBuffer cấp phát một lần rồi dùng lại mãi, nên GC không phải quét hay dọn phần dữ liệu,
+ * và bộ nhớ không phụ thuộc Cleaner như khi allocateDirect cho từng segment. Slab được thêm dần khi cần,
+ * tối đa đến capacity.
+ */
+final class SegmentArena {
+
+    private final int blockSize;
+    private final int blocksPerSlab;
+    private final ByteBuffer[] slabs;
+
+    // Stack các block trống; slabCount và free chỉ đổi khi giữ lock
+    private int slabCount;
+    private int[] free = new int[0];
+    private int freeCount;
+
+    SegmentArena(long capacity, int blockSize, int slabSize) {
+        this.blockSize = blockSize;
+        long blocks = capacity / blockSize;
+        this.blocksPerSlab = (int) Math.max(1, Math.min(slabSize / blockSize, blocks));
+        // Làm tròn xuống theo slab để không vượt capacity
+        this.slabs = new ByteBuffer[(int) (blocks / blocksPerSlab)];
+    }
+
+    int blockSize() {
+        return blockSize;
+    }
+
+    long capacity() {
+        return (long) slabs.length * blocksPerSlab * blockSize;
+    }
+
+    synchronized long used() {
+        return ((long) slabCount * blocksPerSlab - freeCount) * blockSize;
+    }
+
+    /**
+     * Chỉ số của count block trống, null nếu arena đã đầy
+     */
+    synchronized int[] allocate(int count) {
+        while (freeCount < count && slabCount < slabs.length) {
+            addSlab();
+        }
+        if (freeCount < count) {
+            return null;
+        }
+        int[] blocks = new int[count];
+        freeCount -= count;
+        System.arraycopy(free, freeCount, blocks, 0, count);
+        return blocks;
+    }
+
+    synchronized void release(int[] blocks) {
+        System.arraycopy(blocks, 0, free, freeCount, blocks.length);
+        freeCount += blocks.length;
+    }
+
+    /**
+     * View riêng (position 0, limit blockSize) của một block; an toàn khi nhiều thread cùng đọc
+     */
+    ByteBuffer block(int index) {
+        // Slab đã được tạo trước khi block của nó được cấp phát, và block đến tay người đọc qua
+        // CompletableFuture của cache nên việc ghi slabs[i] luôn happens-before lần đọc này
+        return slabs[index / blocksPerSlab].slice((index % blocksPerSlab) * blockSize, blockSize);
+    }
+
+    private void addSlab() {
+        slabs[slabCount] = ByteBuffer.allocateDirect(blocksPerSlab * blockSize);
+        int first = slabCount * blocksPerSlab;
+        slabCount++;
+        if (free.length < slabCount * blocksPerSlab) {
+            int[] grown = new int[slabCount * blocksPerSlab];
+            System.arraycopy(free, 0, grown, 0, freeCount);
+            free = grown;
+        }
+        // Đẩy ngược để block đầu slab được cấp trước
+        for (int i = blocksPerSlab - 1; i >= 0; i--) {
+            free[freeCount++] = first + i;
+        }
+    }
+}
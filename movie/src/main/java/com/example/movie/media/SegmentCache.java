@@ -0,0 +1,153 @@
+package com.example.movie.media;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Cache playlist/segment HLS-DASH đang được xem nhiều, nội dung nằm off-heap trong SegmentArena.
+ *
+ * Caffeine chỉ giữ metadata (trọng số = số byte off-heap), nên kích thước cache không ảnh hưởng GC.
+ * Nhiều request cùng lỡ một segment thì chỉ một request đọc đĩa, các request còn lại chờ CompletableFuture của nó.
+ * Key gồm kích thước và thời điểm sửa file: file được đóng gói lại thì bản cũ tự bị đẩy ra theo thời gian.
+ */
+@Component
+public class SegmentCache {
+
+    public static final String CACHE_NAME = "mediaSegments";
+
+    private static final Logger log = LoggerFactory.getLogger(SegmentCache.class);
+
+    private final SegmentArena arena;
+    private final long maxEntrySize;
+    private final AsyncCache<Key, CachedSegment> cache;
+    private final Counter bypassed;
+
+    public SegmentCache(MeterRegistry meterRegistry,
+                        @Value("${app.media.segment-cache.max-size:512MB}") DataSize maxSize,
+                        @Value("${app.media.segment-cache.max-entry-size:16MB}") DataSize maxEntrySize,
+                        @Value("${app.media.segment-cache.block-size:64KB}") DataSize blockSize,
+                        @Value("${app.media.segment-cache.slab-size:64MB}") DataSize slabSize) {
+        this.arena = new SegmentArena(maxSize.toBytes(), (int) blockSize.toBytes(), (int) slabSize.toBytes());
+        this.maxEntrySize = Math.min(maxEntrySize.toBytes(), arena.capacity());
+        // Caffeine chỉ tính segment đã đọc xong và loại entry sau khi thêm; chừa chỗ cho segment đang đọc
+        // và segment đã bị loại nhưng còn request đang gửi, để arena (giới hạn cứng max-size) hiếm khi đầy
+        long maximumWeight = Math.max(arena.capacity() - 2 * this.maxEntrySize, arena.capacity() / 2);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((Key key, CachedSegment segment) -> segment.footprint())
+                // Trả block về arena ngay trên thread gây ra việc loại, không đợi ForkJoinPool
+                .executor(Runnable::run)
+                .removalListener((Key key, CachedSegment segment, RemovalCause cause) -> {
+                    if (segment != null) {
+                        segment.release();
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+
+        // Cùng bộ meter cache.gets/puts/evictions/size mà actuator gắn cho các cache của CacheManager
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.bypassed = Counter.builder("media.segment-cache.bypassed")
+                .description("Số lần segment được gửi thẳng từ đĩa vì arena off-heap đã đầy")
+                .register(meterRegistry);
+        Gauge.builder("media.segment-cache.off-heap.used", arena, SegmentArena::used)
+                .description("Số byte off-heap đang chứa segment")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("media.segment-cache.off-heap.capacity", arena, SegmentArena::capacity)
+                .description("Giới hạn off-heap của cache segment")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Segment trong cache (đọc từ đĩa nếu chưa có), đã giữ sẵn một tham chiếu: người gọi phải release().
+     * null nếu không cache được (file quá lớn, arena đầy, lỗi đọc); khi đó gửi thẳng từ đĩa.
+     */
+    public CachedSegment open(VideoFile file) {
+        if (file.length() > maxEntrySize) {
+            return null;
+        }
+        Key key = new Key(file.path(), file.length(), file.lastModified());
+        CompletableFuture<CachedSegment> created = new CompletableFuture<>();
+        CompletableFuture<CachedSegment> future = cache.get(key, (k, executor) -> created);
+        if (future == created) {
+            // Đọc ngoài compute của Caffeine để không khóa các key khác cùng bucket trong lúc chờ đĩa
+            return load(file, created);
+        }
+
+        CachedSegment segment;
+        try {
+            segment = future.join();
+        } catch (CompletionException | CancellationException ex) {
+            return null;
+        }
+        // Có thể vừa bị loại giữa lúc future hoàn thành và lúc retain
+        return segment != null && segment.retain() ? segment : null;
+    }
+
+    /**
+     * Đọc file vào arena rồi hoàn thành result; segment trả về đã có tham chiếu cho request đang đọc,
+     * lấy trước khi vào cache vì chính sách admission của Caffeine có thể loại ngay entry mới chỉ được dùng một lần
+     */
+    private CachedSegment load(VideoFile file, CompletableFuture<CachedSegment> result) {
+        int length = (int) file.length();
+        int[] blocks = arena.allocate(Math.ceilDiv(length, arena.blockSize()));
+        if (blocks == null) {
+            bypassed.increment();
+            // Future rỗng bị Caffeine tự xóa, lần sau sẽ thử lại
+            result.complete(null);
+            return null;
+        }
+
+        CachedSegment segment = new CachedSegment(arena, blocks, length);
+        try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+            long position = 0;
+            for (int i = 0; i < segment.blockCount(); i++) {
+                ByteBuffer block = segment.block(i);
+                block.limit((int) Math.min(block.capacity(), length - position));
+                while (block.hasRemaining()) {
+                    if (channel.read(block, position + block.position()) < 0) {
+                        throw new EOFException("File shrank while caching");
+                    }
+                }
+                position += block.limit();
+            }
+            segment.retain();
+            result.complete(segment);
+            return segment;
+        } catch (IOException | RuntimeException ex) {
+            // Luôn hoàn thành future, nếu không các request đang chờ segment này sẽ treo
+            segment.release();
+            log.debug("Could not cache media segment {}", file.path(), ex);
+            result.completeExceptionally(ex);
+            return null;
+        }
+    }
+
+    private record Key(Path path, long length, Instant lastModified) {
+    }
+}
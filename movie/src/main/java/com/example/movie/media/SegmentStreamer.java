@@ -0,0 +1,58 @@
+package com.example.movie.media;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+
+/**
+ * Gửi playlist/segment HLS-DASH: GET cả file lấy từ SegmentCache, còn Range, HEAD và file không cache được
+ * thì đi qua ByteRangeStreamer như video thường.
+ *
+ * Từ cache, dữ liệu đi từ block off-heap qua buffer tạm vài KB của Channels.newChannel ra response
+ * (output stream của Tomcat nằm sau wrapper của Spring Security/Session nên không ghi thẳng ByteBuffer được).
+ */
+@Component
+public class SegmentStreamer {
+
+    private static final Logger log = LoggerFactory.getLogger(SegmentStreamer.class);
+
+    private final SegmentCache segmentCache;
+    private final ByteRangeStreamer byteRangeStreamer;
+
+    public SegmentStreamer(SegmentCache segmentCache, ByteRangeStreamer byteRangeStreamer) {
+        this.segmentCache = segmentCache;
+        this.byteRangeStreamer = byteRangeStreamer;
+    }
+
+    public void stream(HttpServletRequest request, HttpServletResponse response, VideoFile file) throws IOException {
+        if (request.getHeader(HttpHeaders.RANGE) != null || !HttpMethod.GET.matches(request.getMethod())) {
+            byteRangeStreamer.stream(request, response, file);
+            return;
+        }
+        CachedSegment segment = segmentCache.open(file);
+        if (segment == null) {
+            byteRangeStreamer.stream(request, response, file);
+            return;
+        }
+
+        try {
+            ByteRangeStreamer.writeValidators(response, file);
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(file.mediaType().toString());
+            response.setContentLength(segment.length());
+            segment.writeTo(Channels.newChannel(response.getOutputStream()));
+        } catch (IOException ex) {
+            log.debug("Segment transfer aborted for {}", file.path(), ex);
+        } finally {
+            segment.release();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.movie.media;
+
+import org.springframework.http.MediaType;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * File media đã kiểm tra tồn tại, kèm metadata cho header Content-Type/ETag/Last-Modified
+ */
+public record VideoFile(Path path, long length, Instant lastModified, MediaType mediaType) {
+
+    /**
+     * ETag mạnh theo kích thước và thời điểm sửa: file được thay thế thì If-Range cũ không còn khớp
+     */
+    public String etag() {
+        return "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified.toEpochMilli()) + "\"";
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.movie.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timer cho các luồng auth: auth.requests{operation, outcome} và auth.phase{operation, phase}.
+ *
+ * Mọi Timer được đăng ký sẵn lúc khởi động và tra theo ordinal, nên ghi số liệu không cấp phát gì.
+ * Khi app.metrics.enabled=false thì start() trả 0 và record() thoát ngay.
+ * Thời gian BCrypt của lần đăng nhập có ở auth.password.hash{operation=matches}, round-trip Redis của session ở session.redis.
+ */
+@Component
+public class AuthMetrics {
+
+    public enum Operation {
+        REGISTER(EnumSet.of(Outcome.SUCCESS, Outcome.DUPLICATE, Outcome.ERROR),
+                EnumSet.of(Phase.BCRYPT, Phase.REPOSITORY)),
+        LOGIN(EnumSet.of(Outcome.SUCCESS, Outcome.BAD_CREDENTIALS, Outcome.RATE_LIMITED, Outcome.ERROR),
+                EnumSet.of(Phase.REPOSITORY)),
+        CURRENT_USER(EnumSet.of(Outcome.SUCCESS, Outcome.ERROR),
+                EnumSet.of(Phase.REPOSITORY));
+
+        private final Set<Outcome> outcomes;
+        private final Set<Phase> phases;
+
+        Operation(Set<Outcome> outcomes, Set<Phase> phases) {
+            this.outcomes = outcomes;
+            this.phases = phases;
+        }
+    }
+
+    public enum Outcome {
+        SUCCESS, BAD_CREDENTIALS, DUPLICATE, RATE_LIMITED, ERROR
+    }
+
+    public enum Phase {
+        BCRYPT, REPOSITORY
+    }
+
+    private final boolean enabled;
+    private final Timer[][] requestTimers;
+    private final Timer[][] phaseTimers;
+
+    public AuthMetrics(MeterRegistry meterRegistry,
+                       @Value("${app.metrics.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        this.requestTimers = new Timer[Operation.values().length][Outcome.values().length];
+        this.phaseTimers = new Timer[Operation.values().length][Phase.values().length];
+        if (!enabled) {
+            return;
+        }
+
+        for (Operation operation : Operation.values()) {
+            for (Outcome outcome : operation.outcomes) {
+                requestTimers[operation.ordinal()][outcome.ordinal()] = Timer.builder("auth.requests")
+                        .description("Thời gian xử lý đăng ký, đăng nhập và /me theo kết quả")
+                        .tag("operation", tagValue(operation))
+                        .tag("outcome", tagValue(outcome))
+                        .register(meterRegistry);
+            }
+            for (Phase phase : operation.phases) {
+                phaseTimers[operation.ordinal()][phase.ordinal()] = Timer.builder("auth.phase")
+                        .description("Thời gian của từng bước trong luồng auth")
+                        .tag("operation", tagValue(operation))
+                        .tag("phase", tagValue(phase))
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    public void record(Operation operation, Outcome outcome, long start) {
+        if (enabled) {
+            Timer timer = requestTimers[operation.ordinal()][outcome.ordinal()];
+            (timer != null ? timer : requestTimers[operation.ordinal()][Outcome.ERROR.ordinal()])
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordPhase(Operation operation, Phase phase, long start) {
+        Timer timer = phaseTimers[operation.ordinal()][phase.ordinal()];
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.movie.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Đếm câu SQL theo request; chỉ được đăng ký khi app.metrics.enabled=true
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class PersistenceMetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCountingCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                new StatementCountingInspector(existingInspector(properties.get(AvailableSettings.STATEMENT_INSPECTOR))));
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementCountFilter> statementCountFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<StatementCountFilter> registration =
+                new FilterRegistrationBean<>(new StatementCountFilter(meterRegistry));
+        // Bọc ngoài cùng để tính cả câu SQL chạy trong filter của Spring Security/Session
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    private static StatementInspector existingInspector(Object configured) {
+        if (configured instanceof StatementInspector inspector) {
+            return inspector;
+        }
+        if (configured instanceof Class<?> type) {
+            return (StatementInspector) BeanUtils.instantiateClass(type);
+        }
+        if (configured instanceof String className && !className.isBlank()) {
+            return (StatementInspector) BeanUtils.instantiateClass(ClassUtils.resolveClassName(className, null));
+        }
+        return null;
+    }
+}
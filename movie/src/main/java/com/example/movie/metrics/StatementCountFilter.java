@@ -0,0 +1,57 @@
+package com.example.movie.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ghi số câu SQL của mỗi request vào http.server.requests.db.statements{uri},
+ * uri là pattern của handler (giống tag uri của http.server.requests) để số series có giới hạn.
+ */
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public StatementCountFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        int[] counter = new int[1];
+        StatementCountingInspector.begin(counter);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            StatementCountingInspector.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            summary(pattern instanceof String uri ? uri : UNKNOWN_URI).record(counter[0]);
+        }
+    }
+
+    private DistributionSummary summary(String uri) {
+        DistributionSummary summary = summaries.get(uri);
+        if (summary == null) {
+            summary = summaries.computeIfAbsent(uri, key -> DistributionSummary.builder("http.server.requests.db.statements")
+                    .description("Số câu SQL Hibernate thực thi trong một request")
+                    .tag("uri", key)
+                    .register(meterRegistry));
+        }
+        return summary;
+    }
+}
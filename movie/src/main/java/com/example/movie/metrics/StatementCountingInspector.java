@@ -0,0 +1,35 @@
+package com.example.movie.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Đếm số câu SQL Hibernate chuẩn bị trong request hiện tại (bộ đếm do StatementCountFilter gắn vào thread).
+ * Nếu đã có StatementInspector khác được cấu hình thì vẫn gọi tiếp nó.
+ */
+public class StatementCountingInspector implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNTER = new ThreadLocal<>();
+
+    private final StatementInspector delegate;
+
+    public StatementCountingInspector(StatementInspector delegate) {
+        this.delegate = delegate;
+    }
+
+    static void begin(int[] counter) {
+        COUNTER.set(counter);
+    }
+
+    static void end() {
+        COUNTER.remove();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] counter = COUNTER.get();
+        if (counter != null) {
+            counter[0]++;
+        }
+        return delegate != null ? delegate.inspect(sql) : sql;
+    }
+}
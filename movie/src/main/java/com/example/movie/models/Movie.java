@@ -0,0 +1,69 @@
+package com.example.movie.models;
+
+import com.example.movie.models.id.UuidV7;
+import com.example.movie.services.movie.MovieIndexListener;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@EntityListeners(MovieIndexListener.class)
+@Table(name = "movies")
+@Builder
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@Setter
+public class Movie {
+
+    @Id
+    @UuidV7
+    @Setter(AccessLevel.NONE)
+    @Column(updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(nullable = false, length = 255)
+    private String title;
+
+    // Tên gốc (thường là tiếng Anh), cũng được đưa vào chỉ mục tìm kiếm
+    @Column(length = 255)
+    private String originalTitle;
+
+    private Integer releaseYear;
+
+    @Column(length = 4000)
+    private String overview;
+
+    private Integer durationMinutes;
+
+    @Column(length = 255)
+    private String posterUrl;
+
+    // Đường dẫn file video tương đối với app.media.root
+    @Column(length = 500)
+    private String videoPath;
+
+    // Thư mục HLS/DASH (playlist + segment, đóng gói sẵn bằng ffmpeg) tương đối với app.media.root
+    @Column(length = 500)
+    private String streamPath;
+
+    // Thứ hạng tĩnh cho gợi ý và để phân định kết quả tìm kiếm ngang điểm
+    @Builder.Default
+    @Column(nullable = false)
+    private long popularity = 0;
+
+    @CreationTimestamp
+    @Setter(AccessLevel.NONE)
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Setter(AccessLevel.NONE)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,33 @@
+package com.example.movie.models;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Tổng lượt xem/lượt phát của một phim.
+ * Bảng riêng để phần cộng dồn không chạm vào dòng movies (và không bị JPA ghi đè khi sửa phim);
+ * chỉ được ghi bằng JDBC batch (MovieStatsService), entity để Hibernate tạo bảng.
+ */
+@Entity
+@Table(name = "movie_stats")
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+public class MovieStats {
+
+    @Id
+    @Column(name = "movie_id", nullable = false)
+    private UUID movieId;
+
+    @Column(nullable = false)
+    private long viewCount;
+
+    @Column(nullable = false)
+    private long playCount;
+
+    // Thời điểm flush gần nhất
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
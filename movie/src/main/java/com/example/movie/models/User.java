@@ -1,8 +1,11 @@
 package com.example.movie.models;
 
+import com.example.movie.cache.UserCacheInvalidationListener;
 import com.example.movie.enums.*;
+import com.example.movie.models.id.UuidV7;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.UUID;
 
 import org.hibernate.annotations.CreationTimestamp;
@@ -12,12 +15,17 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
+@EntityListeners(UserCacheInvalidationListener.class)
 @Table(
     name = "users",
-    indexes = {
-        @Index(name = "idx_users_username", columnList = "username"),
-        @Index(name = "idx_users_email", columnList = "email")
-    }
+    // Unique constraint trên cột đã chuẩn hóa cũng là index cho tra cứu đăng nhập (một lần dò index, không OR)
+    // Đặt tên constraint để map lỗi trùng lặp khi insert về đúng thông báo
+    uniqueConstraints = {
+        @UniqueConstraint(name = User.UK_USERNAME, columnNames = "username_normalized"),
+        @UniqueConstraint(name = User.UK_EMAIL, columnNames = "email_normalized")
+    },
+    // Phân trang keyset của trang quản trị (xem UserListingRepository)
+    indexes = @Index(name = "idx_users_created_at_id", columnList = "created_at, id")
 )
 @Builder 
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
@@ -25,17 +33,27 @@ import lombok.*;
 @Getter
 public class User {
 
+    public static final String UK_USERNAME = "uk_users_username";
+    public static final String UK_EMAIL = "uk_users_email";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     @Column(updatable = false, nullable = false)
     private UUID id;
 
-    @Column(nullable = false, unique = true, length = 50)
+    @Column(nullable = false, length = 50)
     private String username;
 
-    @Column(nullable = false, unique = true, length = 100)
+    @Column(nullable = false, length = 100)
     private String email;
 
+    // Bản chữ thường của username/email, tự gán trước khi ghi để đăng nhập không phân biệt hoa thường
+    @Column(name = "username_normalized", nullable = false, length = 50)
+    private String usernameNormalized;
+
+    @Column(name = "email_normalized", nullable = false, length = 100)
+    private String emailNormalized;
+
     @Column(nullable = false, length = 100)
     private String passwordHash;
 
@@ -69,6 +87,20 @@ public class User {
     @Setter
     private LocalDateTime lastLoginAt;
 
+    /**
+     * Chuẩn hóa username/email để so sánh không phân biệt hoa thường
+     */
+    public static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalizeIdentifiers() {
+        this.usernameNormalized = normalize(username);
+        this.emailNormalized = normalize(email);
+    }
+
     public void disable() {
         this.enabled = false;
     }
@@ -0,0 +1,61 @@
+package com.example.movie.models;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Vị trí xem gần nhất của một user trong một phim.
+ * Chỉ được ghi bằng JDBC batch (WatchProgressService); entity để Hibernate tạo bảng và index.
+ */
+@Entity
+@Table(
+    name = "watch_progress",
+    // "Xem tiếp": phim của một user theo lần xem gần nhất (xem WatchProgressRepository)
+    indexes = @Index(name = "idx_watch_progress_user_updated_at", columnList = "user_id, updated_at")
+)
+@IdClass(WatchProgress.Key.class)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+public class WatchProgress {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Id
+    @Column(name = "movie_id", nullable = false)
+    private UUID movieId;
+
+    // Chỉ để sinh khóa ngoại: xóa phim thì xóa luôn vị trí xem của phim đó
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "movie_id", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(name = "fk_watch_progress_movie"))
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @Getter(AccessLevel.NONE)
+    private Movie movie;
+
+    @Column(nullable = false)
+    private int positionSeconds;
+
+    // Độ dài do player báo, null nếu player chưa biết (live, metadata chưa tải)
+    private Integer durationSeconds;
+
+    // Thời điểm server nhận heartbeat, không phải thời điểm flush
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private UUID userId;
+        private UUID movieId;
+    }
+}
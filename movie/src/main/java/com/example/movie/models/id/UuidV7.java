@@ -0,0 +1,22 @@
+package com.example.movie.models.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Khóa chính UUIDv7 (RFC 9562): 48 bit đầu là thời điểm tạo (ms), nên bản ghi mới luôn được chèn
+ * vào cuối B-tree của primary key thay vì một trang ngẫu nhiên như UUIDv4.
+ *
+ * Migration: cột vẫn là uuid, không đổi schema. Các id v4 đã có giữ nguyên (session, cache, khóa ngoại
+ * đang tham chiếu chúng), chỉ bản ghi mới nhận v7; v4 và v7 cùng tồn tại được vì đều là UUID hợp lệ.
+ * Có thể REINDEX primary key sau khi chuyển để thu hồi phần index đã phình do chèn ngẫu nhiên.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface UuidV7 {
+}
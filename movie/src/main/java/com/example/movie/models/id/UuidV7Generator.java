@@ -0,0 +1,58 @@
+package com.example.movie.models.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hibernate.generator.EventTypeSets.INSERT_ONLY;
+
+/**
+ * Sinh UUIDv7 tăng dần, không khóa.
+ *
+ * Trạng thái là một AtomicLong gồm timestamp (ms) và bộ đếm 12 bit (trường rand_a) cập nhật bằng CAS:
+ * trong cùng một ms bộ đếm tăng dần nên các id vẫn có thứ tự; khi bộ đếm tràn hoặc đồng hồ lùi lại,
+ * timestamp được "mượn" tăng thêm thay vì chờ, nên id không bao giờ giảm trong một JVM.
+ * 62 bit còn lại lấy từ ThreadLocalRandom (không tranh chấp giữa các thread).
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final int COUNTER_BITS = 12;
+
+    private static final AtomicLong STATE = new AtomicLong();
+
+    public static UUID next() {
+        long candidate = System.currentTimeMillis() << COUNTER_BITS;
+        long state = STATE.updateAndGet(previous -> Math.max(previous + 1, candidate));
+
+        long timestamp = state >>> COUNTER_BITS;
+        long counter = state & ((1L << COUNTER_BITS) - 1);
+        long mostSignificant = (timestamp << 16) | VERSION | counter;
+        long leastSignificant = VARIANT | (ThreadLocalRandom.current().nextLong() & RANDOM_MASK);
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    /**
+     * Thời điểm tạo (epoch ms) được mã hóa trong một UUIDv7
+     */
+    public static long timestamp(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return INSERT_ONLY;
+    }
+}
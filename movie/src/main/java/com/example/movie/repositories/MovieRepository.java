@@ -0,0 +1,20 @@
+package com.example.movie.repositories;
+
+import com.example.movie.models.Movie;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface MovieRepository extends JpaRepository<Movie, UUID> {
+
+    // Mỗi lần player tua là một request Range: chỉ đọc đúng cột cần, không load entity
+    @Query("select m.videoPath from Movie m where m.id = :id")
+    Optional<String> findVideoPathById(@Param("id") UUID id);
+
+    @Query("select m.streamPath from Movie m where m.id = :id")
+    Optional<String> findStreamPathById(@Param("id") UUID id);
+}
@@ -0,0 +1,52 @@
+package com.example.movie.repositories;
+
+import com.example.movie.stats.MovieCounters.Delta;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Cộng dồn lượt xem/lượt phát vào bảng movie_stats bằng JDBC.
+ *
+ * Mỗi phim chỉ một câu MERGE mỗi chu kỳ flush (cộng cả phần tăng thêm), thay vì một UPDATE mỗi lượt xem
+ * tranh nhau khóa cùng một dòng.
+ */
+@Repository
+public class MovieStatsRepository {
+
+    private static final String ADD_SQL = """
+            MERGE INTO movie_stats t
+            USING (VALUES (CAST(? AS UUID), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS TIMESTAMP)))
+                AS s (movie_id, views, plays, updated_at)
+            ON t.movie_id = s.movie_id
+            WHEN MATCHED THEN
+                UPDATE SET view_count = t.view_count + s.views,
+                           play_count = t.play_count + s.plays,
+                           updated_at = s.updated_at
+            WHEN NOT MATCHED THEN
+                INSERT (movie_id, view_count, play_count, updated_at)
+                VALUES (s.movie_id, s.views, s.plays, s.updated_at)""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MovieStatsRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Không idempotent: gọi trong transaction để cả batch cùng thành công hoặc cùng được thử lại
+     */
+    public void add(Collection<Delta> deltas, LocalDateTime now, int batchSize) {
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(ADD_SQL, deltas, batchSize, (ps, delta) -> {
+            ps.setObject(1, delta.movieId());
+            ps.setLong(2, delta.views());
+            ps.setLong(3, delta.plays());
+            ps.setTimestamp(4, updatedAt);
+        });
+    }
+}
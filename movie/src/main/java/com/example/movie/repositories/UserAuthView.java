@@ -0,0 +1,30 @@
+package com.example.movie.repositories;
+
+import com.example.movie.enums.Role;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection cho đăng nhập: chỉ các cột UserPrincipal cần, không load cả entity
+ */
+public interface UserAuthView {
+
+    UUID getId();
+
+    String getUsername();
+
+    String getPasswordHash();
+
+    Role getRole();
+
+    boolean isEnabled();
+
+    String getEmail();
+
+    String getDisplayName();
+
+    String getAvatarUrl();
+
+    LocalDateTime getCreatedAt();
+}
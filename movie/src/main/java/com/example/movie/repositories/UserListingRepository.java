@@ -0,0 +1,110 @@
+package com.example.movie.repositories;
+
+import com.example.movie.dto.request.UserSearchRequest;
+import com.example.movie.dto.response.UserResponse;
+import com.example.movie.enums.Role;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Duyệt bảng users cho admin bằng JDBC, map thẳng sang UserResponse (không qua entity/persistence context).
+ *
+ * Phân trang keyset theo (created_at, id), dùng index idx_users_created_at_id: mỗi trang là một lần dò index
+ * từ vị trí cursor, chi phí không tăng theo số trang như OFFSET.
+ */
+@Repository
+public class UserListingRepository {
+
+    private static final String SELECT = """
+            SELECT id, username, email, display_name, avatar_url, role, created_at, updated_at
+            FROM users
+            WHERE 1 = 1""";
+
+    private static final RowMapper<UserResponse> USER_RESPONSE = (rs, rowNum) -> UserResponse.builder()
+            .id(rs.getObject("id", UUID.class))
+            .username(rs.getString("username"))
+            .email(rs.getString("email"))
+            .displayName(rs.getString("display_name"))
+            .avatarUrl(rs.getString("avatar_url"))
+            .role(Role.valueOf(rs.getString("role")))
+            .createdAt(rs.getObject("created_at", LocalDateTime.class))
+            .updatedAt(rs.getObject("updated_at", LocalDateTime.class))
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate exportJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public UserListingRepository(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.admin.users.export-fetch-size:1000}") int exportFetchSize) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+
+        // Driver Postgres chỉ đọc theo từng đợt fetch-size (server-side cursor) khi có fetch size và đang trong transaction
+        JdbcTemplate exportTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        exportTemplate.setFetchSize(exportFetchSize);
+        this.exportJdbcTemplate = new NamedParameterJdbcTemplate(exportTemplate);
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Tối đa limit user sau vị trí (afterCreatedAt, afterId), theo thứ tự (created_at, id)
+     */
+    public List<UserResponse> findPage(UserSearchRequest filter, LocalDateTime afterCreatedAt, UUID afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder(SELECT);
+        appendFilters(sql, params, filter);
+        if (afterCreatedAt != null) {
+            sql.append(" AND (created_at, id) > (:afterCreatedAt, :afterId)");
+            params.addValue("afterCreatedAt", Timestamp.valueOf(afterCreatedAt));
+            params.addValue("afterId", afterId);
+        }
+        sql.append(" ORDER BY created_at, id LIMIT :limit");
+        params.addValue("limit", limit);
+        return jdbcTemplate.query(sql.toString(), params, USER_RESPONSE);
+    }
+
+    /**
+     * Đọc toàn bộ user khớp bộ lọc bằng cursor JDBC, mỗi dòng được đưa ngay cho consumer
+     */
+    public void streamAll(UserSearchRequest filter, Consumer<UserResponse> consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder(SELECT);
+        appendFilters(sql, params, filter);
+        sql.append(" ORDER BY created_at, id");
+
+        RowCallbackHandler handler = rs -> consumer.accept(USER_RESPONSE.mapRow(rs, 0));
+        readOnlyTransaction.executeWithoutResult(status -> exportJdbcTemplate.query(sql.toString(), params, handler));
+    }
+
+    private static void appendFilters(StringBuilder sql, MapSqlParameterSource params, UserSearchRequest filter) {
+        if (filter.getRole() != null) {
+            sql.append(" AND role = :role");
+            params.addValue("role", filter.getRole().name());
+        }
+        if (filter.getProvider() != null) {
+            sql.append(" AND provider = :provider");
+            params.addValue("provider", filter.getProvider().name());
+        }
+        if (filter.getEnabled() != null) {
+            sql.append(" AND is_enabled = :enabled");
+            params.addValue("enabled", filter.getEnabled());
+        }
+    }
+}
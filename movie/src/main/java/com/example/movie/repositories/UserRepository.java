@@ -3,6 +3,9 @@ package com.example.movie.repositories;
 import com.example.movie.models.User;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -13,5 +16,17 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     Optional<User> findByEmail(String email);
 
-    Optional<User> findByUsernameOrEmail(String username, String email);
+    // Tra cứu đăng nhập: chỉ lấy các cột UserPrincipal cần, theo cột đã chuẩn hóa (xem User.normalize)
+    Optional<UserAuthView> findAuthByUsernameNormalized(String usernameNormalized);
+
+    Optional<UserAuthView> findAuthByEmailNormalized(String emailNormalized);
+
+    // Kiểm tra username/email còn trống (UsernameAvailabilityService), so theo cột chuẩn hóa như unique constraint
+    boolean existsByUsernameNormalized(String usernameNormalized);
+
+    boolean existsByEmailNormalized(String emailNormalized);
+
+    @Modifying
+    @Query("update User u set u.passwordHash = :passwordHash where u.id = :id")
+    int updatePasswordHash(@Param("id") UUID id, @Param("passwordHash") String passwordHash);
 }
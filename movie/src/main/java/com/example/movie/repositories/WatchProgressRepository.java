@@ -0,0 +1,89 @@
+package com.example.movie.repositories;
+
+import com.example.movie.dto.response.ContinueWatchingItem;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Đọc/ghi bảng watch_progress bằng JDBC.
+ *
+ * Ghi bằng MERGE chuẩn SQL (PostgreSQL 15+ và H2 đều hỗ trợ, khác với INSERT ... ON CONFLICT DO UPDATE):
+ * chỉ ghi đè khi bản mới hơn, nên flush chậm từ node khác không kéo vị trí xem lùi lại.
+ */
+@Repository
+public class WatchProgressRepository {
+
+    // Tham số trong VALUES không có kiểu cột đích, phải CAST để Postgres so sánh đúng kiểu.
+    // Phim bị xóa sau khi heartbeat được nhận thì bỏ qua dòng đó, nếu không khóa ngoại làm hỏng cả batch mãi mãi
+    private static final String UPSERT_SQL = """
+            MERGE INTO watch_progress t
+            USING (
+                SELECT v.* FROM (VALUES (CAST(? AS UUID), CAST(? AS UUID), CAST(? AS INTEGER), CAST(? AS INTEGER), CAST(? AS TIMESTAMP)))
+                    AS v (user_id, movie_id, position_seconds, duration_seconds, updated_at)
+                WHERE EXISTS (SELECT 1 FROM movies m WHERE m.id = v.movie_id)
+            ) AS s
+            ON t.user_id = s.user_id AND t.movie_id = s.movie_id
+            WHEN MATCHED AND t.updated_at < s.updated_at THEN
+                UPDATE SET position_seconds = s.position_seconds,
+                           duration_seconds = s.duration_seconds,
+                           updated_at = s.updated_at
+            WHEN NOT MATCHED THEN
+                INSERT (user_id, movie_id, position_seconds, duration_seconds, updated_at)
+                VALUES (s.user_id, s.movie_id, s.position_seconds, s.duration_seconds, s.updated_at)""";
+
+    // Dò idx_watch_progress_user_updated_at từ cuối; phim đã xem gần hết hoặc đã bị xóa thì bỏ qua
+    // (tỉ lệ phải CAST, nếu không H2 suy ra kiểu INTEGER từ cột và làm tròn 0.95 thành 1)
+    private static final String CONTINUE_WATCHING_SQL = """
+            SELECT p.movie_id, m.title, m.poster_url, p.position_seconds, p.duration_seconds, p.updated_at
+            FROM watch_progress p
+            JOIN movies m ON m.id = p.movie_id
+            WHERE p.user_id = ?
+              AND (p.duration_seconds IS NULL OR p.position_seconds < p.duration_seconds * CAST(? AS DOUBLE PRECISION))
+            ORDER BY p.updated_at DESC
+            LIMIT ?""";
+
+    private static final RowMapper<ContinueWatchingItem> CONTINUE_WATCHING_ITEM = (rs, rowNum) -> ContinueWatchingItem.builder()
+            .movieId(rs.getObject("movie_id", UUID.class))
+            .title(rs.getString("title"))
+            .posterUrl(rs.getString("poster_url"))
+            .positionSeconds(rs.getInt("position_seconds"))
+            .durationSeconds(rs.getObject("duration_seconds", Integer.class))
+            .watchedAt(rs.getObject("updated_at", LocalDateTime.class))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WatchProgressRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void upsert(Collection<Row> rows, int batchSize) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, batchSize, (ps, row) -> {
+            ps.setObject(1, row.userId());
+            ps.setObject(2, row.movieId());
+            ps.setInt(3, row.positionSeconds());
+            if (row.durationSeconds() == null) {
+                ps.setNull(4, Types.INTEGER);
+            } else {
+                ps.setInt(4, row.durationSeconds());
+            }
+            ps.setTimestamp(5, Timestamp.valueOf(row.updatedAt()));
+        });
+    }
+
+    public List<ContinueWatchingItem> findContinueWatching(UUID userId, double finishedRatio, int limit) {
+        return jdbcTemplate.query(CONTINUE_WATCHING_SQL, CONTINUE_WATCHING_ITEM, userId, finishedRatio, limit);
+    }
+
+    public record Row(UUID userId, UUID movieId, int positionSeconds, Integer durationSeconds, LocalDateTime updatedAt) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.movie.search;
+
+import java.util.UUID;
+
+/**
+ * Phần của Movie được giữ trong chỉ mục; version tăng theo updated_at để bỏ qua bản ghi cũ hơn
+ */
+public record IndexedMovie(
+        UUID id,
+        String title,
+        String originalTitle,
+        Integer releaseYear,
+        long popularity,
+        long version
+) {
+}
@@ -0,0 +1,423 @@
+package com.example.movie.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * Chỉ mục ngược trong bộ nhớ trên tên phim (title + originalTitle, đã bỏ dấu) cho tìm kiếm và autocomplete.
+ *
+ * Mỗi phim là một doc id int cấp tăng dần, posting list là mảng int nên giao các term chỉ là nhảy trên mảng.
+ * Cập nhật một phim = đánh dấu doc cũ là chết rồi thêm doc mới, nên posting list chỉ append;
+ * doc chết được dọn khi dựng lại chỉ mục (xem {@link #deadCount()}).
+ *
+ * Xếp hạng: BM25 trên tên (mỗi term tính một lần) cộng một phần nhỏ theo độ phổ biến, nên điểm của một doc khớp
+ * chỉ phụ thuộc số term và độ phổ biến của nó. {@link #load} cấp doc id theo (số term tăng, độ phổ biến giảm):
+ * mỗi nhóm cùng số term là một tầng có điểm giảm dần theo doc id, nên khi tìm chỉ cần lấy limit doc khớp đầu tiên
+ * của mỗi tầng và bỏ qua cả tầng nếu điểm cao nhất của nó không vượt được kết quả thứ limit.
+ * Doc thêm trước/sau lần load (ghi trong lúc dựng lại, cập nhật sau đó) nằm ngoài các tầng và luôn được duyệt hết.
+ *
+ * Gợi ý: một từ thì lấy top theo độ phổ biến giữ sẵn trong trie; nhiều từ thì xếp hạng như tìm kiếm
+ * trên các từ đầy đủ, chỉ giữ phim có term bắt đầu bằng từ cuối.
+ */
+public final class MovieSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // Chỉ đủ để phân định các kết quả có điểm BM25 gần nhau
+    private static final double POPULARITY_WEIGHT = 0.1;
+    // Term có mặt trong ít nhất 1/64 số doc (và tối thiểu chừng này doc) được thêm bitset, tốn docCount/8 byte mỗi term
+    private static final int DENSE_MIN_DOCS = 4096;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final PrefixTrie trie;
+
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<String> terms = new ArrayList<>();
+    private final List<PostingList> postings = new ArrayList<>();
+
+    private IndexedMovie[] docs = new IndexedMovie[1024];
+    private int[][] docTerms = new int[1024][];
+    private int docCount;
+    private final BitSet dead = new BitSet();
+    private final Map<UUID, Integer> docIdById = new HashMap<>();
+    // Phim đã xóa: bản ghi đọc được từ lần quét DB đang chạy dở không được thêm lại
+    private final Set<UUID> removed = new HashSet<>();
+
+    private int liveCount;
+    private long liveLength;
+
+    // Các tầng của lần load: tầng i gồm doc [tierStarts[i], tierStarts[i + 1]) (tầng cuối đến rankedEnd)
+    private int rankedStart;
+    private int rankedEnd;
+    private int[] tierStarts = new int[0];
+
+    private final PrefixTrie.Ranking byPopularity = (doc, other) -> {
+        long popularity = docs[doc].popularity();
+        long otherPopularity = docs[other].popularity();
+        return popularity > otherPopularity || (popularity == otherPopularity && doc > other);
+    };
+
+    /**
+     * @param suggestionsPerPrefix số gợi ý giữ sẵn ở mỗi node của trie, nên lớn hơn limit của autocomplete
+     */
+    public MovieSearchIndex(int suggestionsPerPrefix) {
+        this.trie = new PrefixTrie(suggestionsPerPrefix);
+    }
+
+    /**
+     * Nạp toàn bộ phim một lần (khi dựng chỉ mục), cấp doc id theo thứ tự tầng; chỉ gọi được một lần
+     */
+    public void load(Collection<IndexedMovie> movies) {
+        List<Prepared> prepared = new ArrayList<>(movies.size());
+        for (IndexedMovie movie : movies) {
+            prepared.add(new Prepared(movie, tokens(movie)));
+        }
+        prepared.sort(Comparator.<Prepared>comparingInt(p -> p.tokens.size())
+                .thenComparing(p -> p.movie.popularity(), Comparator.reverseOrder()));
+
+        lock.writeLock().lock();
+        try {
+            if (tierStarts.length > 0) {
+                throw new IllegalStateException("Index already loaded");
+            }
+            rankedStart = docCount;
+            List<Integer> starts = new ArrayList<>();
+            int tierLength = -1;
+            for (Prepared p : prepared) {
+                int doc = docCount;
+                if (add(p.movie, p.tokens) && p.tokens.size() != tierLength) {
+                    tierLength = p.tokens.size();
+                    starts.add(doc);
+                }
+            }
+            rankedEnd = docCount;
+            tierStarts = starts.stream().mapToInt(Integer::intValue).toArray();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Thêm hoặc thay thế phim; bỏ qua nếu chỉ mục đã có bản mới hơn hoặc phim đã bị xóa
+     */
+    public void put(IndexedMovie movie) {
+        Set<String> tokens = tokens(movie);
+        lock.writeLock().lock();
+        try {
+            add(movie, tokens);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            removed.add(id);
+            Integer existing = docIdById.remove(id);
+            if (existing != null) {
+                kill(existing);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Phim chứa mọi từ của truy vấn, điểm giảm dần
+     */
+    public List<IndexedMovie> search(String query, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(TextFolding.tokens(query)));
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            PostingList[] lists = lookup(tokens);
+            if (lists == null) {
+                return List.of();
+            }
+            return toMovies(rank(lists, limit, doc -> true));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gợi ý khi đang gõ: từ cuối được coi là prefix, các từ trước phải khớp đầy đủ
+     */
+    public List<IndexedMovie> suggest(String query, int limit) {
+        List<String> tokens = TextFolding.tokens(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String prefix = tokens.get(tokens.size() - 1);
+        List<String> complete = new ArrayList<>(new LinkedHashSet<>(tokens.subList(0, tokens.size() - 1)));
+
+        lock.readLock().lock();
+        try {
+            PrefixTrie.Node node = trie.find(prefix);
+            if (node == null) {
+                return List.of();
+            }
+            if (!complete.isEmpty()) {
+                PostingList[] lists = lookup(complete);
+                if (lists == null) {
+                    return List.of();
+                }
+                return toMovies(rank(lists, limit, doc -> {
+                    for (int termId : docTerms[doc]) {
+                        if (terms.get(termId).startsWith(prefix)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                }));
+            }
+
+            List<IndexedMovie> result = new ArrayList<>(limit);
+            for (int i = 0; i < node.topSize() && result.size() < limit; i++) {
+                if (!dead.get(node.top(i))) {
+                    result.add(docs[node.top(i)]);
+                }
+            }
+            if (result.size() == limit || !node.truncated()) {
+                return result;
+            }
+            // Top của node đã lẫn nhiều doc chết: duyệt mọi term dưới node
+            TopK top = new TopK(limit);
+            BitSet seen = new BitSet();
+            node.forEachTerm(termId -> {
+                PostingList list = postings.get(termId);
+                for (int i = 0; i < list.size(); i++) {
+                    int doc = list.get(i);
+                    if (!dead.get(doc) && !seen.get(doc)) {
+                        seen.set(doc);
+                        top.offer(doc, docs[doc].popularity());
+                    }
+                }
+            });
+            return toMovies(top.drainDescending());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Phim đang có trong chỉ mục (chưa bị xóa)
+     */
+    public boolean contains(UUID id) {
+        lock.readLock().lock();
+        try {
+            return docIdById.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Số doc đã bị thay thế/xóa nhưng vẫn chiếm chỗ trong posting list
+     */
+    public int deadCount() {
+        lock.readLock().lock();
+        try {
+            return docCount - liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Set<String> tokens(IndexedMovie movie) {
+        Set<String> tokens = new LinkedHashSet<>(TextFolding.tokens(movie.title()));
+        tokens.addAll(TextFolding.tokens(movie.originalTitle()));
+        return tokens;
+    }
+
+    // Trả về false nếu bỏ qua (đã có bản mới hơn hoặc phim đã bị xóa)
+    private boolean add(IndexedMovie movie, Set<String> tokens) {
+        if (removed.contains(movie.id())) {
+            return false;
+        }
+        Integer existing = docIdById.get(movie.id());
+        if (existing != null) {
+            if (docs[existing].version() >= movie.version()) {
+                return false;
+            }
+            kill(existing);
+        }
+
+        int doc = docCount++;
+        if (doc == docs.length) {
+            docs = Arrays.copyOf(docs, docs.length * 2);
+            docTerms = Arrays.copyOf(docTerms, docTerms.length * 2);
+        }
+        docs[doc] = movie;
+
+        int[] ids = new int[tokens.size()];
+        int i = 0;
+        for (String token : tokens) {
+            Integer termId = termIds.get(token);
+            if (termId == null) {
+                termId = terms.size();
+                termIds.put(token, termId);
+                terms.add(token);
+                postings.add(new PostingList());
+            }
+            PostingList list = postings.get(termId);
+            list.add(doc);
+            if (!list.dense() && list.size() >= Math.max(DENSE_MIN_DOCS, docCount >>> 6)) {
+                list.densify();
+            }
+            trie.add(token, termId, doc, byPopularity);
+            ids[i++] = termId;
+        }
+        docTerms[doc] = ids;
+        docIdById.put(movie.id(), doc);
+        liveCount++;
+        liveLength += ids.length;
+        return true;
+    }
+
+    private void kill(int doc) {
+        dead.set(doc);
+        liveCount--;
+        liveLength -= docTerms[doc].length;
+    }
+
+    // Posting list của từng term, ngắn nhất trước; null nếu có term không tồn tại
+    private PostingList[] lookup(List<String> tokens) {
+        PostingList[] lists = new PostingList[tokens.size()];
+        for (int i = 0; i < lists.length; i++) {
+            Integer termId = termIds.get(tokens.get(i));
+            if (termId == null) {
+                return null;
+            }
+            lists[i] = postings.get(termId);
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+        return lists;
+    }
+
+    /**
+     * limit doc khớp mọi list và filter có điểm cao nhất, giảm dần
+     */
+    private int[] rank(PostingList[] lists, int limit, IntPredicate filter) {
+        double idfSum = 0;
+        for (PostingList list : lists) {
+            idfSum += Math.log(1 + (liveCount - list.size() + 0.5) / (list.size() + 0.5));
+        }
+        Scorer scorer = new Scorer(idfSum, liveCount == 0 ? 1 : (double) liveLength / liveCount);
+        TopK top = new TopK(limit);
+        IntPredicate offerAll = doc -> {
+            if (filter.test(doc)) {
+                top.offer(doc, scorer.score(docTerms[doc].length, docs[doc].popularity()));
+            }
+            return true;
+        };
+
+        intersect(lists, 0, rankedStart, offerAll);
+        for (int tier = 0; tier < tierStarts.length; tier++) {
+            int from = tierStarts[tier];
+            int to = tier + 1 < tierStarts.length ? tierStarts[tier + 1] : rankedEnd;
+            // Doc đầu tầng có độ phổ biến cao nhất (kể cả khi đã chết, vẫn là cận trên hợp lệ)
+            int length = docTerms[from].length;
+            if (top.isFull() && scorer.score(length, docs[from].popularity()) < top.minScore()) {
+                continue;
+            }
+            int[] found = {0};
+            intersect(lists, from, to, doc -> {
+                if (!filter.test(doc)) {
+                    return true;
+                }
+                top.offer(doc, scorer.score(length, docs[doc].popularity()));
+                return ++found[0] < limit;
+            });
+        }
+        intersect(lists, rankedEnd, docCount, offerAll);
+        return top.drainDescending();
+    }
+
+    /**
+     * Duyệt list ngắn nhất trong [fromDoc, toDoc), các list còn lại chỉ nhảy tới doc cần kiểm tra (hoặc thử bitset).
+     * Dừng khi consumer trả về false.
+     */
+    private void intersect(PostingList[] lists, int fromDoc, int toDoc, IntPredicate consumer) {
+        if (fromDoc >= toDoc) {
+            return;
+        }
+        int[] positions = new int[lists.length];
+        for (int j = 0; j < lists.length; j++) {
+            positions[j] = lists[j].advance(0, fromDoc);
+        }
+        PostingList shortest = lists[0];
+        candidates:
+        for (int i = positions[0]; i < shortest.size(); i++) {
+            int doc = shortest.get(i);
+            if (doc >= toDoc) {
+                return;
+            }
+            for (int j = 1; j < lists.length; j++) {
+                if (lists[j].dense()) {
+                    if (!lists[j].contains(doc)) {
+                        continue candidates;
+                    }
+                    continue;
+                }
+                positions[j] = lists[j].advance(positions[j], doc);
+                if (positions[j] == lists[j].size()) {
+                    return;
+                }
+                if (lists[j].get(positions[j]) != doc) {
+                    continue candidates;
+                }
+            }
+            if (!dead.get(doc) && !consumer.test(doc)) {
+                return;
+            }
+        }
+    }
+
+    private List<IndexedMovie> toMovies(int[] docIds) {
+        List<IndexedMovie> movies = new ArrayList<>(docIds.length);
+        for (int doc : docIds) {
+            movies.add(docs[doc]);
+        }
+        return movies;
+    }
+
+    private record Prepared(IndexedMovie movie, Set<String> tokens) {
+    }
+
+    /**
+     * BM25 với tf = 1 (mỗi term của truy vấn đóng góp idf, chuẩn hóa theo số term của tên) + độ phổ biến
+     */
+    private record Scorer(double idfSum, double averageLength) {
+
+        double score(int length, long popularity) {
+            double lengthNorm = 1 + K1 * (1 - B + B * length / averageLength);
+            return idfSum * (K1 + 1) / lengthNorm + POPULARITY_WEIGHT * Math.log1p(popularity);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.movie.search;
+
+import java.util.Arrays;
+
+/**
+ * Danh sách doc id (int nguyên thủy, tăng dần) của một term. Doc id chỉ được cấp tăng dần nên thêm luôn là append.
+ * Term phổ biến có thêm bitset theo doc id để kiểm tra "doc có chứa term" trong O(1) khi giao với list ngắn hơn.
+ */
+final class PostingList {
+
+    private int[] docs = new int[2];
+    private int size;
+    private long[] bits;
+
+    void add(int doc) {
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, docs.length + (docs.length >> 1) + 1);
+        }
+        docs[size++] = doc;
+        if (bits != null) {
+            setBit(doc);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return docs[index];
+    }
+
+    boolean dense() {
+        return bits != null;
+    }
+
+    /**
+     * Bật bitset cho list (gọi khi term đã đủ phổ biến); từ đó add() cập nhật cả bitset
+     */
+    void densify() {
+        if (bits == null) {
+            bits = new long[(docs[size - 1] >>> 6) + 1];
+            for (int i = 0; i < size; i++) {
+                setBit(docs[i]);
+            }
+        }
+    }
+
+    /**
+     * Chỉ dùng khi dense()
+     */
+    boolean contains(int doc) {
+        int word = doc >>> 6;
+        return word < bits.length && (bits[word] & (1L << doc)) != 0;
+    }
+
+    /**
+     * Vị trí đầu tiên từ from có doc >= target (galloping rồi tìm nhị phân), size() nếu không có
+     */
+    int advance(int from, int target) {
+        int bound = 1;
+        int low = from;
+        while (from + bound < size && docs[from + bound] < target) {
+            low = from + bound;
+            bound <<= 1;
+        }
+        int index = Arrays.binarySearch(docs, low, Math.min(from + bound + 1, size), target);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private void setBit(int doc) {
+        int word = doc >>> 6;
+        if (word >= bits.length) {
+            bits = Arrays.copyOf(bits, Math.max(word + 1, bits.length * 2));
+        }
+        bits[word] |= 1L << doc;
+    }
+}
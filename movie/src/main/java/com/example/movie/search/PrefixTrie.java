@@ -0,0 +1,133 @@
+package com.example.movie.search;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Trie theo ký tự của các term cho autocomplete. Mỗi node giữ sẵn tối đa topSize doc xếp hạng cao nhất
+ * trong số các doc có term bắt đầu bằng prefix của node, nên gợi ý cho một từ đang gõ chỉ là đọc một mảng.
+ */
+final class PrefixTrie {
+
+    /**
+     * Thứ hạng tĩnh của doc (không đổi trong suốt đời doc)
+     */
+    interface Ranking {
+        boolean better(int doc, int other);
+    }
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final int[] NO_DOCS = new int[0];
+
+    private final int topSize;
+    private final Node root = new Node();
+
+    PrefixTrie(int topSize) {
+        this.topSize = topSize;
+    }
+
+    /**
+     * Thêm term (nếu chưa có) và đưa doc vào top của mọi prefix của term
+     */
+    void add(String term, int termId, int doc, Ranking ranking) {
+        Node node = root;
+        for (int i = 0; i < term.length(); i++) {
+            node = node.child(term.charAt(i), true);
+            node.offer(doc, ranking, topSize);
+        }
+        node.termId = termId;
+    }
+
+    Node find(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i), false);
+        }
+        return node == root ? null : node;
+    }
+
+    static final class Node {
+
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private int termId = -1;
+        private int[] top = NO_DOCS;
+        private int size;
+        // true khi đã có doc bị đẩy ra khỏi top: top không còn chứa mọi doc của prefix
+        private boolean truncated;
+
+        int topSize() {
+            return size;
+        }
+
+        int top(int index) {
+            return top[index];
+        }
+
+        boolean truncated() {
+            return truncated;
+        }
+
+        /**
+         * Mọi term có prefix là node này
+         */
+        void forEachTerm(IntConsumer consumer) {
+            if (termId >= 0) {
+                consumer.accept(termId);
+            }
+            for (Node child : children) {
+                child.forEachTerm(consumer);
+            }
+        }
+
+        private Node child(char key, boolean create) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index >= 0) {
+                return children[index];
+            }
+            if (!create) {
+                return null;
+            }
+            int insertAt = -index - 1;
+            Node child = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = key;
+            newChildren[insertAt] = child;
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+
+        private void offer(int doc, Ranking ranking, int capacity) {
+            // Một doc có thể có nhiều term chung prefix ("bo", "bong"); top rất ngắn nên dò tuyến tính
+            for (int i = 0; i < size; i++) {
+                if (top[i] == doc) {
+                    return;
+                }
+            }
+            if (size == capacity) {
+                if (!ranking.better(doc, top[size - 1])) {
+                    truncated = true;
+                    return;
+                }
+                size--;
+                truncated = true;
+            } else if (size == top.length) {
+                top = Arrays.copyOf(top, Math.min(capacity, Math.max(2, size * 2)));
+            }
+            int insertAt = size;
+            while (insertAt > 0 && ranking.better(doc, top[insertAt - 1])) {
+                top[insertAt] = top[insertAt - 1];
+                insertAt--;
+            }
+            top[insertAt] = doc;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.movie.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Chuẩn hóa text cho tìm kiếm: chữ thường, bỏ dấu tiếng Việt (đ -> d), tách token theo ký tự không phải chữ/số.
+ * "Bố Già: Phần 2" -> [bo, gia, phan, 2]
+ */
+public final class TextFolding {
+
+    private TextFolding() {
+    }
+
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        StringBuilder folded = null;
+        // Đa số chuỗi (tên gốc tiếng Anh, truy vấn không dấu) chỉ có ASCII, khỏi chạy Normalizer
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                folded = new StringBuilder(text.length());
+                break;
+            }
+        }
+        if (folded == null) {
+            return text.toLowerCase(Locale.ROOT);
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            folded.append(c == 'đ' || c == 'Đ' ? 'd' : Character.toLowerCase(c));
+        }
+        return folded.toString();
+    }
+
+    /**
+     * Token đã chuẩn hóa theo thứ tự xuất hiện, có thể trùng nhau
+     */
+    public static List<String> tokens(String text) {
+        String folded = fold(text);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
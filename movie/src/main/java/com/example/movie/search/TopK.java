@@ -0,0 +1,100 @@
+package com.example.movie.search;
+
+/**
+ * Giữ k doc điểm cao nhất bằng min-heap trên mảng nguyên thủy; bằng điểm thì doc id lớn hơn (mới hơn) thắng
+ */
+final class TopK {
+
+    private final int[] docs;
+    private final double[] scores;
+    private int size;
+
+    TopK(int k) {
+        this.docs = new int[k];
+        this.scores = new double[k];
+    }
+
+    void offer(int doc, double score) {
+        if (docs.length == 0) {
+            return;
+        }
+        if (size < docs.length) {
+            docs[size] = doc;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (less(docs[0], scores[0], doc, score)) {
+            docs[0] = doc;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    boolean isFull() {
+        return size == docs.length;
+    }
+
+    /**
+     * Điểm thấp nhất đang giữ (chỉ có nghĩa khi isFull)
+     */
+    double minScore() {
+        return scores[0];
+    }
+
+    /**
+     * Doc theo điểm giảm dần; heap bị rút hết sau lời gọi này
+     */
+    int[] drainDescending() {
+        int[] sorted = new int[size];
+        while (size > 0) {
+            sorted[size - 1] = docs[0];
+            size--;
+            docs[0] = docs[size];
+            scores[0] = scores[size];
+            siftDown(0);
+        }
+        return sorted;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!less(docs[index], scores[index], docs[parent], scores[parent])) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && less(docs[left], scores[left], docs[smallest], scores[smallest])) {
+                smallest = left;
+            }
+            if (right < size && less(docs[right], scores[right], docs[smallest], scores[smallest])) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private static boolean less(int doc, double score, int otherDoc, double otherScore) {
+        return score < otherScore || (score == otherScore && doc < otherDoc);
+    }
+
+    private void swap(int a, int b) {
+        int doc = docs[a];
+        docs[a] = docs[b];
+        docs[b] = doc;
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
@@ -1,9 +1,81 @@
 package com.example.movie.security.config;
 
+import com.example.movie.security.session.CompactSessionSerializer;
+import com.example.movie.security.session.NearCacheSessionRepository;
+import com.example.movie.security.session.RedisSessionTouchWriter;
+import com.example.movie.security.session.TimedSessionRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.session.data.redis.RedisSessionRepository;
 import org.springframework.session.data.redis.config.annotation.web.http.EnableRedisHttpSession;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+// @EnableRedisHttpSession tắt auto-config của Boot nên spring.session.redis.namespace phải truyền vào đây;
+// RedisSessionTouchWriter ghi thẳng vào key session nên phải dùng cùng namespace
 @Configuration
-@EnableRedisHttpSession
+@EnableRedisHttpSession(redisNamespace = "${spring.session.redis.namespace:" + RedisSessionRepository.DEFAULT_KEY_NAMESPACE + "}")
 public class RedisSessionConfig {
+
+    // Spring Session tìm bean theo đúng tên này để serialize attribute của session
+    @Bean
+    public RedisSerializer<Object> springSessionDefaultRedisSerializer() {
+        return new CompactSessionSerializer();
+    }
+
+    // @Primary để SessionRepositoryFilter dùng decorator thay vì RedisSessionRepository trực tiếp
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "app.session.near-cache.enabled", havingValue = "true", matchIfMissing = true)
+    public NearCacheSessionRepository<Session> nearCacheSessionRepository(
+            RedisSessionRepository redisSessionRepository,
+            StringRedisTemplate stringRedisTemplate,
+            RedisMessageListenerContainer redisMessageListenerContainer,
+            MeterRegistry meterRegistry,
+            @Value("${app.session.near-cache.max-size:10000}") long maxSize,
+            @Value("${app.session.near-cache.ttl:5s}") Duration ttl,
+            @Value("${app.session.near-cache.touch-flush-interval:10s}") Duration flushInterval,
+            @Value("${app.session.near-cache.channel:movie:session:invalidate}") String channel,
+            @Value("${app.metrics.enabled:true}") boolean metricsEnabled,
+            @Value("${spring.session.redis.namespace:" + RedisSessionRepository.DEFAULT_KEY_NAMESPACE + "}") String namespace
+    ) {
+        // RedisSession không public nên làm việc qua interface Session
+        @SuppressWarnings("unchecked")
+        SessionRepository<Session> redis = (SessionRepository<Session>) (SessionRepository<?>) redisSessionRepository;
+        SessionRepository<Session> delegate = metricsEnabled
+                ? new TimedSessionRepository<>(redis, meterRegistry)
+                : redis;
+        NearCacheSessionRepository<Session> repository = new NearCacheSessionRepository<>(
+                delegate,
+                new RedisSessionTouchWriter(
+                        redisSessionRepository.getSessionRedisOperations(),
+                        namespace
+                ),
+                sessionId -> stringRedisTemplate.convertAndSend(channel, sessionId),
+                maxSize,
+                ttl,
+                flushInterval
+        );
+
+        CaffeineCacheMetrics.monitor(meterRegistry, repository.getCache(), "session.near");
+        redisMessageListenerContainer.addMessageListener(
+                (message, pattern) -> repository.evictLocal(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(channel)
+        );
+        return repository;
+    }
 }
@@ -1,18 +1,30 @@
 package com.example.movie.security.config;
 
+import com.example.movie.security.service.AdaptiveBCryptPasswordEncoder;
+import com.example.movie.security.service.LoginAuthenticationProvider;
+import com.example.movie.security.service.PasswordHashingService;
+import com.example.movie.security.service.UserDetailsServiceImpl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
 import jakarta.servlet.http.HttpServletResponse;
 
+import java.time.Duration;
+import java.util.Map;
+
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 
 @Configuration
@@ -21,8 +33,43 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 public class SecurityConfig {
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${app.security.password-hashing.pool-size:0}") int poolSize,
+            @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.password-hashing.timeout:2s}") Duration timeout,
+            @Value("${app.security.bcrypt.strength:0}") int fixedStrength,
+            @Value("${app.security.bcrypt.target-time:80ms}") Duration targetTime,
+            @Value("${app.security.bcrypt.min-strength:8}") int minStrength,
+            @Value("${app.security.bcrypt.max-strength:16}") int maxStrength
+    ) {
+        // strength = 0 -> tự hiệu chỉnh cost theo target-time trên máy hiện tại
+        int strength = fixedStrength > 0
+                ? fixedStrength
+                : AdaptiveBCryptPasswordEncoder.calibrate(targetTime, minStrength, maxStrength);
+        AdaptiveBCryptPasswordEncoder bcrypt = new AdaptiveBCryptPasswordEncoder(strength);
+
+        // Hash cũ không có prefix {bcrypt} vẫn được so khớp bằng bcrypt và được băm lại khi đăng nhập
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        // pool-size = 0 -> dùng số CPU hiện có
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        return new PasswordHashingService(
+                delegating,
+                threads,
+                queueCapacity,
+                timeout,
+                meterRegistry
+        );
+    }
+
+    @Bean
+    public DaoAuthenticationProvider authenticationProvider(
+            UserDetailsServiceImpl userDetailsService,
+            PasswordEncoder passwordEncoder
+    ) {
+        return new LoginAuthenticationProvider(userDetailsService, passwordEncoder);
     }
 
     @Bean
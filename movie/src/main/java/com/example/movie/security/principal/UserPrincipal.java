@@ -2,11 +2,13 @@ package com.example.movie.security.principal;
 
 import com.example.movie.enums.Role;
 import com.example.movie.models.User;
+import com.example.movie.repositories.UserAuthView;
 
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.UUID;
@@ -21,18 +23,42 @@ public class UserPrincipal implements UserDetails {
     private final Role role;
     private final boolean enabled;
 
+    // Thông tin profile lấy sẵn lúc đăng nhập để trả response, không lưu vào session
+    private final transient String email;
+    private final transient String displayName;
+    private final transient String avatarUrl;
+    private final transient LocalDateTime createdAt;
+
     private UserPrincipal(
             UUID id,
             String username,
             String password,
             Role role,
             boolean enabled
+    ) {
+        this(id, username, password, role, enabled, null, null, null, null);
+    }
+
+    private UserPrincipal(
+            UUID id,
+            String username,
+            String password,
+            Role role,
+            boolean enabled,
+            String email,
+            String displayName,
+            String avatarUrl,
+            LocalDateTime createdAt
     ) {
         this.id = id;
         this.username = username;
         this.password = password;
         this.role = role;
         this.enabled = enabled;
+        this.email = email;
+        this.displayName = displayName;
+        this.avatarUrl = avatarUrl;
+        this.createdAt = createdAt;
     }
 
     /**
@@ -44,10 +70,45 @@ public class UserPrincipal implements UserDetails {
                 user.getUsername(),
                 user.getPasswordHash(),
                 user.getRole(),
-                user.isEnabled()
+                user.isEnabled(),
+                user.getEmail(),
+                user.getDisplayName(),
+                user.getAvatarUrl(),
+                user.getCreatedAt()
         );
     }
 
+    /**
+     * Factory method: convert projection đăng nhập -> UserPrincipal
+     */
+    public static UserPrincipal fromUser(UserAuthView user) {
+        return new UserPrincipal(
+                user.getId(),
+                user.getUsername(),
+                user.getPasswordHash(),
+                user.getRole(),
+                user.isEnabled(),
+                user.getEmail(),
+                user.getDisplayName(),
+                user.getAvatarUrl(),
+                user.getCreatedAt()
+        );
+    }
+
+    /**
+     * Dựng lại principal từ session, không mang theo password hash
+     */
+    public static UserPrincipal of(UUID id, String username, Role role, boolean enabled) {
+        return new UserPrincipal(id, username, null, role, enabled);
+    }
+
+    /**
+     * Bản sao với password hash mới, dùng sau khi băm lại mật khẩu
+     */
+    public UserPrincipal withPassword(String newPassword) {
+        return new UserPrincipal(id, username, newPassword, role, enabled, email, displayName, avatarUrl, createdAt);
+    }
+
     public UUID getId() {
         return id;
     }
@@ -56,6 +117,22 @@ public class UserPrincipal implements UserDetails {
         return role;
     }
 
+    public String getEmail() {
+        return email;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getAvatarUrl() {
+        return avatarUrl;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return Collections.singletonList(
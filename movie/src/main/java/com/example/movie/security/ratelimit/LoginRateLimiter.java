@@ -0,0 +1,239 @@
+package com.example.movie.security.ratelimit;
+
+import com.example.movie.exception.TooManyRequestsException;
+import com.example.movie.models.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Giới hạn số lần thử đăng nhập theo cặp (username, IP) và theo IP, chặn trước khi chạy BCrypt.
+ * Giới hạn chặt không đặt riêng trên username: nếu không, ai biết username cũng khóa được tài khoản đó
+ * bằng vài request sai mật khẩu. Đoán mật khẩu một tài khoản từ nhiều IP do giới hạn theo IP chặn.
+ *
+ * Mỗi key là một TokenBucket trong Caffeine (giới hạn số key, tự hết hạn khi bucket đã đầy lại).
+ * Định kỳ, phần đã tiêu ở node này được cộng vào TAT chung trên Redis và TAT chung được kéo về,
+ * nên giới hạn đúng cho cả cụm với độ trễ tối đa một chu kỳ đồng bộ. Redis lỗi thì vẫn giới hạn theo từng node.
+ * Chỉ key có lượt thử mới từ lần đồng bộ trước mới được gửi lên; việc đồng bộ chạy trên thread riêng
+ * để không phải xếp hàng sau các tác vụ @Scheduled khác (mặc định Spring chỉ có một thread cho chúng).
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginRateLimiter.class);
+
+    // ARGV[1] = now, ARGV[2] = ttl, sau đó là phần tiêu thêm của từng key
+    private static final RedisScript<List> SYNC_SCRIPT = new DefaultRedisScript<>("""
+            local now = tonumber(ARGV[1])
+            local result = {}
+            for i, key in ipairs(KEYS) do
+              local tat = tonumber(redis.call('GET', key) or '0')
+              local cost = tonumber(ARGV[i + 2])
+              if cost > 0 then
+                if tat < now then tat = now end
+                tat = tat + cost
+                redis.call('SET', key, tat, 'PX', ARGV[2])
+              end
+              result[i] = tat
+            end
+            return result
+            """, List.class);
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final StringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final String keyPrefix;
+    private final Limit usernameLimit;
+    private final Limit ipLimit;
+    private final Duration syncInterval;
+    private ScheduledExecutorService syncer;
+
+    private final Counter usernameRejected;
+    private final Counter ipRejected;
+
+    public LoginRateLimiter(StringRedisTemplate redisTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.auth.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${app.auth.rate-limit.key-prefix:movie:ratelimit:login:}") String keyPrefix,
+                            @Value("${app.auth.rate-limit.username.capacity:5}") long usernameCapacity,
+                            @Value("${app.auth.rate-limit.username.period:1m}") Duration usernamePeriod,
+                            @Value("${app.auth.rate-limit.ip.capacity:50}") long ipCapacity,
+                            @Value("${app.auth.rate-limit.ip.period:1m}") Duration ipPeriod,
+                            @Value("${app.auth.rate-limit.max-keys:100000}") long maxKeys,
+                            @Value("${app.auth.rate-limit.sync-interval:1s}") Duration syncInterval) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.keyPrefix = keyPrefix;
+        this.usernameLimit = new Limit("username", usernameCapacity, usernamePeriod, maxKeys);
+        this.ipLimit = new Limit("ip", ipCapacity, ipPeriod, maxKeys);
+        this.syncInterval = syncInterval;
+        this.usernameRejected = rejectedCounter(meterRegistry, "username");
+        this.ipRejected = rejectedCounter(meterRegistry, "ip");
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "login-rate-limit-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = syncInterval.toMillis();
+        syncer.scheduleWithFixedDelay(this::sync, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (syncer != null) {
+            syncer.shutdownNow();
+        }
+    }
+
+    /**
+     * Tiêu một lượt thử cho IP và cho cặp (username, IP); hết lượt thì ném TooManyRequestsException (429 + Retry-After)
+     */
+    public void check(String username, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (clientIp != null) {
+            acquire(ipLimit, clientIp, now, ipRejected);
+        }
+        if (username != null) {
+            String key = User.normalize(username) + "@" + (clientIp != null ? clientIp : "");
+            acquire(usernameLimit, key, now, usernameRejected);
+        }
+    }
+
+    public void sync() {
+        if (!enabled) {
+            return;
+        }
+        sync(ipLimit);
+        sync(usernameLimit);
+    }
+
+    /**
+     * Số key có lượt thử chưa đồng bộ lên Redis
+     */
+    int dirtyKeys() {
+        return ipLimit.dirty.size() + usernameLimit.dirty.size();
+    }
+
+    private void acquire(Limit limit, String key, long now, Counter rejected) {
+        TokenBucket bucket = limit.buckets.get(key, k -> new TokenBucket());
+        long waitMillis = bucket.tryAcquire(now, limit.intervalMillis, limit.capacity);
+        if (waitMillis > 0) {
+            rejected.increment();
+            throw new TooManyRequestsException(
+                    "Bạn đã thử đăng nhập quá nhiều lần, vui lòng thử lại sau",
+                    Duration.ofMillis(waitMillis)
+            );
+        }
+        // Đánh dấu sau khi đã cộng pendingCost: sync bỏ dấu trước khi rút nên không sót lượt nào
+        limit.dirty.add(key);
+    }
+
+    private void sync(Limit limit) {
+        List<String> dirtyKeys = new ArrayList<>();
+        List<TokenBucket> buckets = new ArrayList<>();
+        for (Iterator<String> it = limit.dirty.iterator(); it.hasNext(); ) {
+            String key = it.next();
+            it.remove();
+            // Bucket đã bị Caffeine loại thì phần tiêu của nó cũng không còn ý nghĩa
+            TokenBucket bucket = limit.buckets.getIfPresent(key);
+            if (bucket != null) {
+                dirtyKeys.add(key);
+                buckets.add(bucket);
+            }
+        }
+
+        for (int from = 0; from < dirtyKeys.size(); from += CHUNK_SIZE) {
+            int to = Math.min(from + CHUNK_SIZE, dirtyKeys.size());
+            List<String> chunkKeys = dirtyKeys.subList(from, to);
+            List<TokenBucket> chunk = buckets.subList(from, to);
+
+            List<String> keys = new ArrayList<>(chunk.size());
+            long[] costs = new long[chunk.size()];
+            Object[] args = new Object[chunk.size() + 2];
+            args[0] = Long.toString(System.currentTimeMillis());
+            args[1] = Long.toString(limit.ttl.toMillis());
+            for (int i = 0; i < chunk.size(); i++) {
+                keys.add(keyPrefix + limit.name + ":" + chunkKeys.get(i));
+                costs[i] = chunk.get(i).drainPendingCost();
+                args[i + 2] = Long.toString(costs[i]);
+            }
+
+            try {
+                List<?> clusterArrivals = redisTemplate.execute(SYNC_SCRIPT, keys, args);
+                for (int i = 0; i < chunk.size() && clusterArrivals != null; i++) {
+                    chunk.get(i).merge(((Number) clusterArrivals.get(i)).longValue());
+                }
+            } catch (DataAccessException ex) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    chunk.get(i).restorePendingCost(costs[i]);
+                }
+                limit.dirty.addAll(chunkKeys);
+                log.debug("Could not sync login rate limits to Redis", ex);
+            }
+        }
+    }
+
+    private static Counter rejectedCounter(MeterRegistry registry, String key) {
+        return Counter.builder("auth.login.rate-limited")
+                .description("Số lần đăng nhập bị chặn do vượt giới hạn")
+                .tag("key", key)
+                .register(registry);
+    }
+
+    private static final class Limit {
+
+        private final String name;
+        private final long capacity;
+        private final long intervalMillis;
+        private final Duration ttl;
+        private final Cache<String, TokenBucket> buckets;
+        private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+        private Limit(String name, long capacity, Duration period, long maxKeys) {
+            this.name = name;
+            this.capacity = capacity;
+            this.intervalMillis = Math.max(1, period.toMillis() / capacity);
+            // Sau khoảng này bucket đã đầy lại, giữ trạng thái không còn ý nghĩa
+            this.ttl = Duration.ofMillis(intervalMillis * capacity);
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(ttl)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.movie.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket không khóa theo GCRA: toàn bộ trạng thái là một mốc thời gian (TAT, epoch ms)
+ * cập nhật bằng CAS. Mỗi request đẩy TAT thêm một interval; bucket đầy khi TAT vượt quá now + capacity * interval.
+ */
+final class TokenBucket {
+
+    private final AtomicLong theoreticalArrival = new AtomicLong();
+    private final AtomicLong pendingCost = new AtomicLong();
+
+    /**
+     * @return 0 nếu được phép, ngược lại là số ms cần chờ
+     */
+    long tryAcquire(long now, long interval, long capacity) {
+        long limit = interval * capacity;
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + interval;
+            long excess = next - now - limit;
+            if (excess > 0) {
+                return excess;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                pendingCost.addAndGet(interval);
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Phần TAT đã tiêu ở node này kể từ lần đồng bộ trước
+     */
+    long drainPendingCost() {
+        return pendingCost.getAndSet(0);
+    }
+
+    void restorePendingCost(long cost) {
+        pendingCost.addAndGet(cost);
+    }
+
+    /**
+     * Nhận TAT chung của cụm (đã gồm phần của node này) từ Redis
+     */
+    void merge(long clusterArrival) {
+        theoreticalArrival.accumulateAndGet(clusterArrival, Math::max);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.movie.security.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCryptPasswordEncoder với cost được hiệu chỉnh theo phần cứng lúc khởi động.
+ * Hash nào có cost khác cost hiện tại (cao hơn hay thấp hơn) đều được báo cần băm lại,
+ * để DaoAuthenticationProvider cập nhật qua UserDetailsPasswordService khi đăng nhập thành công.
+ */
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveBCryptPasswordEncoder.class);
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2(a|y|b)?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+    private static final int CALIBRATION_ROUNDS = 3;
+
+    private final int strength;
+
+    public AdaptiveBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        if (!matcher.matches()) {
+            return false;
+        }
+        return Integer.parseInt(matcher.group(2)) != strength;
+    }
+
+    /**
+     * Tìm cost có thời gian băm gần với target nhất trong khoảng [minStrength, maxStrength].
+     * Mỗi lần tăng cost thì thời gian băm tăng gấp đôi nên chỉ cần đo đến khi vượt target.
+     */
+    public static int calibrate(Duration target, int minStrength, int maxStrength) {
+        long targetNanos = target.toNanos();
+        int best = minStrength;
+        long bestDistance = Long.MAX_VALUE;
+
+        for (int strength = minStrength; strength <= maxStrength; strength++) {
+            long elapsed = measure(strength);
+            long distance = Math.abs(elapsed - targetNanos);
+            if (distance < bestDistance) {
+                best = strength;
+                bestDistance = distance;
+            }
+            if (elapsed >= targetNanos) {
+                break;
+            }
+        }
+
+        log.info("BCrypt cost calibrated to {} (target {} ms)", best, target.toMillis());
+        return best;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        // Lần đầu để JIT làm nóng, lấy thời gian nhỏ nhất của các lần sau
+        encoder.encode("calibration");
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            min = Math.min(min, System.nanoTime() - start);
+        }
+        return min;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.movie.security.service;
+
+import org.springframework.security.authentication.BadCredentialsException;
+
+/**
+ * Sai mật khẩu: lỗi thường gặp nhất khi bị dò mật khẩu, không cần stack trace
+ */
+public class InvalidCredentialsException extends BadCredentialsException {
+
+    public InvalidCredentialsException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.movie.security.service;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * DaoAuthenticationProvider ném lỗi đăng nhập không kèm stack trace.
+ *
+ * Không để provider bọc UsernameNotFoundException thành BadCredentialsException mới (thêm một lần chụp stack):
+ * GlobalExceptionHandler trả cùng một body 401 cho cả hai, và provider vẫn chạy BCrypt giả khi không có user
+ * nên thời gian phản hồi không lộ username có tồn tại hay không.
+ */
+public class LoginAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private static final String BAD_CREDENTIALS = "Bad credentials";
+
+    public LoginAuthenticationProvider(UserDetailsServiceImpl userDetailsService, PasswordEncoder passwordEncoder) {
+        super(userDetailsService);
+        setPasswordEncoder(passwordEncoder);
+        // Hash cũ vẫn được nâng cost khi đăng nhập như cấu hình mặc định của Spring Boot
+        setUserDetailsPasswordService(userDetailsService);
+        setHideUserNotFoundExceptions(false);
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails,
+                                                  UsernamePasswordAuthenticationToken authentication)
+            throws AuthenticationException {
+        Object credentials = authentication.getCredentials();
+        if (credentials == null || !getPasswordEncoder().matches(credentials.toString(), userDetails.getPassword())) {
+            throw new InvalidCredentialsException(BAD_CREDENTIALS);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.movie.security.service;
+
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+/**
+ * Không có tài khoản ứng với username/email, không cần stack trace
+ */
+public class UnknownUserException extends UsernameNotFoundException {
+
+    public UnknownUserException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
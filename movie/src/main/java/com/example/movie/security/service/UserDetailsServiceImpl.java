@@ -1,22 +1,29 @@
 package com.example.movie.security.service;
 
+import com.example.movie.metrics.AuthMetrics;
 import com.example.movie.models.User;
+import com.example.movie.repositories.UserAuthView;
 import com.example.movie.repositories.UserRepository;
 import com.example.movie.security.principal.UserPrincipal;
 
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
+
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final AuthMetrics authMetrics;
 
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(UserRepository userRepository, AuthMetrics authMetrics) {
         this.userRepository = userRepository;
+        this.authMetrics = authMetrics;
     }
 
     @Override
@@ -24,14 +31,31 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     public UserDetails loadUserByUsername(String login)
             throws UsernameNotFoundException {
 
-        User user = userRepository
-                .findByUsernameOrEmail(login, login)
+        // Chọn trước nhánh username hay email thay vì OR hai cột, để planner dùng đúng một index
+        String normalized = User.normalize(login);
+        long start = authMetrics.start();
+        Optional<UserAuthView> user = normalized != null && normalized.indexOf('@') >= 0
+                ? userRepository.findAuthByEmailNormalized(normalized)
+                : userRepository.findAuthByUsernameNormalized(normalized);
+        authMetrics.recordPhase(AuthMetrics.Operation.LOGIN, AuthMetrics.Phase.REPOSITORY, start);
+
+        return user
+                .map(UserPrincipal::fromUser)
                 .orElseThrow(() ->
-                        new UsernameNotFoundException(
+                        new UnknownUserException(
                                 "User not found with username or email: " + login
                         )
                 );
+    }
 
-        return UserPrincipal.fromUser(user);
+    /**
+     * Được DaoAuthenticationProvider gọi khi hash cũ cần nâng/hạ cost (hoặc thiếu prefix {bcrypt})
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserPrincipal principal = (UserPrincipal) user;
+        userRepository.updatePasswordHash(principal.getId(), newPassword);
+        return principal.withPassword(newPassword);
     }
 }
@@ -0,0 +1,116 @@
+package com.example.movie.security.session;
+
+import com.example.movie.enums.Role;
+import com.example.movie.security.principal.UserPrincipal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Serializer cho attribute của Spring Session.
+ * SecurityContext chứa UserPrincipal được ghi ở dạng nhị phân gọn (id, username, role, enabled, không có password).
+ * Các attribute khác, và session cũ ghi bằng JDK serialization, vẫn đi qua JdkSerializationRedisSerializer.
+ *
+ * Định dạng: [MARKER][VERSION][uuid 16 byte][enabled][role UTF][username UTF]
+ * JDK serialization luôn bắt đầu bằng 0xAC nên không trùng MARKER.
+ */
+public class CompactSessionSerializer implements RedisSerializer<Object> {
+
+    private static final Logger log = LoggerFactory.getLogger(CompactSessionSerializer.class);
+
+    static final byte MARKER = 0x01;
+    static final byte VERSION = 1;
+
+    private final RedisSerializer<Object> fallback;
+
+    public CompactSessionSerializer() {
+        this(new JdkSerializationRedisSerializer());
+    }
+
+    public CompactSessionSerializer(RedisSerializer<Object> fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        UserPrincipal principal = compactPrincipal(value);
+        if (principal == null) {
+            return fallback.serialize(value);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(MARKER);
+            out.writeByte(VERSION);
+            out.writeLong(principal.getId().getMostSignificantBits());
+            out.writeLong(principal.getId().getLeastSignificantBits());
+            out.writeBoolean(principal.isEnabled());
+            out.writeUTF(principal.getRole().name());
+            out.writeUTF(principal.getUsername());
+        } catch (IOException ex) {
+            throw new SerializationException("Cannot serialize security context", ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MARKER) {
+            return fallback.deserialize(bytes);
+        }
+        if (bytes.length < 2) {
+            throw new SerializationException("Truncated security context");
+        }
+        if (bytes[1] != VERSION) {
+            // Session do node phiên bản mới hơn ghi: coi như chưa đăng nhập thay vì làm hỏng request
+            log.debug("Unsupported session format version {}", bytes[1]);
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 2, bytes.length - 2))) {
+            UUID id = new UUID(in.readLong(), in.readLong());
+            boolean enabled = in.readBoolean();
+            Role role = Role.valueOf(in.readUTF());
+            String username = in.readUTF();
+
+            UserPrincipal principal = UserPrincipal.of(id, username, role, enabled);
+            return new SecurityContextImpl(
+                    UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities())
+            );
+        } catch (IOException | IllegalArgumentException ex) {
+            throw new SerializationException("Cannot deserialize security context", ex);
+        }
+    }
+
+    private static UserPrincipal compactPrincipal(Object value) {
+        if (!(value instanceof SecurityContext context)) {
+            return null;
+        }
+        Authentication authentication = context.getAuthentication();
+        if (authentication instanceof UsernamePasswordAuthenticationToken token
+                && token.isAuthenticated()
+                && token.getPrincipal() instanceof UserPrincipal principal
+                && principal.getId() != null
+                && principal.getRole() != null) {
+            return principal;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.movie.security.session;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Decorator cho SessionRepository (Redis): giữ bản sao các session vừa dùng trong một cache
+ * có giới hạn, TTL ngắn để request lặp lại trên cùng node không phải đọc Redis.
+ *
+ * - Request chỉ cập nhật lastAccessedTime: không ghi ngay, gom lại và flush định kỳ qua {@link TouchWriter}.
+ * - Request có thay đổi attribute / maxInactiveInterval / id: ghi xuống delegate như bình thường
+ *   và phát tin invalidation để các node khác bỏ bản sao cũ.
+ */
+public class NearCacheSessionRepository<S extends Session>
+        implements SessionRepository<NearCacheSessionRepository.CachedSession>, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(NearCacheSessionRepository.class);
+
+    private final SessionRepository<S> delegate;
+    private final TouchWriter touchWriter;
+    private final Consumer<String> invalidationPublisher;
+    private final Cache<String, MapSession> cache;
+    private final Map<String, Touch> pendingTouches = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    public NearCacheSessionRepository(SessionRepository<S> delegate,
+                                      TouchWriter touchWriter,
+                                      Consumer<String> invalidationPublisher,
+                                      long maxSize,
+                                      Duration ttl,
+                                      Duration flushInterval) {
+        this.delegate = delegate;
+        this.touchWriter = touchWriter;
+        this.invalidationPublisher = invalidationPublisher;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-touch-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        this.flusher.scheduleWithFixedDelay(this::flushTouches, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public Cache<String, MapSession> getCache() {
+        return cache;
+    }
+
+    @Override
+    public CachedSession createSession() {
+        S session = delegate.createSession();
+        return new CachedSession(this, new MapSession(session), session, true);
+    }
+
+    @Override
+    public CachedSession findById(String id) {
+        MapSession cached = cache.getIfPresent(id);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return new CachedSession(this, new MapSession(cached), null, false);
+            }
+            cache.invalidate(id);
+        }
+
+        S session = delegate.findById(id);
+        if (session == null) {
+            return null;
+        }
+        MapSession snapshot = new MapSession(session);
+        cache.put(id, snapshot);
+        return new CachedSession(this, new MapSession(snapshot), session, false);
+    }
+
+    @Override
+    public void save(CachedSession session) {
+        if (!session.isNew && !session.isDirty()) {
+            // Chỉ đổi lastAccessedTime: cập nhật bản sao local, ghi xuống Redis ở lần flush sau
+            if (session.lastAccessedChanged) {
+                cache.put(session.getId(), new MapSession(session.state));
+                pendingTouches.put(session.getId(),
+                        new Touch(session.getLastAccessedTime(), session.getMaxInactiveInterval()));
+            }
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        S target = session.delegateSession != null ? (S) session.delegateSession : delegate.findById(session.originalId);
+        if (target == null) {
+            // Session đã bị xóa ở node khác, không tạo lại
+            evict(session.originalId);
+            return;
+        }
+
+        session.changedAttributes.forEach(target::setAttribute);
+        target.setMaxInactiveInterval(session.getMaxInactiveInterval());
+        target.setLastAccessedTime(session.getLastAccessedTime());
+        delegate.save(target);
+
+        pendingTouches.remove(session.originalId);
+        if (!session.originalId.equals(target.getId())) {
+            evict(session.originalId);
+        }
+        cache.put(target.getId(), new MapSession(target));
+        if (!session.isNew) {
+            invalidationPublisher.accept(target.getId());
+        }
+    }
+
+    @Override
+    public void deleteById(String id) {
+        delegate.deleteById(id);
+        evict(id);
+    }
+
+    /**
+     * Chỉ xóa bản sao local, dùng khi nhận tin invalidation từ node khác
+     */
+    public void evictLocal(String id) {
+        cache.invalidate(id);
+    }
+
+    public void flushTouches() {
+        if (pendingTouches.isEmpty()) {
+            return;
+        }
+        Map<String, Touch> batch = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, Touch>> iterator = pendingTouches.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Touch> entry = iterator.next();
+            batch.put(entry.getKey(), entry.getValue());
+            iterator.remove();
+        }
+        try {
+            touchWriter.write(batch);
+        } catch (RuntimeException ex) {
+            // Giữ lại để thử ở lần sau, trừ khi đã có touch mới hơn
+            batch.forEach(pendingTouches::putIfAbsent);
+            log.warn("Could not flush {} session touches", batch.size(), ex);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flusher.shutdown();
+        flushTouches();
+    }
+
+    private void evict(String id) {
+        cache.invalidate(id);
+        pendingTouches.remove(id);
+        invalidationPublisher.accept(id);
+    }
+
+    /**
+     * Ghi hàng loạt lastAccessedTime (và hạn hết hạn tương ứng) cho các session
+     */
+    @FunctionalInterface
+    public interface TouchWriter {
+        void write(Map<String, Touch> touches);
+    }
+
+    public record Touch(Instant lastAccessedTime, Duration maxInactiveInterval) {
+
+        public Instant expiresAt() {
+            return lastAccessedTime.plus(maxInactiveInterval);
+        }
+    }
+
+    /**
+     * Session trả cho SessionRepositoryFilter: đọc/ghi trên bản sao MapSession,
+     * ghi nhận thay đổi để quyết định có cần ghi xuống delegate hay không.
+     */
+    public static final class CachedSession implements Session {
+
+        private final NearCacheSessionRepository<?> repository;
+        private final MapSession state;
+        private final String originalId;
+        private final boolean isNew;
+        private final Map<String, Object> changedAttributes = new HashMap<>();
+        private Session delegateSession;
+        private boolean maxInactiveChanged;
+        private boolean lastAccessedChanged;
+        private boolean idChanged;
+
+        private CachedSession(NearCacheSessionRepository<?> repository,
+                              MapSession state,
+                              Session delegateSession,
+                              boolean isNew) {
+            this.repository = repository;
+            this.state = state;
+            this.originalId = state.getId();
+            this.delegateSession = delegateSession;
+            this.isNew = isNew;
+        }
+
+        private boolean isDirty() {
+            return idChanged || maxInactiveChanged || !changedAttributes.isEmpty();
+        }
+
+        @Override
+        public String getId() {
+            return state.getId();
+        }
+
+        @Override
+        public String changeSessionId() {
+            if (delegateSession == null) {
+                delegateSession = repository.delegate.findById(originalId);
+                if (delegateSession == null) {
+                    throw new IllegalStateException("Session " + originalId + " no longer exists");
+                }
+            }
+            String newId = delegateSession.changeSessionId();
+            state.setId(newId);
+            idChanged = true;
+            return newId;
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return state.getAttribute(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return state.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            state.setAttribute(attributeName, attributeValue);
+            changedAttributes.put(attributeName, attributeValue);
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            state.removeAttribute(attributeName);
+            changedAttributes.put(attributeName, null);
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return state.getCreationTime();
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            state.setLastAccessedTime(lastAccessedTime);
+            lastAccessedChanged = true;
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return state.getLastAccessedTime();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            if (!interval.equals(state.getMaxInactiveInterval())) {
+                state.setMaxInactiveInterval(interval);
+                maxInactiveChanged = true;
+            }
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return state.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.isExpired();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.movie.security.session;
+
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ghi lastAccessedTime của nhiều session trong một lần gọi Lua script.
+ * Script bỏ qua session không còn tồn tại để không tạo lại key rỗng sau khi logout/hết hạn.
+ */
+public class RedisSessionTouchWriter implements NearCacheSessionRepository.TouchWriter {
+
+    private static final byte[] SCRIPT = """
+            for i, key in ipairs(KEYS) do
+              if redis.call('EXISTS', key) == 1 then
+                redis.call('HSET', key, ARGV[1], ARGV[i * 2])
+                redis.call('PEXPIREAT', key, ARGV[i * 2 + 1])
+              end
+            end
+            return 0
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] LAST_ACCESSED_TIME_FIELD = "lastAccessedTime".getBytes(StandardCharsets.UTF_8);
+    private static final int CHUNK_SIZE = 500;
+
+    private final RedisOperations<String, Object> sessionRedisOperations;
+    private final String sessionKeyPrefix;
+
+    public RedisSessionTouchWriter(RedisOperations<String, Object> sessionRedisOperations, String keyNamespace) {
+        this.sessionRedisOperations = sessionRedisOperations;
+        this.sessionKeyPrefix = keyNamespace + ":sessions:";
+    }
+
+    @Override
+    public void write(Map<String, NearCacheSessionRepository.Touch> touches) {
+        @SuppressWarnings("unchecked")
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) sessionRedisOperations.getHashValueSerializer();
+
+        List<Map.Entry<String, NearCacheSessionRepository.Touch>> entries = new ArrayList<>(touches.entrySet());
+        for (int from = 0; from < entries.size(); from += CHUNK_SIZE) {
+            List<Map.Entry<String, NearCacheSessionRepository.Touch>> chunk =
+                    entries.subList(from, Math.min(from + CHUNK_SIZE, entries.size()));
+
+            byte[][] keysAndArgs = new byte[chunk.size() * 3 + 1][];
+            int keyIndex = 0;
+            int argIndex = chunk.size();
+            keysAndArgs[argIndex++] = LAST_ACCESSED_TIME_FIELD;
+            for (Map.Entry<String, NearCacheSessionRepository.Touch> entry : chunk) {
+                NearCacheSessionRepository.Touch touch = entry.getValue();
+                keysAndArgs[keyIndex++] = (sessionKeyPrefix + entry.getKey()).getBytes(StandardCharsets.UTF_8);
+                keysAndArgs[argIndex++] = valueSerializer.serialize(touch.lastAccessedTime().toEpochMilli());
+                keysAndArgs[argIndex++] = Long.toString(touch.expiresAt().toEpochMilli()).getBytes(StandardCharsets.UTF_8);
+            }
+
+            int numKeys = chunk.size();
+            sessionRedisOperations.execute((RedisCallback<Object>) connection ->
+                    connection.scriptingCommands().eval(SCRIPT, ReturnType.INTEGER, numKeys, keysAndArgs));
+        }
+    }
+}
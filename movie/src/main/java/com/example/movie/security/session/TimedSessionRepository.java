@@ -0,0 +1,70 @@
+package com.example.movie.security.session;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Đo round-trip tới kho session (Redis): session.redis{operation=find|save|delete}.
+ * createSession không có I/O nên không đo.
+ */
+public class TimedSessionRepository<S extends Session> implements SessionRepository<S> {
+
+    private final SessionRepository<S> delegate;
+    private final Timer findTimer;
+    private final Timer saveTimer;
+    private final Timer deleteTimer;
+
+    public TimedSessionRepository(SessionRepository<S> delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.findTimer = timer(meterRegistry, "find");
+        this.saveTimer = timer(meterRegistry, "save");
+        this.deleteTimer = timer(meterRegistry, "delete");
+    }
+
+    @Override
+    public S createSession() {
+        return delegate.createSession();
+    }
+
+    @Override
+    public void save(S session) {
+        long start = System.nanoTime();
+        try {
+            delegate.save(session);
+        } finally {
+            saveTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public S findById(String id) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findById(id);
+        } finally {
+            findTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void deleteById(String id) {
+        long start = System.nanoTime();
+        try {
+            delegate.deleteById(id);
+        } finally {
+            deleteTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Timer timer(MeterRegistry registry, String operation) {
+        return Timer.builder("session.redis")
+                .description("Round-trip tới Redis khi đọc/ghi session")
+                .tag("operation", operation)
+                .register(registry);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.movie.security.session;
+
+import com.example.movie.security.principal.UserPrincipal;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.server.support.HttpSessionHandshakeInterceptor;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Xác thực frame STOMP bằng session HTTP (Redis) đã dùng cho handshake /ws.
+ *
+ * Handshake đi qua SecurityFilterChain như mọi request, nên user của kết nối là Authentication của session đó.
+ * Mỗi frame CONNECT/SEND/SUBSCRIBE kiểm tra session vẫn còn (đã logout hoặc hết hạn thì trả frame ERROR)
+ * và cập nhật lastAccessedTime như một request HTTP: player chỉ gửi heartbeat qua STOMP (vd MP4 tải bằng
+ * một response duy nhất) thì session vẫn không hết hạn giữa phim. Cả hai đi qua near-cache của session
+ * (touch được gom và flush định kỳ) nên phần lớn không chạm Redis. Khi xử lý message, Authentication được
+ * đặt vào SecurityContextHolder để controller dùng AuthUtils như với request HTTP.
+ */
+@Component
+public class WebSocketSessionInterceptor implements ExecutorChannelInterceptor {
+
+    private final SessionRepository<? extends Session> sessionRepository;
+
+    public WebSocketSessionInterceptor(SessionRepository<? extends Session> sessionRepository) {
+        this.sessionRepository = sessionRepository;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+        StompCommand command = accessor.getCommand();
+        if (command != StompCommand.CONNECT && command != StompCommand.SEND && command != StompCommand.SUBSCRIBE) {
+            return message;
+        }
+
+        if (!(accessor.getUser() instanceof Authentication authentication)
+                || !(authentication.getPrincipal() instanceof UserPrincipal)) {
+            throw new MessageDeliveryException("Chưa đăng nhập");
+        }
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        Object sessionId = attributes == null ? null : attributes.get(HttpSessionHandshakeInterceptor.HTTP_SESSION_ID_ATTR_NAME);
+        if (!(sessionId instanceof String id) || !touch(sessionRepository, id)) {
+            throw new MessageDeliveryException("Phiên đăng nhập đã hết hạn");
+        }
+        return message;
+    }
+
+    /**
+     * false nếu session không còn; ngược lại cập nhật lastAccessedTime như SessionRepositoryFilter làm với request HTTP
+     */
+    private static <S extends Session> boolean touch(SessionRepository<S> repository, String id) {
+        S session = repository.findById(id);
+        if (session == null) {
+            return false;
+        }
+        session.setLastAccessedTime(Instant.now());
+        repository.save(session);
+        return true;
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor != null && accessor.getUser() instanceof Authentication authentication) {
+            SecurityContextHolder.setContext(new SecurityContextImpl(authentication));
+        }
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        SecurityContextHolder.clearContext();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.movie.services.admin;
+
+import com.example.movie.dto.request.UserSearchRequest;
+import com.example.movie.dto.response.UserPageResponse;
+import com.example.movie.dto.response.UserResponse;
+import com.example.movie.exception.AppException;
+import com.example.movie.repositories.UserListingRepository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@Service
+public class AdminUserService {
+
+    private static final char CURSOR_SEPARATOR = '|';
+
+    private final UserListingRepository userListingRepository;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public AdminUserService(UserListingRepository userListingRepository,
+                            @Value("${app.admin.users.default-page-size:50}") int defaultPageSize,
+                            @Value("${app.admin.users.max-page-size:500}") int maxPageSize) {
+        this.userListingRepository = userListingRepository;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public UserPageResponse listUsers(UserSearchRequest request) {
+        int limit = request.getLimit() == null ? defaultPageSize : request.getLimit();
+        if (limit < 1 || limit > maxPageSize) {
+            throw new AppException("limit phải từ 1 đến " + maxPageSize, HttpStatus.BAD_REQUEST);
+        }
+
+        LocalDateTime afterCreatedAt = null;
+        UUID afterId = null;
+        if (request.getCursor() != null && !request.getCursor().isEmpty()) {
+            String cursor = decode(request.getCursor());
+            int separator = cursor.indexOf(CURSOR_SEPARATOR);
+            try {
+                afterCreatedAt = LocalDateTime.parse(cursor.substring(0, separator));
+                afterId = UUID.fromString(cursor.substring(separator + 1));
+            } catch (DateTimeParseException | IllegalArgumentException | IndexOutOfBoundsException ex) {
+                throw invalidCursor();
+            }
+        }
+
+        // Lấy dư một dòng để biết còn trang sau hay không
+        List<UserResponse> rows = userListingRepository.findPage(request, afterCreatedAt, afterId, limit + 1);
+        if (rows.size() <= limit) {
+            return UserPageResponse.builder().items(rows).build();
+        }
+        List<UserResponse> items = rows.subList(0, limit);
+        UserResponse last = items.get(limit - 1);
+        return UserPageResponse.builder()
+                .items(items)
+                .nextCursor(encode(last.getCreatedAt() + String.valueOf(CURSOR_SEPARATOR) + last.getId()))
+                .build();
+    }
+
+    public void exportUsers(UserSearchRequest request, Consumer<UserResponse> consumer) {
+        userListingRepository.streamAll(request, consumer);
+    }
+
+    private static String encode(String cursor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw invalidCursor();
+        }
+    }
+
+    private static AppException invalidCursor() {
+        return new AppException("Cursor không hợp lệ", HttpStatus.BAD_REQUEST);
+    }
+}
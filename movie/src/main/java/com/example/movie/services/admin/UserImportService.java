@@ -0,0 +1,360 @@
+package com.example.movie.services.admin;
+
+import com.example.movie.dto.request.ImportUserRow;
+import com.example.movie.dto.response.ImportRowResult;
+import com.example.movie.dto.response.ImportRowResult.Status;
+import com.example.movie.dto.response.ImportSummary;
+import com.example.movie.enums.AuthProvider;
+import com.example.movie.enums.Role;
+import com.example.movie.exception.AppException;
+import com.example.movie.models.User;
+import com.example.movie.models.id.UuidV7Generator;
+import com.example.movie.services.auth.UsernameAvailabilityService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Import user hàng loạt từ NDJSON hoặc CSV.
+ *
+ * Đọc từng bản ghi từ stream và xử lý theo lô batch-size, nên bộ nhớ chỉ phụ thuộc kích thước lô:
+ * kiểm tra trùng với DB bằng hai truy vấn IN trên cột đã chuẩn hóa, băm mật khẩu song song (hoặc dùng hash BCrypt có sẵn),
+ * rồi INSERT bằng một JDBC batch trong một transaction. Nếu lô vẫn va chạm với đăng ký chạy song song
+ * thì chèn lại từng dòng để chỉ ra đúng dòng trùng.
+ */
+@Service
+public class UserImportService {
+
+    public enum Format {
+        NDJSON, CSV
+    }
+
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^(\\{bcrypt})?\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+    private static final String BCRYPT_PREFIX = "{bcrypt}";
+
+    private static final String USERNAME_TAKEN = "Tên đăng nhập đã tồn tại!";
+    private static final String EMAIL_TAKEN = "Email đã tồn tại!";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO users (id, username, email, username_normalized, email_normalized, password_hash,
+                               display_name, role, provider, is_enabled, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final UsernameAvailabilityService usernameAvailabilityService;
+    private final ObjectReader ndjsonReader;
+    private final ObjectReader csvReader;
+    private final int batchSize;
+    private final int hashParallelism;
+
+    public UserImportService(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             PasswordEncoder passwordEncoder,
+                             Validator validator,
+                             UsernameAvailabilityService usernameAvailabilityService,
+                             ObjectMapper objectMapper,
+                             @Value("${app.admin.import.batch-size:500}") int batchSize,
+                             @Value("${app.admin.import.hash-parallelism:0}") int hashParallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.usernameAvailabilityService = usernameAvailabilityService;
+        this.ndjsonReader = objectMapper.readerFor(ImportUserRow.class);
+        this.csvReader = new CsvMapper().readerFor(ImportUserRow.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .with(CsvParser.Feature.EMPTY_STRING_AS_NULL);
+        this.batchSize = batchSize;
+        // 0 -> số CPU, bằng kích thước mặc định của pool băm mật khẩu nên không làm tràn hàng đợi của nó
+        this.hashParallelism = hashParallelism > 0 ? hashParallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Import toàn bộ stream; mỗi dòng bị loại được đẩy ngay vào rejected theo thứ tự xử lý
+     */
+    public ImportSummary importUsers(InputStream body, Format format, Consumer<ImportRowResult> rejected)
+            throws IOException {
+        Counts counts = new Counts(rejected);
+        List<PendingUser> batch = new ArrayList<>(batchSize);
+        Set<String> batchUsernames = new HashSet<>();
+        Set<String> batchEmails = new HashSet<>();
+
+        ObjectReader reader = format == Format.CSV ? csvReader : ndjsonReader;
+        try (ExecutorService hashers = Executors.newFixedThreadPool(hashParallelism,
+                     Thread.ofVirtual().name("user-import-hash-", 0).factory());
+             MappingIterator<ImportUserRow> rows = reader.readValues(body)) {
+
+            long row = 0;
+            while (true) {
+                ImportUserRow value;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    value = rows.nextValue();
+                } catch (JsonProcessingException ex) {
+                    // Sau một bản ghi hỏng không còn xác định được ranh giới bản ghi: dừng, giữ các lô đã ghi
+                    counts.reject(row + 1, Status.INVALID, null, "Không đọc được bản ghi: " + ex.getOriginalMessage(),
+                            null, null);
+                    break;
+                }
+                row++;
+
+                PendingUser user = accept(row, value, counts);
+                if (user == null) {
+                    continue;
+                }
+                if (!batchUsernames.add(user.usernameNormalized)) {
+                    counts.reject(user, Status.CONFLICT, "username", USERNAME_TAKEN);
+                    continue;
+                }
+                if (!batchEmails.add(user.emailNormalized)) {
+                    counts.reject(user, Status.CONFLICT, "email", EMAIL_TAKEN);
+                    continue;
+                }
+
+                batch.add(user);
+                if (batch.size() == batchSize) {
+                    flush(batch, hashers, counts);
+                    batch.clear();
+                    batchUsernames.clear();
+                    batchEmails.clear();
+                }
+            }
+            flush(batch, hashers, counts);
+        }
+
+        return ImportSummary.builder()
+                .total(counts.created + counts.conflicts + counts.invalid)
+                .created(counts.created)
+                .conflicts(counts.conflicts)
+                .invalid(counts.invalid)
+                .build();
+    }
+
+    private PendingUser accept(long row, ImportUserRow value, Counts counts) {
+        Set<ConstraintViolation<ImportUserRow>> violations = validator.validate(value);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<ImportUserRow> violation = violations.iterator().next();
+            counts.reject(row, Status.INVALID, violation.getPropertyPath().toString(), violation.getMessage(),
+                    value.getUsername(), value.getEmail());
+            return null;
+        }
+
+        String passwordHash = null;
+        if (StringUtils.hasText(value.getPasswordHash())) {
+            if (!BCRYPT_HASH.matcher(value.getPasswordHash()).matches()) {
+                counts.reject(row, Status.INVALID, "passwordHash", "Chỉ chấp nhận hash BCrypt",
+                        value.getUsername(), value.getEmail());
+                return null;
+            }
+            passwordHash = value.getPasswordHash().startsWith(BCRYPT_PREFIX)
+                    ? value.getPasswordHash()
+                    : BCRYPT_PREFIX + value.getPasswordHash();
+        } else if (!StringUtils.hasText(value.getPassword())) {
+            counts.reject(row, Status.INVALID, "password", "Mật khẩu không được để trống",
+                    value.getUsername(), value.getEmail());
+            return null;
+        }
+
+        return new PendingUser(row, value, passwordHash);
+    }
+
+    private void flush(List<PendingUser> batch, ExecutorService hashers, Counts counts) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Set<String> takenUsernames = existing("username_normalized", batch, user -> user.usernameNormalized);
+        Set<String> takenEmails = existing("email_normalized", batch, user -> user.emailNormalized);
+        List<PendingUser> accepted = new ArrayList<>(batch.size());
+        for (PendingUser user : batch) {
+            if (takenUsernames.contains(user.usernameNormalized)) {
+                counts.reject(user, Status.CONFLICT, "username", USERNAME_TAKEN);
+            } else if (takenEmails.contains(user.emailNormalized)) {
+                counts.reject(user, Status.CONFLICT, "email", EMAIL_TAKEN);
+            } else {
+                accepted.add(user);
+            }
+        }
+
+        hashPasswords(accepted, hashers);
+        insert(accepted, counts);
+    }
+
+    private Set<String> existing(String column, List<PendingUser> batch, Function<PendingUser, String> value) {
+        List<String> values = batch.stream().map(value).toList();
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT " + column + " FROM users WHERE " + column + " IN (:values)",
+                Map.of("values", values),
+                String.class
+        ));
+    }
+
+    private void hashPasswords(List<PendingUser> users, ExecutorService hashers) {
+        List<Future<?>> pending = new ArrayList<>(users.size());
+        for (PendingUser user : users) {
+            if (user.passwordHash == null) {
+                pending.add(hashers.submit(() -> {
+                    user.passwordHash = passwordEncoder.encode(user.row.getPassword());
+                }));
+            }
+        }
+
+        for (Future<?> future : pending) {
+            try {
+                future.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new AppException("Import bị gián đoạn", HttpStatus.SERVICE_UNAVAILABLE);
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException(ex.getCause());
+            }
+        }
+    }
+
+    private void insert(List<PendingUser> users, Counts counts) {
+        if (users.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, users, batchSize, (ps, user) -> bind(ps, user, now)));
+            users.forEach(counts::created);
+        } catch (DataIntegrityViolationException ex) {
+            // Có user được đăng ký cùng lúc: chèn lại từng dòng (mỗi dòng một transaction) để biết dòng nào trùng
+            for (PendingUser user : users) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, user, now));
+                    counts.created(user);
+                } catch (DataIntegrityViolationException rowEx) {
+                    String constraint = String.valueOf(rowEx.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+                    if (constraint.contains(User.UK_EMAIL)) {
+                        counts.reject(user, Status.CONFLICT, "email", EMAIL_TAKEN);
+                    } else {
+                        counts.reject(user, Status.CONFLICT, "username", USERNAME_TAKEN);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement ps, PendingUser user, LocalDateTime now) throws SQLException {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        ps.setObject(1, UuidV7Generator.next());
+        ps.setString(2, user.row.getUsername().trim());
+        ps.setString(3, user.row.getEmail().trim());
+        ps.setString(4, user.usernameNormalized);
+        ps.setString(5, user.emailNormalized);
+        ps.setString(6, user.passwordHash);
+        ps.setString(7, user.row.getDisplayName());
+        ps.setString(8, Role.USER.name());
+        ps.setString(9, AuthProvider.LOCAL.name());
+        ps.setBoolean(10, true);
+        ps.setTimestamp(11, timestamp);
+        ps.setTimestamp(12, timestamp);
+    }
+
+    private static final class PendingUser {
+
+        private final long number;
+        private final ImportUserRow row;
+        private final String usernameNormalized;
+        private final String emailNormalized;
+        // Ghi từ thread băm, đọc sau Future.get() nên không cần volatile
+        private String passwordHash;
+
+        private PendingUser(long number, ImportUserRow row, String passwordHash) {
+            this.number = number;
+            this.row = row;
+            this.usernameNormalized = User.normalize(row.getUsername());
+            this.emailNormalized = User.normalize(row.getEmail());
+            this.passwordHash = passwordHash;
+        }
+    }
+
+    private final class Counts {
+
+        private final Consumer<ImportRowResult> rejected;
+        private long created;
+        private long conflicts;
+        private long invalid;
+
+        private Counts(Consumer<ImportRowResult> rejected) {
+            this.rejected = rejected;
+        }
+
+        private void created(PendingUser user) {
+            created++;
+            usernameAvailabilityService.add(user.row.getUsername(), user.row.getEmail());
+        }
+
+        private void reject(PendingUser user, Status status, String field, String message) {
+            reject(user.number, status, field, message, user.row.getUsername(), user.row.getEmail());
+        }
+
+        private void reject(long row, Status status, String field, String message, String username, String email) {
+            if (status == Status.CONFLICT) {
+                conflicts++;
+            } else {
+                invalid++;
+            }
+            rejected.accept(ImportRowResult.builder()
+                    .row(row)
+                    .status(status)
+                    .field(field)
+                    .message(message)
+                    .username(username)
+                    .email(email)
+                    .build());
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package com.example.movie.services.auth;
 
+import com.example.movie.cache.UserProfileCache;
+import com.example.movie.metrics.AuthMetrics;
+import com.example.movie.metrics.AuthMetrics.Operation;
+import com.example.movie.metrics.AuthMetrics.Outcome;
+import com.example.movie.metrics.AuthMetrics.Phase;
 import com.example.movie.security.principal.UserPrincipal;
+import com.example.movie.security.ratelimit.LoginRateLimiter;
 import com.example.movie.dto.request.*;
 import com.example.movie.dto.response.UserResponse;
 import com.example.movie.enums.*;
@@ -11,18 +17,22 @@ import com.example.movie.repositories.*;
 
 import jakarta.servlet.http.HttpServletRequest;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.UUID;
 import java.util.Optional;
 
@@ -33,56 +43,147 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
+    private final UserProfileCache userProfileCache;
+    private final LoginActivityRecorder loginActivityRecorder;
+    private final UsernameAvailabilityService usernameAvailabilityService;
+    private final LoginRateLimiter loginRateLimiter;
+    private final AuthMetrics authMetrics;
 
     public AuthService(AuthenticationManager authenticationManager,
                        UserRepository userRepository, 
                        PasswordEncoder passwordEncoder, 
-                       UserMapper userMapper) {
+                       UserMapper userMapper,
+                       UserProfileCache userProfileCache,
+                       LoginActivityRecorder loginActivityRecorder,
+                       UsernameAvailabilityService usernameAvailabilityService,
+                       LoginRateLimiter loginRateLimiter,
+                       AuthMetrics authMetrics) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.userMapper = userMapper;
+        this.userProfileCache = userProfileCache;
+        this.loginActivityRecorder = loginActivityRecorder;
+        this.usernameAvailabilityService = usernameAvailabilityService;
+        this.loginRateLimiter = loginRateLimiter;
+        this.authMetrics = authMetrics;
     }
     public UserResponse getCurrentUser(UUID userId) {
-        User user = userRepository.findById(userId)
+        long start = authMetrics.start();
+        try {
+            UserResponse response = userProfileCache.get(userId, this::loadUserResponse);
+            authMetrics.record(Operation.CURRENT_USER, Outcome.SUCCESS, start);
+            return response;
+        } catch (RuntimeException ex) {
+            authMetrics.record(Operation.CURRENT_USER, Outcome.ERROR, start);
+            throw ex;
+        }
+    }
+
+    private UserResponse loadUserResponse(UUID userId) {
+        long start = authMetrics.start();
+        Optional<User> found = userRepository.findById(userId);
+        authMetrics.recordPhase(Operation.CURRENT_USER, Phase.REPOSITORY, start);
+        User user = found
                 .orElseThrow(() -> new AppException("Không tìm thấy người dùng", HttpStatus.NOT_FOUND));
         return userMapper.toResponse(user);
     }
 
     @Transactional
     public UserResponse registerUser(RegisterRequest registerRequest) {
-        
-        if (userRepository.findByUsername(registerRequest.getUsername()).isPresent()) {
-            throw new DuplicateResourceException("Tên đăng nhập đã tồn tại!");
-        }
-
-        if (userRepository.findByEmail(registerRequest.getEmail()).isPresent()) {
-            throw new DuplicateResourceException("Email đã tồn tại!");
+        long start = authMetrics.start();
+        try {
+            UserResponse response = doRegisterUser(registerRequest);
+            authMetrics.record(Operation.REGISTER, Outcome.SUCCESS, start);
+            return response;
+        } catch (DuplicateResourceException ex) {
+            authMetrics.record(Operation.REGISTER, Outcome.DUPLICATE, start);
+            throw ex;
+        } catch (RuntimeException ex) {
+            authMetrics.record(Operation.REGISTER, Outcome.ERROR, start);
+            throw ex;
         }
+    }
 
+    private UserResponse doRegisterUser(RegisterRequest registerRequest) {
         User userFromDto = userMapper.toEntity(registerRequest);
         if (userFromDto == null) {
             throw new AppException("Lỗi xử lý dữ liệu đầu vào", HttpStatus.INTERNAL_SERVER_ERROR);
         }
 
+        long bcryptStart = authMetrics.start();
+        String passwordHash = passwordEncoder.encode(registerRequest.getPassword());
+        authMetrics.recordPhase(Operation.REGISTER, Phase.BCRYPT, bcryptStart);
+
         User user = User.builder()
                 .username(userFromDto.getUsername())
                 .email(userFromDto.getEmail())
                 .displayName(userFromDto.getDisplayName())
-                .passwordHash(passwordEncoder.encode(registerRequest.getPassword()))
+                .passwordHash(passwordHash)
                 .role(Role.USER)
                 .provider(AuthProvider.LOCAL)
                 .enabled(true)
                 .build();
 
-        User userToSave = user; 
-        User savedUser = userRepository.save(userToSave);
+        // Chỉ một câu INSERT: trùng username/email do unique constraint của bảng users phát hiện
+        User savedUser;
+        long repositoryStart = authMetrics.start();
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException ex) {
+            throw toDuplicateException(ex);
+        } finally {
+            authMetrics.recordPhase(Operation.REGISTER, Phase.REPOSITORY, repositoryStart);
+        }
+        usernameAvailabilityService.add(savedUser.getUsername(), savedUser.getEmail());
 
         return userMapper.toResponse(savedUser);
     }
 
-    @Transactional
+    private RuntimeException toDuplicateException(DataIntegrityViolationException ex) {
+        String constraint = null;
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                constraint = violation.getConstraintName();
+                break;
+            }
+        }
+        if (constraint == null) {
+            constraint = ex.getMostSpecificCause().getMessage();
+        }
+
+        String normalized = constraint == null ? "" : constraint.toLowerCase(Locale.ROOT);
+        if (normalized.contains(User.UK_USERNAME) || normalized.contains("username")) {
+            return new DuplicateResourceException("Tên đăng nhập đã tồn tại!");
+        }
+        if (normalized.contains(User.UK_EMAIL) || normalized.contains("email")) {
+            return new DuplicateResourceException("Email đã tồn tại!");
+        }
+        return ex;
+    }
+
     public UserResponse authenticateUser(LoginRequest loginRequest, HttpServletRequest request) {
+        long start = authMetrics.start();
+        try {
+            UserResponse response = doAuthenticateUser(loginRequest, request);
+            authMetrics.record(Operation.LOGIN, Outcome.SUCCESS, start);
+            return response;
+        } catch (TooManyRequestsException ex) {
+            authMetrics.record(Operation.LOGIN, Outcome.RATE_LIMITED, start);
+            throw ex;
+        } catch (BadCredentialsException | UsernameNotFoundException ex) {
+            authMetrics.record(Operation.LOGIN, Outcome.BAD_CREDENTIALS, start);
+            throw ex;
+        } catch (RuntimeException ex) {
+            authMetrics.record(Operation.LOGIN, Outcome.ERROR, start);
+            throw ex;
+        }
+    }
+
+    private UserResponse doAuthenticateUser(LoginRequest loginRequest, HttpServletRequest request) {
+        // Chặn dò mật khẩu trước khi tốn một lần BCrypt
+        loginRateLimiter.check(loginRequest.getUsername(), request.getRemoteAddr());
+
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         loginRequest.getUsername(),
@@ -102,12 +203,9 @@ public class AuthService {
         UUID userId = Optional.ofNullable(principal.getId())
                 .orElseThrow(() -> new AppException("ID người dùng không hợp lệ", HttpStatus.UNAUTHORIZED));
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new AppException("Không tìm thấy thông tin người dùng", HttpStatus.NOT_FOUND));
-
-        user.setLastLoginAt(LocalDateTime.now());
-        User updatedUser = userRepository.save(user);
+        // lastLoginAt được ghi theo lô, response dựng từ principal đã load lúc xác thực
+        loginActivityRecorder.record(userId);
 
-        return userMapper.toResponse(updatedUser);
+        return userMapper.toResponse(principal);
     }
 }
\ No newline at end of file
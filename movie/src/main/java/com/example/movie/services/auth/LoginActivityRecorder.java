@@ -0,0 +1,85 @@
+package com.example.movie.services.auth;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ghi lastLoginAt theo kiểu write-behind: gom các lần đăng nhập theo user (giữ thời điểm mới nhất)
+ * rồi flush định kỳ bằng một JDBC batch UPDATE, thay vì SELECT + UPDATE toàn bộ entity mỗi lần đăng nhập.
+ */
+@Component
+public class LoginActivityRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginActivityRecorder.class);
+
+    private static final String UPDATE_SQL =
+            "UPDATE users SET last_login_at = ? WHERE id = ? AND (last_login_at IS NULL OR last_login_at < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final Map<UUID, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    public LoginActivityRecorder(JdbcTemplate jdbcTemplate,
+                                 @Value("${app.auth.login-activity.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    public void record(UUID userId) {
+        record(userId, LocalDateTime.now());
+    }
+
+    public void record(UUID userId, LocalDateTime loginAt) {
+        pending.merge(userId, loginAt, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.auth.login-activity.flush-interval:5s}",
+            fixedDelayString = "${app.auth.login-activity.flush-interval:5s}"
+    )
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<UUID, LocalDateTime>> batch = new ArrayList<>(pending.size());
+        for (UUID userId : pending.keySet()) {
+            LocalDateTime loginAt = pending.remove(userId);
+            if (loginAt != null) {
+                batch.add(Map.entry(userId, loginAt));
+            }
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batchSize, (ps, entry) -> {
+                Timestamp loginAt = Timestamp.valueOf(entry.getValue());
+                ps.setTimestamp(1, loginAt);
+                ps.setObject(2, entry.getKey());
+                ps.setTimestamp(3, loginAt);
+            });
+        } catch (RuntimeException ex) {
+            // Đưa lại vào buffer để lần flush sau thử tiếp
+            batch.forEach(entry -> record(entry.getKey(), entry.getValue()));
+            log.warn("Could not flush {} login timestamps", batch.size(), ex);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
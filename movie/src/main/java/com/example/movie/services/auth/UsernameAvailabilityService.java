@@ -0,0 +1,226 @@
+package com.example.movie.services.auth;
+
+import com.example.movie.dto.response.AvailabilityResponse;
+import com.example.movie.exception.AppException;
+import com.example.movie.models.User;
+import com.example.movie.repositories.UserRepository;
+import com.example.movie.utils.BloomFilter;
+
+import jakarta.annotation.PreDestroy;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Kiểm tra username/email còn trống cho form đăng ký.
+ * Bloom filter trong bộ nhớ trả lời "chắc chắn còn trống"; chỉ khi filter báo có thể đã tồn tại mới hỏi DB.
+ *
+ * Filter được dựng bằng cách stream bảng users lúc khởi động và được cập nhật khi đăng ký.
+ * Khi số phần tử vượt dung lượng, một filter lớn hơn được dựng ở background rồi thay thế,
+ * trong lúc dựng mọi phần tử mới được ghi vào cả filter cũ và mới.
+ */
+@Service
+public class UsernameAvailabilityService {
+
+    private static final Logger log = LoggerFactory.getLogger(UsernameAvailabilityService.class);
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final double falsePositiveRate;
+    private final long minCapacity;
+    private final int fetchSize;
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "availability-filter-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private volatile Filters current;
+    private volatile Filters next;
+
+    private final Counter filterNegative;
+    private final Counter databaseTaken;
+    private final Counter falsePositive;
+
+    public UsernameAvailabilityService(UserRepository userRepository,
+                                       JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.auth.availability.false-positive-rate:0.01}") double falsePositiveRate,
+                                       @Value("${app.auth.availability.min-capacity:100000}") long minCapacity,
+                                       @Value("${app.auth.availability.fetch-size:1000}") int fetchSize) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.falsePositiveRate = falsePositiveRate;
+        this.minCapacity = minCapacity;
+        this.fetchSize = fetchSize;
+
+        this.filterNegative = checkCounter(meterRegistry, "filter_negative");
+        this.databaseTaken = checkCounter(meterRegistry, "db_taken");
+        this.falsePositive = checkCounter(meterRegistry, "false_positive");
+        Gauge.builder("auth.availability.filter.fpp", this, s -> s.current == null ? 0 : s.current.expectedFalsePositiveRate())
+                .description("Tỉ lệ dương tính giả ước tính của Bloom filter")
+                .register(meterRegistry);
+        Gauge.builder("auth.availability.filter.size", this, s -> s.current == null ? 0 : s.current.usernames.approximateElementCount())
+                .description("Số username ước tính trong Bloom filter")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduleRebuild();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    public AvailabilityResponse check(String username, String email) {
+        if (!StringUtils.hasText(username) && !StringUtils.hasText(email)) {
+            throw new AppException("Cần truyền username hoặc email", HttpStatus.BAD_REQUEST);
+        }
+        Filters filters = current;
+        return AvailabilityResponse.builder()
+                .username(username)
+                .usernameAvailable(StringUtils.hasText(username)
+                        ? isAvailable(username, filters == null ? null : filters.usernames, userRepository::existsByUsernameNormalized)
+                        : null)
+                .email(email)
+                .emailAvailable(StringUtils.hasText(email)
+                        ? isAvailable(email, filters == null ? null : filters.emails, userRepository::existsByEmailNormalized)
+                        : null)
+                .build();
+    }
+
+    /**
+     * Ghi nhận username/email vừa được dùng (gọi sau khi insert user)
+     */
+    public void add(String username, String email) {
+        Filters filters = current;
+        if (filters != null) {
+            filters.put(username, email);
+        }
+        Filters building = next;
+        if (building != null) {
+            building.put(username, email);
+        }
+        if (filters != null && filters.usernames.approximateElementCount() > filters.usernames.getExpectedInsertions()) {
+            scheduleRebuild();
+        }
+    }
+
+    /**
+     * Dựng lại định kỳ để bao phủ cả user được tạo ngoài luồng đăng ký (script, công cụ admin)
+     */
+    @Scheduled(
+            initialDelayString = "${app.auth.availability.rebuild-interval:6h}",
+            fixedDelayString = "${app.auth.availability.rebuild-interval:6h}"
+    )
+    public void scheduleRebuild() {
+        if (rebuilding.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException ex) {
+                    log.warn("Could not rebuild availability filter", ex);
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Dựng filter mới có dung lượng theo số user hiện tại rồi thay thế filter đang dùng
+     */
+    public void rebuild() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        long capacity = Math.max(minCapacity, (count == null ? 0 : count) * 2);
+        Filters building = new Filters(capacity, falsePositiveRate);
+        next = building;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                var statement = connection.prepareStatement("SELECT username, email FROM users");
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, rs -> {
+                building.put(rs.getString(1), rs.getString(2));
+            }));
+            current = building;
+            log.info("Availability filter rebuilt with capacity {} for {} users", capacity, count);
+        } finally {
+            next = null;
+        }
+    }
+
+    private boolean isAvailable(String value, BloomFilter filter, Predicate<String> existsInDatabase) {
+        String normalized = User.normalize(value);
+        if (filter != null && !filter.mightContain(normalized)) {
+            filterNegative.increment();
+            return true;
+        }
+        if (existsInDatabase.test(normalized)) {
+            databaseTaken.increment();
+            return false;
+        }
+        if (filter != null) {
+            falsePositive.increment();
+        }
+        return true;
+    }
+
+    private static Counter checkCounter(MeterRegistry registry, String result) {
+        return Counter.builder("auth.availability.checks")
+                .description("Kết quả kiểm tra username/email còn trống")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static final class Filters {
+
+        private final BloomFilter usernames;
+        private final BloomFilter emails;
+
+        private Filters(long capacity, double falsePositiveRate) {
+            this.usernames = BloomFilter.create(capacity, falsePositiveRate);
+            this.emails = BloomFilter.create(capacity, falsePositiveRate);
+        }
+
+        private void put(String username, String email) {
+            if (username != null) {
+                usernames.put(User.normalize(username));
+            }
+            if (email != null) {
+                emails.put(User.normalize(email));
+            }
+        }
+
+        private double expectedFalsePositiveRate() {
+            return Math.max(usernames.expectedFalsePositiveRate(), emails.expectedFalsePositiveRate());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.movie.services.movie;
+
+import com.example.movie.models.Movie;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener: mọi thay đổi của Movie được đưa vào chỉ mục tìm kiếm sau khi transaction commit
+ */
+@Component
+public class MovieIndexListener {
+
+    private final ObjectProvider<MovieSearchService> movieSearchService;
+
+    public MovieIndexListener(ObjectProvider<MovieSearchService> movieSearchService) {
+        this.movieSearchService = movieSearchService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onMovieSaved(Movie movie) {
+        movieSearchService.ifAvailable(service -> service.indexAfterCommit(movie));
+    }
+
+    @PostRemove
+    public void onMovieRemoved(Movie movie) {
+        movieSearchService.ifAvailable(service -> service.removeAfterCommit(movie.getId()));
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.movie.services.movie;
+
+import com.example.movie.dto.response.MovieSearchHit;
+import com.example.movie.exception.AppException;
+import com.example.movie.mapper.MovieMapper;
+import com.example.movie.models.Movie;
+import com.example.movie.search.IndexedMovie;
+import com.example.movie.search.MovieSearchIndex;
+
+import jakarta.annotation.PreDestroy;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Tìm kiếm và gợi ý tên phim từ chỉ mục trong bộ nhớ, không truy vấn DB.
+ *
+ * Chỉ mục được dựng bằng cách stream bảng movies lúc khởi động và được cập nhật sau mỗi transaction
+ * ghi Movie qua JPA (MovieIndexListener). Khi số doc chết vượt max-dead-ratio, hoặc định kỳ để bao phủ
+ * dữ liệu ghi ngoài JPA, một chỉ mục mới được dựng ở background rồi thay thế; trong lúc dựng mọi thay đổi
+ * được ghi vào cả chỉ mục cũ và mới.
+ */
+@Service
+public class MovieSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(MovieSearchService.class);
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final MovieMapper movieMapper;
+    private final int suggestionsPerPrefix;
+    private final int fetchSize;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final double maxDeadRatio;
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "movie-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private volatile MovieSearchIndex current;
+    private volatile MovieSearchIndex next;
+
+    public MovieSearchService(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              MovieMapper movieMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.movies.search.suggestions-per-prefix:16}") int suggestionsPerPrefix,
+                              @Value("${app.movies.search.fetch-size:1000}") int fetchSize,
+                              @Value("${app.movies.search.default-limit:10}") int defaultLimit,
+                              @Value("${app.movies.search.max-limit:50}") int maxLimit,
+                              @Value("${app.movies.search.max-dead-ratio:0.25}") double maxDeadRatio) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.movieMapper = movieMapper;
+        this.suggestionsPerPrefix = suggestionsPerPrefix;
+        this.fetchSize = fetchSize;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.maxDeadRatio = maxDeadRatio;
+
+        Gauge.builder("movies.search.index.size", this, s -> s.current == null ? 0 : s.current.size())
+                .description("Số phim trong chỉ mục tìm kiếm")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduleRebuild();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    public List<MovieSearchHit> search(String query, Integer limit) {
+        return ready().search(query, limit(limit)).stream().map(movieMapper::toHit).toList();
+    }
+
+    public List<MovieSearchHit> suggest(String query, Integer limit) {
+        return ready().suggest(query, limit(limit)).stream().map(movieMapper::toHit).toList();
+    }
+
+    /**
+     * Phim có tồn tại không, không chạm DB khi chỉ mục đã dựng xong (phim ghi ngoài JPA chỉ có sau lần dựng lại kế tiếp).
+     * Chỉ mục đang khởi tạo thì hỏi thẳng bảng movies.
+     */
+    public boolean exists(UUID movieId) {
+        MovieSearchIndex index = current;
+        if (index != null) {
+            return index.contains(movieId);
+        }
+        return !jdbcTemplate.queryForList("SELECT 1 FROM movies WHERE id = ?", Integer.class, movieId).isEmpty();
+    }
+
+    /**
+     * Đưa phim vào chỉ mục sau khi transaction hiện tại commit (ngay lập tức nếu không có transaction)
+     */
+    public void indexAfterCommit(Movie movie) {
+        IndexedMovie indexed = new IndexedMovie(movie.getId(), movie.getTitle(), movie.getOriginalTitle(),
+                movie.getReleaseYear(), movie.getPopularity(), version(movie.getUpdatedAt()));
+        afterCommit(() -> apply(index -> index.put(indexed)));
+    }
+
+    public void removeAfterCommit(UUID movieId) {
+        afterCommit(() -> apply(index -> index.remove(movieId)));
+    }
+
+    /**
+     * Dựng lại định kỳ để bao phủ cả phim được ghi ngoài JPA (script, import trực tiếp vào DB)
+     */
+    @Scheduled(
+            initialDelayString = "${app.movies.search.rebuild-interval:6h}",
+            fixedDelayString = "${app.movies.search.rebuild-interval:6h}"
+    )
+    public void scheduleRebuild() {
+        if (rebuilding.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException ex) {
+                    log.warn("Could not rebuild movie search index", ex);
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Dựng chỉ mục mới từ bảng movies rồi thay thế chỉ mục đang dùng
+     */
+    public void rebuild() {
+        MovieSearchIndex building = new MovieSearchIndex(suggestionsPerPrefix);
+        next = building;
+        try {
+            // Đọc hết rồi mới nạp: load cần sắp xếp toàn bộ phim để cấp doc id theo tầng xếp hạng
+            List<IndexedMovie> movies = new ArrayList<>();
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                var statement = connection.prepareStatement(
+                        "SELECT id, title, original_title, release_year, popularity, updated_at FROM movies");
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, rs -> {
+                Timestamp updatedAt = rs.getTimestamp(6);
+                movies.add(new IndexedMovie(
+                        rs.getObject(1, UUID.class),
+                        rs.getString(2),
+                        rs.getString(3),
+                        rs.getObject(4, Integer.class),
+                        rs.getLong(5),
+                        version(updatedAt == null ? null : updatedAt.toLocalDateTime())
+                ));
+            }));
+            building.load(movies);
+            current = building;
+            log.info("Movie search index rebuilt with {} movies", building.size());
+        } finally {
+            next = null;
+        }
+    }
+
+    private void apply(Consumer<MovieSearchIndex> change) {
+        // Đọc next trước current: nếu thấy next đã về null thì current chắc chắn đã là chỉ mục mới
+        MovieSearchIndex building = next;
+        MovieSearchIndex index = current;
+        if (building != null) {
+            change.accept(building);
+        }
+        if (index != null && index != building) {
+            change.accept(index);
+            if (index.deadCount() > Math.max(1000, index.size() * maxDeadRatio)) {
+                scheduleRebuild();
+            }
+        }
+    }
+
+    private MovieSearchIndex ready() {
+        MovieSearchIndex index = current;
+        if (index == null) {
+            throw new AppException("Chỉ mục tìm kiếm đang được khởi tạo, vui lòng thử lại sau", HttpStatus.SERVICE_UNAVAILABLE, true);
+        }
+        return index;
+    }
+
+    private int limit(Integer limit) {
+        int value = limit == null ? defaultLimit : limit;
+        if (value < 1 || value > maxLimit) {
+            throw new AppException("limit phải từ 1 đến " + maxLimit, HttpStatus.BAD_REQUEST);
+        }
+        return value;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static long version(LocalDateTime updatedAt) {
+        return updatedAt == null ? 0 : ChronoUnit.MICROS.between(EPOCH, updatedAt);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.movie.services.movie;
+
+import com.example.movie.dto.request.MovieRequest;
+import com.example.movie.dto.response.MovieResponse;
+import com.example.movie.exception.AppException;
+import com.example.movie.mapper.MovieMapper;
+import com.example.movie.models.Movie;
+import com.example.movie.repositories.MovieRepository;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+@Service
+public class MovieService {
+
+    private final MovieRepository movieRepository;
+    private final MovieMapper movieMapper;
+
+    public MovieService(MovieRepository movieRepository, MovieMapper movieMapper) {
+        this.movieRepository = movieRepository;
+        this.movieMapper = movieMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public MovieResponse getMovie(UUID id) {
+        return movieMapper.toResponse(find(id));
+    }
+
+    /**
+     * Đường dẫn video (tương đối với app.media.root) của phim; 404 nếu không có phim hoặc phim chưa có video
+     */
+    @Transactional(readOnly = true)
+    public String getVideoPath(UUID id) {
+        return movieRepository.findVideoPathById(id)
+                .orElseThrow(() -> new AppException("Không tìm thấy video", HttpStatus.NOT_FOUND, true));
+    }
+
+    /**
+     * Thư mục HLS/DASH của phim; 404 nếu không có phim hoặc phim chưa được đóng gói
+     */
+    @Transactional(readOnly = true)
+    public String getStreamPath(UUID id) {
+        return movieRepository.findStreamPathById(id)
+                .orElseThrow(() -> new AppException("Không tìm thấy video", HttpStatus.NOT_FOUND, true));
+    }
+
+    @Transactional
+    public MovieResponse createMovie(MovieRequest request) {
+        // Flush để response có createdAt/updatedAt
+        return movieMapper.toResponse(movieRepository.saveAndFlush(movieMapper.toEntity(request)));
+    }
+
+    @Transactional
+    public MovieResponse updateMovie(UUID id, MovieRequest request) {
+        Movie movie = find(id);
+        movieMapper.update(request, movie);
+        if (request.getPopularity() != null) {
+            movie.setPopularity(request.getPopularity());
+        }
+        return movieMapper.toResponse(movieRepository.saveAndFlush(movie));
+    }
+
+    @Transactional
+    public void deleteMovie(UUID id) {
+        movieRepository.delete(find(id));
+    }
+
+    private Movie find(UUID id) {
+        return movieRepository.findById(id)
+                .orElseThrow(() -> new AppException("Không tìm thấy phim", HttpStatus.NOT_FOUND, true));
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.movie.services.movie;
+
+import com.example.movie.repositories.MovieStatsRepository;
+import com.example.movie.stats.MovieCounters;
+import com.example.movie.stats.MovieCounters.Delta;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lượt xem (mở trang chi tiết) và lượt phát (bắt đầu stream) của phim.
+ *
+ * Request chỉ tăng LongAdder trong bộ nhớ (MovieCounters); mỗi chu kỳ flush, phần tăng thêm của mỗi phim
+ * được cộng vào movie_stats bằng một JDBC batch trong transaction và vào hash Redis (HINCRBY) để các
+ * service khác đọc tổng của cả cụm. DB và Redis có cursor riêng: bên nào lỗi thì chỉ bên đó gửi lại
+ * ở chu kỳ sau, không bên nào bị cộng hai lần.
+ */
+@Service
+public class MovieStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(MovieStatsService.class);
+
+    // KEYS = hash của từng phim; ARGV = lượt xem, lượt phát của từng key xen kẽ
+    private static final RedisScript<Long> ADD_SCRIPT = new DefaultRedisScript<>("""
+            for i, key in ipairs(KEYS) do
+              local views = tonumber(ARGV[2 * i - 1])
+              local plays = tonumber(ARGV[2 * i])
+              if views ~= 0 then redis.call('HINCRBY', key, 'views', views) end
+              if plays ~= 0 then redis.call('HINCRBY', key, 'plays', plays) end
+            end
+            return #KEYS
+            """, Long.class);
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final MovieStatsRepository movieStatsRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final String redisKeyPrefix;
+
+    private final MovieCounters counters = new MovieCounters();
+    // Flush theo lịch và flush lúc tắt có thể chạy cùng lúc; cursor không thread-safe.
+    // ReentrantLock thay vì synchronized để virtual thread không bị ghim trong lúc chờ DB/Redis
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final MovieCounters.Cursor databaseCursor = counters.newCursor();
+    private final MovieCounters.Cursor redisCursor = counters.newCursor();
+
+    private final Counter views;
+    private final Counter plays;
+    private final Counter rowsWritten;
+
+    public MovieStatsService(MovieStatsRepository movieStatsRepository,
+                             StringRedisTemplate redisTemplate,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.movies.stats.batch-size:500}") int batchSize,
+                             @Value("${app.movies.stats.redis-key-prefix:movie:stats:}") String redisKeyPrefix) {
+        this.movieStatsRepository = movieStatsRepository;
+        this.redisTemplate = redisTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.redisKeyPrefix = redisKeyPrefix;
+
+        this.views = Counter.builder("movies.views")
+                .description("Số lượt xem trang chi tiết phim")
+                .register(meterRegistry);
+        this.plays = Counter.builder("movies.plays")
+                .description("Số lượt bắt đầu phát phim")
+                .register(meterRegistry);
+        this.rowsWritten = Counter.builder("movies.stats.rows.written")
+                .description("Số dòng movie_stats được cộng dồn khi flush")
+                .register(meterRegistry);
+        Gauge.builder("movies.stats.tracked", counters, MovieCounters::size)
+                .description("Số phim đang có bộ đếm trong bộ nhớ")
+                .register(meterRegistry);
+    }
+
+    public void recordView(UUID movieId) {
+        counters.recordView(movieId);
+        views.increment();
+    }
+
+    public void recordPlay(UUID movieId) {
+        counters.recordPlay(movieId);
+        plays.increment();
+    }
+
+    /**
+     * Cursor mới trên cùng bộ đếm, bắt đầu từ 0 (TrendingService dùng để lấy lượt xem theo từng bucket)
+     */
+    public MovieCounters.Cursor newCursor() {
+        return counters.newCursor();
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.movies.stats.flush-interval:10s}",
+            fixedDelayString = "${app.movies.stats.flush-interval:10s}"
+    )
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushToDatabase();
+            flushToRedis();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void flushToDatabase() {
+        List<Delta> deltas = databaseCursor.deltas();
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    movieStatsRepository.add(deltas, LocalDateTime.now(), batchSize));
+            databaseCursor.commit(deltas);
+            rowsWritten.increment(deltas.size());
+        } catch (RuntimeException ex) {
+            // Chưa commit cursor: phần này được cộng vào lần flush sau
+            log.warn("Could not flush view counts of {} movies", deltas.size(), ex);
+        }
+    }
+
+    private void flushToRedis() {
+        List<Delta> deltas = redisCursor.deltas();
+        for (int from = 0; from < deltas.size(); from += CHUNK_SIZE) {
+            List<Delta> chunk = deltas.subList(from, Math.min(from + CHUNK_SIZE, deltas.size()));
+            List<String> keys = new ArrayList<>(chunk.size());
+            Object[] args = new Object[chunk.size() * 2];
+            for (int i = 0; i < chunk.size(); i++) {
+                Delta delta = chunk.get(i);
+                keys.add(redisKeyPrefix + delta.movieId());
+                args[2 * i] = Long.toString(delta.views());
+                args[2 * i + 1] = Long.toString(delta.plays());
+            }
+
+            try {
+                // Script chạy nguyên tử nên mỗi chunk hoặc được cộng hết hoặc không
+                redisTemplate.execute(ADD_SCRIPT, keys, args);
+                redisCursor.commit(chunk);
+            } catch (DataAccessException ex) {
+                log.debug("Could not flush view counts to Redis", ex);
+                return;
+            }
+        }
+    }
+}
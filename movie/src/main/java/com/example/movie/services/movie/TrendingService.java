@@ -0,0 +1,109 @@
+package com.example.movie.services.movie;
+
+import com.example.movie.dto.response.TrendingMovie;
+import com.example.movie.exception.AppException;
+import com.example.movie.models.Movie;
+import com.example.movie.repositories.MovieRepository;
+import com.example.movie.stats.MovieCounters;
+import com.example.movie.stats.TrendingWindow;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Phim thịnh hành theo cửa sổ trượt (mặc định 1 giờ, bucket 1 phút) trên lượt xem/phát của node này.
+ *
+ * Mỗi tick lấy phần tăng thêm từ bộ đếm của MovieStatsService làm bucket mới, tính lại top-K rồi
+ * thay danh sách dựng sẵn; request chỉ đọc danh sách đó nên không chạm DB hay bộ đếm.
+ */
+@Service
+public class TrendingService {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingService.class);
+
+    private final MovieRepository movieRepository;
+    private final MovieCounters.Cursor cursor;
+    private final TrendingWindow window;
+    private final int size;
+    private final int defaultLimit;
+    private final ReentrantLock tickLock = new ReentrantLock();
+
+    private volatile List<TrendingMovie> trending = List.of();
+
+    public TrendingService(MovieRepository movieRepository,
+                           MovieStatsService movieStatsService,
+                           @Value("${app.movies.trending.bucket:1m}") Duration bucket,
+                           @Value("${app.movies.trending.window:1h}") Duration window,
+                           @Value("${app.movies.trending.play-weight:5}") long playWeight,
+                           @Value("${app.movies.trending.size:100}") int size,
+                           @Value("${app.movies.trending.default-limit:20}") int defaultLimit) {
+        this.movieRepository = movieRepository;
+        this.cursor = movieStatsService.newCursor();
+        this.window = new TrendingWindow((int) Math.max(1, window.dividedBy(bucket)), playWeight);
+        this.size = size;
+        this.defaultLimit = Math.min(defaultLimit, size);
+    }
+
+    public List<TrendingMovie> trending(Integer limit) {
+        int count = limit == null ? defaultLimit : limit;
+        if (count < 1 || count > size) {
+            throw new AppException("limit phải từ 1 đến " + size, HttpStatus.BAD_REQUEST);
+        }
+        List<TrendingMovie> current = trending;
+        return current.size() <= count ? current : current.subList(0, count);
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.movies.trending.bucket:1m}",
+            fixedRateString = "${app.movies.trending.bucket:1m}"
+    )
+    public void tick() {
+        tickLock.lock();
+        try {
+            List<MovieCounters.Delta> bucket = cursor.deltas();
+            window.advance(bucket);
+            cursor.commit(bucket);
+            trending = load(window.top(size));
+        } catch (RuntimeException ex) {
+            // Bucket đã vào cửa sổ; chỉ danh sách dựng sẵn giữ bản cũ đến tick sau
+            log.warn("Could not refresh trending movies", ex);
+        } finally {
+            tickLock.unlock();
+        }
+    }
+
+    private List<TrendingMovie> load(List<TrendingWindow.Entry> top) {
+        if (top.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Movie> movies = movieRepository.findAllById(top.stream().map(TrendingWindow.Entry::movieId).toList())
+                .stream()
+                .collect(Collectors.toMap(Movie::getId, Function.identity()));
+        // Phim đã bị xóa trong cửa sổ thì bỏ qua
+        return top.stream()
+                .filter(entry -> movies.containsKey(entry.movieId()))
+                .map(entry -> {
+                    Movie movie = movies.get(entry.movieId());
+                    return TrendingMovie.builder()
+                            .movieId(entry.movieId())
+                            .title(movie.getTitle())
+                            .posterUrl(movie.getPosterUrl())
+                            .views(entry.views())
+                            .plays(entry.plays())
+                            .build();
+                })
+                .toList();
+    }
+}
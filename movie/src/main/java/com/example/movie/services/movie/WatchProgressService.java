@@ -0,0 +1,184 @@
+package com.example.movie.services.movie;
+
+import com.example.movie.dto.response.ContinueWatchingItem;
+import com.example.movie.exception.AppException;
+import com.example.movie.repositories.WatchProgressRepository;
+import com.example.movie.repositories.WatchProgressRepository.Row;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Vị trí xem phim theo kiểu write-behind (như LoginActivityRecorder): heartbeat của player chỉ ghi đè
+ * vị trí mới nhất của (user, phim) trong bộ nhớ, mỗi chu kỳ flush ghi một dòng cho mỗi cặp bằng một JDBC batch.
+ * Một người xem gửi heartbeat mỗi 5 giây thì chu kỳ 30 giây gom 6 lần ghi thành 1.
+ *
+ * Danh sách "xem tiếp" đọc từ DB nên có thể chậm tối đa một chu kỳ flush.
+ *
+ * movieId do client gửi nên được kiểm tra với chỉ mục phim trước khi nhận, và mỗi user chỉ có tối đa
+ * max-pending-per-user phim chờ flush: heartbeat với UUID ngẫu nhiên không làm buffer phình ra.
+ */
+@Service
+public class WatchProgressService {
+
+    private static final Logger log = LoggerFactory.getLogger(WatchProgressService.class);
+
+    private final WatchProgressRepository watchProgressRepository;
+    private final MovieSearchService movieSearchService;
+    private final int batchSize;
+    private final double finishedRatio;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final int maxPendingPerUser;
+    private final Map<Key, Progress> pending = new ConcurrentHashMap<>();
+    // Số phim đang chờ flush của từng user; chỉ đổi bên trong compute của pending (thêm/xóa key) nên khớp với pending
+    private final Map<UUID, Integer> pendingPerUser = new ConcurrentHashMap<>();
+
+    private final Counter received;
+    private final Counter written;
+    private final Counter unknownMovie;
+    private final Counter pendingLimited;
+
+    public WatchProgressService(WatchProgressRepository watchProgressRepository,
+                                MovieSearchService movieSearchService,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.movies.progress.batch-size:500}") int batchSize,
+                                @Value("${app.movies.progress.finished-ratio:0.95}") double finishedRatio,
+                                @Value("${app.movies.progress.default-limit:20}") int defaultLimit,
+                                @Value("${app.movies.progress.max-limit:100}") int maxLimit,
+                                @Value("${app.movies.progress.max-pending-per-user:20}") int maxPendingPerUser) {
+        this.watchProgressRepository = watchProgressRepository;
+        this.movieSearchService = movieSearchService;
+        this.batchSize = batchSize;
+        this.finishedRatio = finishedRatio;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.maxPendingPerUser = maxPendingPerUser;
+
+        this.received = Counter.builder("movies.progress.heartbeats")
+                .description("Số heartbeat vị trí xem nhận được")
+                .register(meterRegistry);
+        this.written = Counter.builder("movies.progress.rows.written")
+                .description("Số dòng watch_progress được ghi khi flush")
+                .register(meterRegistry);
+        this.unknownMovie = rejectedCounter(meterRegistry, "unknown-movie");
+        this.pendingLimited = rejectedCounter(meterRegistry, "pending-limit");
+        Gauge.builder("movies.progress.pending", pending, Map::size)
+                .description("Số cặp (user, phim) đang chờ flush")
+                .register(meterRegistry);
+    }
+
+    public void record(UUID userId, UUID movieId, int positionSeconds, Integer durationSeconds) {
+        received.increment();
+        if (!movieSearchService.exists(movieId)) {
+            unknownMovie.increment();
+            throw new AppException("Không tìm thấy phim", HttpStatus.NOT_FOUND, true);
+        }
+
+        Progress next = new Progress(positionSeconds, durationSeconds, LocalDateTime.now());
+        Progress stored = pending.compute(new Key(userId, movieId), (key, current) -> {
+            if (current != null) {
+                return next.updatedAt().isBefore(current.updatedAt()) ? current : next;
+            }
+            return reserve(userId) ? next : null;
+        });
+        if (stored == null) {
+            pendingLimited.increment();
+            throw new AppException("Quá nhiều phim đang chờ lưu vị trí xem, vui lòng thử lại sau", HttpStatus.TOO_MANY_REQUESTS, true);
+        }
+    }
+
+    public List<ContinueWatchingItem> continueWatching(UUID userId, Integer limit) {
+        int size = limit == null ? defaultLimit : limit;
+        if (size < 1 || size > maxLimit) {
+            throw new AppException("limit phải từ 1 đến " + maxLimit, HttpStatus.BAD_REQUEST);
+        }
+        return watchProgressRepository.findContinueWatching(userId, finishedRatio, size);
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.movies.progress.flush-interval:30s}",
+            fixedDelayString = "${app.movies.progress.flush-interval:30s}"
+    )
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Row> batch = new ArrayList<>(pending.size());
+        for (Key key : pending.keySet()) {
+            pending.computeIfPresent(key, (k, progress) -> {
+                batch.add(new Row(k.userId(), k.movieId(),
+                        progress.positionSeconds(), progress.durationSeconds(), progress.updatedAt()));
+                pendingPerUser.computeIfPresent(k.userId(), (userId, count) -> count == 1 ? null : count - 1);
+                return null;
+            });
+        }
+
+        try {
+            watchProgressRepository.upsert(batch, batchSize);
+            written.increment(batch.size());
+        } catch (RuntimeException ex) {
+            // Đưa lại vào buffer (heartbeat mới hơn đến trong lúc flush vẫn được giữ) để lần flush sau thử tiếp
+            // Không áp giới hạn cho các dòng này: chúng đã được nhận trước đó
+            batch.forEach(row -> pending.compute(new Key(row.userId(), row.movieId()), (key, current) -> {
+                if (current != null) {
+                    return current;
+                }
+                pendingPerUser.merge(key.userId(), 1, Integer::sum);
+                return new Progress(row.positionSeconds(), row.durationSeconds(), row.updatedAt());
+            }));
+            log.warn("Could not flush {} watch progress rows", batch.size(), ex);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Giữ một chỗ chờ flush cho user; false nếu user đã có đủ max-pending-per-user phim đang chờ
+     */
+    private boolean reserve(UUID userId) {
+        boolean[] reserved = {false};
+        pendingPerUser.compute(userId, (id, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= maxPendingPerUser) {
+                return count;
+            }
+            reserved[0] = true;
+            return current + 1;
+        });
+        return reserved[0];
+    }
+
+    private static Counter rejectedCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("movies.progress.rejected")
+                .description("Số heartbeat bị từ chối")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    private record Key(UUID userId, UUID movieId) {
+    }
+
+    private record Progress(int positionSeconds, Integer durationSeconds, LocalDateTime updatedAt) {
+    }
+}
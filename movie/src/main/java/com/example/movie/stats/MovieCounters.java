@@ -0,0 +1,93 @@
+package com.example.movie.stats;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Đếm lượt xem/lượt phát theo phim bằng LongAdder: mỗi thread cộng vào cell riêng (striped),
+ * nên phim đang hot không làm các request tranh nhau một biến như AtomicLong hay một dòng DB.
+ *
+ * Bộ đếm chỉ tăng, không reset. Mỗi nơi tiêu thụ (ghi DB, ghi Redis, cửa sổ trending) giữ một Cursor
+ * nhớ tổng đã xử lý, nên mỗi nơi tự lấy phần tăng thêm và thử lại khi lỗi mà không ảnh hưởng nơi khác.
+ * Số key bị chặn bởi số phim trong catalog (chỉ đếm phim đã tìm thấy), nên không cần dọn.
+ */
+public final class MovieCounters {
+
+    private final Map<UUID, Counts> counts = new ConcurrentHashMap<>();
+
+    public void recordView(UUID movieId) {
+        counts(movieId).views.increment();
+    }
+
+    public void recordPlay(UUID movieId) {
+        counts(movieId).plays.increment();
+    }
+
+    public int size() {
+        return counts.size();
+    }
+
+    public Cursor newCursor() {
+        return new Cursor();
+    }
+
+    private Counts counts(UUID movieId) {
+        // get trước: phim đã có bộ đếm thì không phải vào computeIfAbsent (có thể khóa bin)
+        Counts current = counts.get(movieId);
+        return current != null ? current : counts.computeIfAbsent(movieId, id -> new Counts());
+    }
+
+    private static final class Counts {
+        private final LongAdder views = new LongAdder();
+        private final LongAdder plays = new LongAdder();
+    }
+
+    /**
+     * Vị trí đã xử lý của một nơi tiêu thụ. Không thread-safe: mỗi lúc chỉ một thread được dùng.
+     */
+    public final class Cursor {
+
+        private final Map<UUID, long[]> committed = new HashMap<>();
+
+        private Cursor() {
+        }
+
+        /**
+         * Phần tăng thêm kể từ các lần commit trước, chỉ gồm phim có thay đổi.
+         * LongAdder.sum() không phải snapshot nguyên tử, nhưng lượt đếm chưa kịp thấy sẽ nằm ở lần sau.
+         */
+        public List<Delta> deltas() {
+            List<Delta> deltas = new ArrayList<>();
+            counts.forEach((movieId, current) -> {
+                long[] seen = committed.get(movieId);
+                long views = current.views.sum() - (seen == null ? 0 : seen[0]);
+                long plays = current.plays.sum() - (seen == null ? 0 : seen[1]);
+                if (views != 0 || plays != 0) {
+                    deltas.add(new Delta(movieId, views, plays));
+                }
+            });
+            return deltas;
+        }
+
+        /**
+         * Đánh dấu delta đã xử lý xong; delta không được commit sẽ xuất hiện lại ở lần deltas() sau
+         */
+        public void commit(Delta delta) {
+            long[] seen = committed.computeIfAbsent(delta.movieId(), id -> new long[2]);
+            seen[0] += delta.views();
+            seen[1] += delta.plays();
+        }
+
+        public void commit(List<Delta> deltas) {
+            deltas.forEach(this::commit);
+        }
+    }
+
+    public record Delta(UUID movieId, long views, long plays) {
+    }
+}
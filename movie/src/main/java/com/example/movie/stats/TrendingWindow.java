@@ -0,0 +1,89 @@
+package com.example.movie.stats;
+
+import com.example.movie.stats.MovieCounters.Delta;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Cửa sổ trượt gồm bucketCount bucket liên tiếp: mỗi bucket là lượt xem/phát của các phim trong một khoảng,
+ * tổng của cả cửa sổ được cộng khi thêm bucket và trừ khi bucket cũ nhất rời cửa sổ.
+ *
+ * Đếm chính xác thay vì Count-Min Sketch vì số phim bị chặn bởi catalog và đã có sẵn bộ đếm theo phim.
+ * Không thread-safe: chỉ thread tick của TrendingService dùng.
+ */
+public final class TrendingWindow {
+
+    private static final Comparator<Entry> BY_SCORE = Comparator.comparingLong(Entry::score)
+            .thenComparing(Entry::movieId, Comparator.reverseOrder());
+
+    private final int bucketCount;
+    private final long playWeight;
+    private final Deque<List<Delta>> buckets = new ArrayDeque<>();
+    private final Map<UUID, long[]> totals = new HashMap<>();
+
+    public TrendingWindow(int bucketCount, long playWeight) {
+        if (bucketCount < 1) {
+            throw new IllegalArgumentException("bucketCount must be positive");
+        }
+        this.bucketCount = bucketCount;
+        this.playWeight = playWeight;
+    }
+
+    /**
+     * Thêm bucket mới nhất; khi cửa sổ đã đủ thì bucket cũ nhất bị loại
+     */
+    public void advance(List<Delta> bucket) {
+        buckets.addLast(bucket);
+        bucket.forEach(delta -> add(delta, 1));
+        if (buckets.size() > bucketCount) {
+            buckets.removeFirst().forEach(delta -> add(delta, -1));
+        }
+    }
+
+    public int size() {
+        return totals.size();
+    }
+
+    /**
+     * k phim có điểm (lượt xem + playWeight * lượt phát) cao nhất trong cửa sổ, điểm giảm dần;
+     * min-heap k phần tử nên O(n log k)
+     */
+    public List<Entry> top(int k) {
+        if (k < 1) {
+            return List.of();
+        }
+        PriorityQueue<Entry> heap = new PriorityQueue<>(k, BY_SCORE);
+        totals.forEach((movieId, counts) -> {
+            Entry entry = new Entry(movieId, counts[0], counts[1], counts[0] + playWeight * counts[1]);
+            if (heap.size() < k) {
+                heap.add(entry);
+            } else if (BY_SCORE.compare(entry, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        });
+        List<Entry> result = new ArrayList<>(heap);
+        result.sort(BY_SCORE.reversed());
+        return result;
+    }
+
+    private void add(Delta delta, int sign) {
+        long[] counts = totals.computeIfAbsent(delta.movieId(), id -> new long[2]);
+        counts[0] += sign * delta.views();
+        counts[1] += sign * delta.plays();
+        if (counts[0] == 0 && counts[1] == 0) {
+            totals.remove(delta.movieId());
+        }
+    }
+
+    public record Entry(UUID movieId, long views, long plays, long score) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.movie.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bloom filter an toàn khi dùng đồng thời (bit set trên AtomicLongArray, không khóa).
+ * mightContain = false nghĩa là chắc chắn chưa có; true thì có thể là dương tính giả.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long numBits;
+    private final int numHashes;
+    private final long expectedInsertions;
+    private final LongAdder bitCount = new LongAdder();
+
+    private BloomFilter(long numBits, int numHashes, long expectedInsertions) {
+        int numWords = (int) Math.max(1, (numBits + 63) >>> 6);
+        this.words = new AtomicLongArray(numWords);
+        this.numBits = (long) numWords << 6;
+        this.numHashes = numHashes;
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    /**
+     * Tính số bit và số hàm băm tối ưu cho số phần tử dự kiến và tỉ lệ dương tính giả mong muốn
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        double p = Math.min(Math.max(falsePositiveRate, Double.MIN_VALUE), 0.5);
+        long numBits = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        int numHashes = Math.max(1, (int) Math.round((double) numBits / n * Math.log(2)));
+        return new BloomFilter(numBits, numHashes, n);
+    }
+
+    public void put(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        long hash1 = hash(bytes, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(bytes, 0xC2B2AE3D27D4EB4FL);
+        for (int i = 0; i < numHashes; i++) {
+            setBit(index(hash1 + i * hash2));
+        }
+    }
+
+    public boolean mightContain(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        long hash1 = hash(bytes, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(bytes, 0xC2B2AE3D27D4EB4FL);
+        for (int i = 0; i < numHashes; i++) {
+            long bit = index(hash1 + i * hash2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    /**
+     * Tỉ lệ dương tính giả ước tính theo số bit đã bật hiện tại
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow((double) bitCount.sum() / numBits, numHashes);
+    }
+
+    /**
+     * Số phần tử ước tính (Swamidass & Baldi)
+     */
+    public long approximateElementCount() {
+        double fractionOfBitsSet = (double) bitCount.sum() / numBits;
+        if (fractionOfBitsSet >= 1.0) {
+            return Long.MAX_VALUE;
+        }
+        return Math.round(-Math.log1p(-fractionOfBitsSet) * numBits / numHashes);
+    }
+
+    private long index(long combinedHash) {
+        return (combinedHash & Long.MAX_VALUE) % numBits;
+    }
+
+    private void setBit(long bit) {
+        int wordIndex = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        while (true) {
+            long current = words.get(wordIndex);
+            if ((current & mask) != 0) {
+                return;
+            }
+            if (words.compareAndSet(wordIndex, current, current | mask)) {
+                bitCount.increment();
+                return;
+            }
+        }
+    }
+
+    // FNV-1a 64 bit với seed, kết thúc bằng bước trộn của MurmurHash3 (fmix64)
+    private static long hash(byte[] bytes, long seed) {
+        long h = 0xcbf29ce484222325L ^ seed;
+        for (byte b : bytes) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.movie.utils;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Đồng hồ có độ phân giải thô: chỉ tạo LocalDateTime mới khi đã qua ít nhất một resolution,
+ * các lần gọi trong khoảng đó dùng lại cùng một instance (không cấp phát, không tra múi giờ).
+ * Dùng cho timestamp của response lỗi, nơi sai lệch vài ms không quan trọng.
+ */
+@Component
+public class CachedClock {
+
+    private final Clock clock;
+    private final long resolutionMillis;
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public CachedClock(@Value("${app.errors.clock-resolution:10ms}") Duration resolution) {
+        this(Clock.systemDefaultZone(), resolution);
+    }
+
+    public CachedClock(Clock clock, Duration resolution) {
+        this.clock = clock;
+        this.resolutionMillis = Math.max(1, resolution.toMillis());
+        this.snapshot = snapshot(clock.millis());
+    }
+
+    public LocalDateTime now() {
+        long millis = clock.millis();
+        Snapshot current = snapshot;
+        // Đồng hồ bị chỉnh lùi cũng làm mới luôn
+        if (millis - current.millis >= resolutionMillis || millis < current.millis) {
+            current = snapshot(millis);
+            snapshot = current;
+        }
+        return current.time;
+    }
+
+    private Snapshot snapshot(long millis) {
+        return new Snapshot(millis, LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), clock.getZone()));
+    }
+
+    private record Snapshot(long millis, LocalDateTime time) {
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.movie;
 
+import com.example.movie.support.EmbeddedRedisInitializer;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
 
 @SpringBootTest
+@ContextConfiguration(initializers = EmbeddedRedisInitializer.class)
 class MovieApplicationTests {
 
 	@Test
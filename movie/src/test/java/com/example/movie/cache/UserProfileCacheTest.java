@@ -0,0 +1,91 @@
+package com.example.movie.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.movie.dto.response.UserResponse;
+import com.example.movie.enums.Role;
+import com.example.movie.support.EmbeddedRedisInitializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = EmbeddedRedisInitializer.class)
+class UserProfileCacheTest {
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Test
+    void get_ShouldLoadOnce_ThenServeFromCache() {
+        UUID id = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        UserResponse first = userProfileCache.get(id, key -> {
+            loads.incrementAndGet();
+            return response(key);
+        });
+        UserResponse second = userProfileCache.get(id, key -> {
+            loads.incrementAndGet();
+            return response(key);
+        });
+
+        assertEquals(1, loads.get());
+        assertEquals(first.getUsername(), second.getUsername());
+    }
+
+    @Test
+    void get_ShouldFallBackToRedis_WhenNearCacheIsEvicted() {
+        UUID id = UUID.randomUUID();
+        userProfileCache.get(id, this::response);
+
+        userProfileCache.evictLocal(id);
+        UserResponse fromRedis = userProfileCache.get(id, key -> fail("should be served from Redis"));
+
+        assertEquals("user-" + id, fromRedis.getUsername());
+        assertEquals(Role.USER, fromRedis.getRole());
+    }
+
+    @Test
+    void invalidationMessage_ShouldEvictNearCache() throws InterruptedException {
+        UUID id = UUID.randomUUID();
+        userProfileCache.get(id, this::response);
+        AtomicInteger loads = new AtomicInteger();
+
+        // Giả lập node khác thay đổi User: xóa key trên Redis rồi phát tin invalidation
+        redisTemplate.delete(redisTemplate.keys("*user-profile:" + id));
+        assertNotNull(userProfileCache.get(id, key -> fail("near-cache should still hold the entry")));
+        redisTemplate.convertAndSend(userProfileCache.getInvalidationChannel(), id.toString());
+
+        UserResponse reloaded = null;
+        for (int i = 0; i < 50 && loads.get() == 0; i++) {
+            reloaded = userProfileCache.get(id, key -> {
+                loads.incrementAndGet();
+                return response(key);
+            });
+            Thread.sleep(20);
+        }
+
+        assertEquals(1, loads.get());
+        assertNotNull(reloaded);
+    }
+
+    private UserResponse response(UUID id) {
+        return UserResponse.builder()
+                .id(id)
+                .username("user-" + id)
+                .email(id + "@test.com")
+                .role(Role.USER)
+                .build();
+    }
+}
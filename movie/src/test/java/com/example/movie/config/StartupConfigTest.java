@@ -0,0 +1,38 @@
+package com.example.movie.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.mock.env.MockEnvironment;
+
+class StartupConfigTest {
+
+    @Test
+    void lazyPackages_ShouldOnlyMarkMatchingBeansLazy() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        RootBeanDefinition docs = new RootBeanDefinition();
+        docs.setBeanClassName("org.springdoc.core.properties.SpringDocConfigProperties");
+        beanFactory.registerBeanDefinition("docs", docs);
+        beanFactory.registerBeanDefinition("controller", new RootBeanDefinition(StartupConfigTest.class));
+
+        MockEnvironment environment = new MockEnvironment().withProperty("app.startup.lazy-packages", "org.springdoc");
+        StartupConfig.lazyPackagesPostProcessor(environment).postProcessBeanFactory(beanFactory);
+
+        assertTrue(beanFactory.getBeanDefinition("docs").isLazyInit());
+        assertFalse(beanFactory.getBeanDefinition("controller").isLazyInit());
+    }
+
+    @Test
+    void lazyPackages_ShouldChangeNothing_WhenNotConfigured() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        RootBeanDefinition docs = new RootBeanDefinition();
+        docs.setBeanClassName("org.springdoc.core.properties.SpringDocConfigProperties");
+        beanFactory.registerBeanDefinition("docs", docs);
+
+        StartupConfig.lazyPackagesPostProcessor(new MockEnvironment()).postProcessBeanFactory(beanFactory);
+
+        assertFalse(beanFactory.getBeanDefinition("docs").isLazyInit());
+    }
+}
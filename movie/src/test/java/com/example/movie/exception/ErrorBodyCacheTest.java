@@ -0,0 +1,101 @@
+package com.example.movie.exception;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.movie.dto.response.ErrorResponse;
+import com.example.movie.utils.CachedClock;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+class ErrorBodyCacheTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final AtomicLong millis = new AtomicLong(1_700_000_000_000L);
+    private final CachedClock clock = new CachedClock(new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis.get());
+        }
+    }, Duration.ofMillis(10));
+
+    @Test
+    void body_ShouldMatchSerializedErrorResponse() throws Exception {
+        ErrorBodyCache cache = new ErrorBodyCache(objectMapper, clock, 16);
+
+        byte[] body = cache.body(HttpStatus.CONFLICT, "Tên \"đăng nhập\" đã tồn tại!");
+
+        ErrorResponse expected = ErrorResponse.builder()
+                .status(409)
+                .message("Tên \"đăng nhập\" đã tồn tại!")
+                .timestamp(clock.now())
+                .build();
+        assertArrayEquals(objectMapper.writeValueAsBytes(expected), body);
+    }
+
+    @Test
+    void body_ShouldRefreshTimestamp_OnlyAfterClockResolution() throws Exception {
+        ErrorBodyCache cache = new ErrorBodyCache(objectMapper, clock, 16);
+        LocalDateTime first = read(cache.body(HttpStatus.UNAUTHORIZED, "sai")).getTimestamp();
+
+        millis.addAndGet(5);
+        assertEquals(first, read(cache.body(HttpStatus.UNAUTHORIZED, "sai")).getTimestamp());
+
+        millis.addAndGet(10);
+        assertEquals(first.plusNanos(15_000_000), read(cache.body(HttpStatus.UNAUTHORIZED, "sai")).getTimestamp());
+    }
+
+    @Test
+    void body_ShouldStillRender_WhenCacheIsFull() throws Exception {
+        ErrorBodyCache cache = new ErrorBodyCache(objectMapper, clock, 1);
+        cache.body(HttpStatus.BAD_REQUEST, "một");
+
+        assertEquals("hai", read(cache.body(HttpStatus.BAD_REQUEST, "hai")).getMessage());
+    }
+
+    @Test
+    void handler_ShouldCacheOnlyConstantMessages() throws Exception {
+        ErrorBodyCache cache = new ErrorBodyCache(objectMapper, clock, 16);
+        GlobalExceptionHandler handler = new GlobalExceptionHandler(cache, clock);
+
+        for (int max = 1; max <= 3; max++) {
+            byte[] body = handler.handleAppException(new AppException("limit phải từ 1 đến " + max, HttpStatus.BAD_REQUEST)).getBody();
+            assertEquals("limit phải từ 1 đến " + max, read(body).getMessage());
+        }
+        assertEquals(0, cache.size());
+
+        handler.handleAppException(new AppException("Không tìm thấy phim", HttpStatus.NOT_FOUND, true));
+        handler.handleAppException(new DuplicateResourceException("Email đã tồn tại!"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void appException_ShouldSkipStackTrace_OnlyForClientErrors() {
+        assertEquals(0, new DuplicateResourceException("trùng").getStackTrace().length);
+        assertEquals(0, new TooManyRequestsException("chậm lại", Duration.ofSeconds(1)).getStackTrace().length);
+        assertTrue(new AppException("lỗi", HttpStatus.INTERNAL_SERVER_ERROR).getStackTrace().length > 0);
+    }
+
+    private ErrorResponse read(byte[] body) throws Exception {
+        return objectMapper.readValue(body, ErrorResponse.class);
+    }
+}
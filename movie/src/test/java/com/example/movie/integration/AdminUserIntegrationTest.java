@@ -0,0 +1,133 @@
+package com.example.movie.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.movie.models.id.UuidV7Generator;
+import com.example.movie.support.EmbeddedRedisInitializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = EmbeddedRedisInitializer.class)
+@Sql(scripts = "/sql/cleanup.sql")
+@WithMockUser(roles = "ADMIN")
+class AdminUserIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void insertUsers() {
+        // Hai user cùng created_at để kiểm tra cursor phân biệt bằng id
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 0, 0);
+        insert("admin1", "ADMIN", true, base);
+        insert("user1", "USER", true, base.plusMinutes(1));
+        insert("user2", "USER", false, base.plusMinutes(1));
+        insert("user3", "USER", true, base.plusMinutes(2));
+        insert("user4", "USER", true, base.plusMinutes(3));
+    }
+
+    @Test
+    void list_ShouldWalkAllPagesInCreationOrder() throws Exception {
+        List<String> usernames = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var request = get("/api/admin/users").param("limit", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8));
+            page.get("items").forEach(item -> usernames.add(item.get("username").asText()));
+            cursor = page.path("nextCursor").isNull() ? null : page.path("nextCursor").asText(null);
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(5, usernames.size());
+        assertEquals("admin1", usernames.get(0));
+        assertEquals("user4", usernames.get(4));
+        assertEquals(5, usernames.stream().distinct().count());
+    }
+
+    @Test
+    void list_ShouldApplyFilters() throws Exception {
+        JsonNode page = objectMapper.readTree(mockMvc.perform(get("/api/admin/users")
+                        .param("role", "USER")
+                        .param("enabled", "true"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8));
+
+        assertEquals(3, page.get("items").size());
+        assertTrue(page.path("nextCursor").isMissingNode() || page.get("nextCursor").isNull());
+    }
+
+    @Test
+    void list_ShouldReject_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/admin/users").param("cursor", "not-a-cursor"))
+               .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void export_ShouldStreamOneJsonLinePerUser() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/admin/users/export").param("role", "USER"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\n");
+        assertEquals(4, lines.length);
+        assertEquals("user1@test.com", objectMapper.readTree(lines[0]).get("email").asText());
+    }
+
+    @Test
+    @WithMockUser
+    void list_ShouldBeForbidden_ForNonAdmin() throws Exception {
+        mockMvc.perform(get("/api/admin/users"))
+               .andExpect(status().isForbidden());
+    }
+
+    private void insert(String username, String role, boolean enabled, LocalDateTime createdAt) {
+        jdbcTemplate.update("""
+                INSERT INTO users (id, username, email, username_normalized, email_normalized, password_hash,
+                                   role, provider, is_enabled, created_at)
+                VALUES (?, ?, ?, ?, ?, 'x', ?, 'LOCAL', ?, ?)""",
+                UuidV7Generator.next(), username, username + "@test.com", username, username + "@test.com",
+                role, enabled, Timestamp.valueOf(createdAt));
+    }
+}
@@ -1,21 +1,30 @@
 package com.example.movie.integration;
 
+import com.example.movie.services.auth.UsernameAvailabilityService;
+import io.micrometer.core.instrument.MeterRegistry;
+import com.example.movie.support.EmbeddedRedisInitializer;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @AutoConfigureMockMvc
 @ActiveProfiles("test")
+@ContextConfiguration(initializers = EmbeddedRedisInitializer.class)
 
 @Sql(
     scripts = "/sql/cleanup.sql",
@@ -30,6 +39,12 @@ class AuthIntegrationTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private UsernameAvailabilityService usernameAvailabilityService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     void me_ShouldReturn401_WhenUnauthenticated() throws Exception {
         mockMvc.perform(get("/api/auth/me"))
@@ -46,6 +61,63 @@ class AuthIntegrationTest {
                .andExpect(status().isOk());
     }
 
+    @Test
+    @WithUserDetails(
+        value = "flowuser",
+        userDetailsServiceBeanName = "userDetailsServiceImpl"
+    )
+    void me_ShouldRecordAuthAndStatementMetrics() throws Exception {
+        mockMvc.perform(get("/api/auth/me"))
+               .andExpect(status().isOk());
+
+        assertTrue(meterRegistry.get("auth.requests")
+                .tags("operation", "current_user", "outcome", "success").timer().count() > 0);
+        assertTrue(meterRegistry.get("http.server.requests.db.statements")
+                .tag("uri", "/api/auth/me").summary().count() > 0);
+    }
+
+    @Test
+    void login_ShouldReturnSame401Body_ForWrongPasswordAndUnknownUser() throws Exception {
+        for (String username : new String[] {"flowuser", "nobody"}) {
+            mockMvc.perform(post("/api/auth/login")
+                            .contentType("application/json")
+                            .content("{\"username\":\"" + username + "\",\"password\":\"wrong-password\"}"))
+                   .andExpect(status().isUnauthorized())
+                   .andExpect(jsonPath("$.status").value(401))
+                   .andExpect(jsonPath("$.message").value("Tài khoản hoặc mật khẩu không chính xác"))
+                   .andExpect(jsonPath("$.timestamp").exists());
+        }
+    }
+
+    @Test
+    @WithUserDetails(
+        value = "flowuser",
+        userDetailsServiceBeanName = "userDetailsServiceImpl"
+    )
+    void me_ShouldReturn304_WhenETagMatches() throws Exception {
+        String etag = mockMvc.perform(get("/api/auth/me"))
+               .andExpect(status().isOk())
+               .andExpect(header().string("Cache-Control", "no-cache, private"))
+               .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/auth/me").header("If-None-Match", etag))
+               .andExpect(status().isNotModified())
+               .andExpect(header().string("ETag", etag))
+               .andExpect(content().string(""));
+    }
+
+    @Test
+    void availability_ShouldReportTakenAndFreeValues() throws Exception {
+        usernameAvailabilityService.rebuild();
+
+        mockMvc.perform(get("/api/auth/availability")
+                        .param("username", "flowuser")
+                        .param("email", "free@test.com"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.usernameAvailable").value(false))
+               .andExpect(jsonPath("$.emailAvailable").value(true));
+    }
+
     @Test
     @WithUserDetails(
         value = "flowuser",
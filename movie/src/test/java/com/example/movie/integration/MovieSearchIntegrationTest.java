@@ -0,0 +1,105 @@
+package com.example.movie.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.movie.services.movie.MovieSearchService;
+import com.example.movie.support.EmbeddedRedisInitializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = EmbeddedRedisInitializer.class)
+@Sql(scripts = "/sql/cleanup.sql")
+@WithMockUser(roles = "ADMIN")
+class MovieSearchIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MovieSearchService movieSearchService;
+
+    @BeforeEach
+    void rebuildIndex() {
+        movieSearchService.rebuild();
+    }
+
+    @Test
+    void writes_ShouldBeVisibleToSearchAndSuggest() throws Exception {
+        String id = create("{\"title\":\"Bố Già\",\"originalTitle\":\"The Godfather\",\"releaseYear\":2021,\"popularity\":50}");
+        create("{\"title\":\"Bố Già Phần 2\",\"releaseYear\":2023,\"popularity\":10}");
+
+        assertEquals(List.of("Bố Già", "Bố Già Phần 2"), titles("/api/movies/search", "bo gia"));
+        assertEquals(List.of("Bố Già"), titles("/api/movies/search", "godfather"));
+        assertEquals(List.of("Bố Già", "Bố Già Phần 2"), titles("/api/movies/suggest", "bố g"));
+
+        mockMvc.perform(put("/api/admin/movies/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Cha Già\",\"releaseYear\":2021}"))
+                .andExpect(status().isOk());
+        assertEquals(List.of("Bố Già Phần 2"), titles("/api/movies/search", "bo gia"));
+        assertEquals(List.of("Cha Già"), titles("/api/movies/suggest", "ch"));
+
+        mockMvc.perform(delete("/api/admin/movies/" + id)).andExpect(status().isNoContent());
+        assertEquals(List.of(), titles("/api/movies/suggest", "ch"));
+        mockMvc.perform(get("/api/movies/" + id)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void rebuild_ShouldLoadExistingMovies() throws Exception {
+        create("{\"title\":\"Mắt Biếc\",\"releaseYear\":2019}");
+
+        movieSearchService.rebuild();
+
+        assertEquals(List.of("Mắt Biếc"), titles("/api/movies/search", "mat biec"));
+    }
+
+    @Test
+    void search_ShouldRejectLimitOutOfRange() throws Exception {
+        mockMvc.perform(get("/api/movies/search").param("q", "a").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String create(String json) throws Exception {
+        String body = mockMvc.perform(post("/api/admin/movies").contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        return objectMapper.readTree(body).get("id").asText();
+    }
+
+    private List<String> titles(String path, String query) throws Exception {
+        String body = mockMvc.perform(get(path).param("q", query))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        List<String> titles = new ArrayList<>();
+        for (JsonNode hit : objectMapper.readTree(body)) {
+            titles.add(hit.get("title").asText());
+        }
+        return titles;
+    }
+}
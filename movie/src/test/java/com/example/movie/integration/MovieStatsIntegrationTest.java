@@ -0,0 +1,118 @@
+package com.example.movie.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.movie.models.Movie;
+import com.example.movie.repositories.MovieRepository;
+import com.example.movie.services.movie.MovieStatsService;
+import com.example.movie.services.movie.TrendingService;
+import com.example.movie.support.EmbeddedRedisInitializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = EmbeddedRedisInitializer.class)
+@Sql(scripts = "/sql/cleanup.sql")
+@WithMockUser
+class MovieStatsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private MovieStatsService movieStatsService;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Test
+    void views_ShouldBeFlushedAsDeltas() throws Exception {
+        UUID movieId = movieRepository.save(Movie.builder().title("Đếm lượt xem").build()).getId();
+
+        view(movieId, 3);
+        movieStatsService.flush();
+        view(movieId, 2);
+        movieStatsService.recordPlay(movieId);
+        movieStatsService.flush();
+        // Không có gì mới thì flush không cộng thêm
+        movieStatsService.flush();
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "select view_count, play_count from movie_stats where movie_id = ?", movieId);
+        assertEquals(5L, ((Number) row.get("view_count")).longValue());
+        assertEquals(1L, ((Number) row.get("play_count")).longValue());
+        Map<Object, Object> hash = redisTemplate.opsForHash().entries("movie:stats:" + movieId);
+        assertEquals(Map.of("views", "5", "plays", "1"), hash);
+    }
+
+    @Test
+    void trending_ShouldRankMoviesInWindow() throws Exception {
+        UUID popular = movieRepository.save(Movie.builder().title("Đang hot").build()).getId();
+        UUID played = movieRepository.save(Movie.builder().title("Được phát nhiều").build()).getId();
+        UUID quiet = movieRepository.save(Movie.builder().title("Ít người xem").build()).getId();
+
+        view(popular, 8);
+        view(played, 1);
+        movieStatsService.recordPlay(played);
+        movieStatsService.recordPlay(played);
+        view(quiet, 1);
+        trendingService.tick();
+
+        // Điểm = lượt xem + 5 * lượt phát: 11, 8, 1 (các test khác có thể để lại phim đã bị xóa, bị bỏ qua)
+        JsonNode items = objectMapper.readTree(mockMvc.perform(get("/api/movies/trending").param("limit", "100"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        List<String> titles = new ArrayList<>();
+        items.forEach(item -> titles.add(item.get("title").asText()));
+        assertEquals(List.of("Được phát nhiều", "Đang hot", "Ít người xem"), titles);
+        assertEquals(2, items.get(0).get("plays").asLong());
+
+        mockMvc.perform(get("/api/movies/trending").param("limit", "0")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void missingMovie_ShouldNotBeCounted() throws Exception {
+        UUID missing = UUID.randomUUID();
+        mockMvc.perform(get("/api/movies/" + missing)).andExpect(status().isNotFound());
+
+        assertTrue(movieStatsService.newCursor().deltas().stream().noneMatch(delta -> delta.movieId().equals(missing)));
+    }
+
+    private void view(UUID movieId, int times) throws Exception {
+        for (int i = 0; i < times; i++) {
+            mockMvc.perform(get("/api/movies/" + movieId)).andExpect(status().isOk());
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.movie.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.movie.models.Movie;
+import com.example.movie.repositories.MovieRepository;
+import com.example.movie.services.movie.MovieStatsService;
+import com.example.movie.stats.MovieCounters;
+import com.example.movie.support.EmbeddedRedisInitializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = EmbeddedRedisInitializer.class)
+@Sql(scripts = "/sql/cleanup.sql")
+@WithMockUser
+class MovieStreamIntegrationTest {
+
+    private static final Path MEDIA_ROOT;
+    private static final byte[] CONTENT = new byte[1000];
+    private static final String MASTER_PLAYLIST = """
+            #EXTM3U
+            #EXT-X-STREAM-INF:BANDWIDTH=2800000,RESOLUTION=1280x720
+            720p/index.m3u8
+            """;
+
+    static {
+        for (int i = 0; i < CONTENT.length; i++) {
+            CONTENT[i] = (byte) i;
+        }
+        try {
+            MEDIA_ROOT = Files.createTempDirectory("media");
+            Files.write(MEDIA_ROOT.resolve("clip.mp4"), CONTENT);
+            Files.createDirectories(MEDIA_ROOT.resolve("clip/720p"));
+            Files.writeString(MEDIA_ROOT.resolve("clip/master.m3u8"), MASTER_PLAYLIST);
+            Files.write(MEDIA_ROOT.resolve("clip/720p/seg_000.ts"), CONTENT);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @DynamicPropertySource
+    static void mediaRoot(DynamicPropertyRegistry registry) {
+        registry.add("app.media.root", MEDIA_ROOT::toString);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private MovieStatsService movieStatsService;
+
+    private UUID movieId;
+    private String url;
+    private String hlsUrl;
+
+    @BeforeEach
+    void createMovie() {
+        Movie movie = movieRepository.save(Movie.builder()
+                .title("Clip")
+                .videoPath("clip.mp4")
+                .streamPath("clip")
+                .build());
+        movieId = movie.getId();
+        url = "/api/movies/" + movie.getId() + "/stream";
+        hlsUrl = "/api/movies/" + movie.getId() + "/hls/";
+    }
+
+    @Test
+    void noRange_ShouldReturnWholeFile() throws Exception {
+        MvcResult result = mockMvc.perform(get(url)).andExpect(status().isOk()).andReturn();
+
+        assertArrayEquals(CONTENT, result.getResponse().getContentAsByteArray());
+        assertEquals("bytes", result.getResponse().getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertEquals("video/mp4", result.getResponse().getContentType());
+        assertEquals(1000, result.getResponse().getContentLengthLong());
+    }
+
+    @Test
+    void singleRange_ShouldReturnPartialContent() throws Exception {
+        MvcResult result = mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=100-199"))
+                .andExpect(status().isPartialContent()).andReturn();
+
+        assertArrayEquals(Arrays.copyOfRange(CONTENT, 100, 200), result.getResponse().getContentAsByteArray());
+        assertEquals("bytes 100-199/1000", result.getResponse().getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(100, result.getResponse().getContentLengthLong());
+
+        // Đoạn cuối file và đoạn vượt quá cuối file bị cắt về độ dài file
+        result = mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=-10"))
+                .andExpect(status().isPartialContent()).andReturn();
+        assertEquals("bytes 990-999/1000", result.getResponse().getHeader(HttpHeaders.CONTENT_RANGE));
+        result = mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=995-5000"))
+                .andExpect(status().isPartialContent()).andReturn();
+        assertArrayEquals(Arrays.copyOfRange(CONTENT, 995, 1000), result.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    void multipleRanges_ShouldReturnMultipart() throws Exception {
+        MvcResult result = mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=0-9,500-509"))
+                .andExpect(status().isPartialContent()).andReturn();
+
+        String contentType = result.getResponse().getContentType();
+        assertTrue(contentType.startsWith("multipart/byteranges; boundary="), contentType);
+        byte[] body = result.getResponse().getContentAsByteArray();
+        assertEquals(body.length, result.getResponse().getContentLengthLong());
+        String text = new String(body, StandardCharsets.ISO_8859_1);
+        assertTrue(text.contains("Content-Range: bytes 0-9/1000\r\n\r\n"
+                + new String(Arrays.copyOfRange(CONTENT, 0, 10), StandardCharsets.ISO_8859_1)));
+        assertTrue(text.contains("Content-Range: bytes 500-509/1000\r\n\r\n"
+                + new String(Arrays.copyOfRange(CONTENT, 500, 510), StandardCharsets.ISO_8859_1)));
+        assertTrue(text.endsWith("--" + contentType.substring(contentType.indexOf('=') + 1) + "--\r\n"));
+    }
+
+    @Test
+    void unsatisfiableRange_ShouldReturn416() throws Exception {
+        for (String range : new String[]{"bytes=1000-", "bytes=abc", "bytes=0-,0-"}) {
+            MvcResult result = mockMvc.perform(get(url).header(HttpHeaders.RANGE, range))
+                    .andExpect(status().isRequestedRangeNotSatisfiable()).andReturn();
+            assertEquals("bytes */1000", result.getResponse().getHeader(HttpHeaders.CONTENT_RANGE), range);
+        }
+    }
+
+    @Test
+    void ifRange_ShouldReturnWholeFile_WhenFileChanged() throws Exception {
+        String etag = mockMvc.perform(head(url)).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=0-9").header(HttpHeaders.IF_RANGE, etag))
+                .andExpect(status().isPartialContent());
+        MvcResult result = mockMvc.perform(get(url)
+                        .header(HttpHeaders.RANGE, "bytes=0-9")
+                        .header(HttpHeaders.IF_RANGE, "\"stale\""))
+                .andExpect(status().isOk()).andReturn();
+        assertEquals(1000, result.getResponse().getContentAsByteArray().length);
+    }
+
+    @Test
+    void sendfileSupported_ShouldHandFileToConnector() throws Exception {
+        MvcResult result = mockMvc.perform(get(url)
+                        .header(HttpHeaders.RANGE, "bytes=100-199")
+                        .requestAttr("org.apache.tomcat.sendfile.support", Boolean.TRUE))
+                .andExpect(status().isPartialContent()).andReturn();
+
+        assertEquals(0, result.getResponse().getContentAsByteArray().length);
+        assertEquals(100, result.getResponse().getContentLengthLong());
+        assertEquals(MEDIA_ROOT.resolve("clip.mp4").toAbsolutePath().normalize().toString(),
+                result.getRequest().getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(100L, result.getRequest().getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(200L, result.getRequest().getAttribute("org.apache.tomcat.sendfile.end"));
+    }
+
+    @Test
+    void hls_ShouldServePlaylistAndSegments() throws Exception {
+        MvcResult playlist = mockMvc.perform(get(hlsUrl + "master.m3u8")).andExpect(status().isOk()).andReturn();
+        assertEquals("application/vnd.apple.mpegurl", playlist.getResponse().getContentType());
+        assertEquals(MASTER_PLAYLIST, playlist.getResponse().getContentAsString());
+
+        for (int i = 0; i < 2; i++) {
+            MvcResult segment = mockMvc.perform(get(hlsUrl + "720p/seg_000.ts")).andExpect(status().isOk()).andReturn();
+            assertEquals("video/mp2t", segment.getResponse().getContentType());
+            assertArrayEquals(CONTENT, segment.getResponse().getContentAsByteArray());
+            assertEquals(1000, segment.getResponse().getContentLengthLong());
+        }
+
+        MvcResult range = mockMvc.perform(get(hlsUrl + "720p/seg_000.ts").header(HttpHeaders.RANGE, "bytes=0-9"))
+                .andExpect(status().isPartialContent()).andReturn();
+        assertArrayEquals(Arrays.copyOf(CONTENT, 10), range.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    void hls_ShouldNotServeOutsideStreamDirectory() throws Exception {
+        mockMvc.perform(get(hlsUrl + "720p/missing.ts")).andExpect(status().isNotFound());
+        // Bị StrictHttpFirewall chặn (400) trước khi tới MediaStorage
+        mockMvc.perform(get(hlsUrl + "..%2Fclip.mp4")).andExpect(status().is4xxClientError());
+    }
+
+    @Test
+    void plays_ShouldCountOnlyPlaybackStarts() throws Exception {
+        // Cursor mới bắt đầu từ 0; phim được tạo riêng cho test này nên chỉ có lượt của test này
+        MovieCounters.Cursor cursor = movieStatsService.newCursor();
+
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=0-")).andExpect(status().isPartialContent());
+        // Range dò trước khi phát, tua, HEAD, playlist con và segment không tính
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=0-1")).andExpect(status().isPartialContent());
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=0-1023")).andExpect(status().isPartialContent());
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=500-")).andExpect(status().isPartialContent());
+        mockMvc.perform(head(url)).andExpect(status().isOk());
+        mockMvc.perform(get(hlsUrl + "master.m3u8")).andExpect(status().isOk());
+        mockMvc.perform(get(hlsUrl + "720p/seg_000.ts")).andExpect(status().isOk());
+
+        assertEquals(List.of(new MovieCounters.Delta(movieId, 0, 3)),
+                cursor.deltas().stream().filter(delta -> delta.movieId().equals(movieId)).toList());
+    }
+
+    @Test
+    void missingVideo_ShouldReturn404() throws Exception {
+        Movie movie = movieRepository.save(Movie.builder().title("Không có video").build());
+        mockMvc.perform(get("/api/movies/" + movie.getId() + "/stream")).andExpect(status().isNotFound());
+
+        movie = movieRepository.save(Movie.builder().title("Thoát thư mục").videoPath("../secret.mp4").build());
+        mockMvc.perform(get("/api/movies/" + movie.getId() + "/stream")).andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.movie.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.movie.support.EmbeddedRedisInitializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest(properties = "app.admin.import.batch-size=2")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = EmbeddedRedisInitializer.class)
+@Sql(scripts = {"/sql/cleanup.sql", "/sql/insert_user.sql"})
+class UserImportIntegrationTest {
+
+    // BCrypt của "password", cost 4
+    private static final String LEGACY_HASH = "$2a$04$Wj3yJzvqH0cXZ5FNDk5Q6eZHHdlN8hHc0bZ9ZQ1d4tJ7u1Rk6xw1S";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void importNdjson_ShouldInsertRowsAndStreamConflicts() throws Exception {
+        String body = """
+                {"username":"import1","email":"import1@test.com","password":"password123"}
+                {"username":"FlowUser","email":"other@test.com","password":"password123"}
+                {"username":"import2","email":"IMPORT1@test.com","password":"password123"}
+                {"username":"import3","email":"not-an-email","password":"password123"}
+                {"username":"import4","email":"import4@test.com","passwordHash":"%s","displayName":"Cũ"}
+                """.formatted(LEGACY_HASH);
+
+        List<JsonNode> lines = importUsers("application/x-ndjson", body);
+
+        JsonNode summary = lines.get(lines.size() - 1);
+        assertEquals(5, summary.get("total").asLong());
+        assertEquals(2, summary.get("created").asLong());
+        assertEquals(2, summary.get("conflicts").asLong());
+        assertEquals(1, summary.get("invalid").asLong());
+
+        // Dòng bị loại được trả theo thứ tự xử lý: lỗi trùng trong DB chỉ biết khi lô được ghi
+        assertEquals("username", rejectedRow(lines, 2).get("field").asText());
+        assertEquals("email", rejectedRow(lines, 3).get("field").asText());
+        assertEquals("INVALID", rejectedRow(lines, 4).get("status").asText());
+
+        String hash = jdbcTemplate.queryForObject(
+                "SELECT password_hash FROM users WHERE username_normalized = 'import1'", String.class);
+        assertTrue(passwordEncoder.matches("password123", hash));
+        assertEquals("{bcrypt}" + LEGACY_HASH, jdbcTemplate.queryForObject(
+                "SELECT password_hash FROM users WHERE username_normalized = 'import4'", String.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void importCsv_ShouldReadHeaderAndEmptyCells() throws Exception {
+        String body = """
+                username,email,password,passwordHash,displayName
+                csv1,csv1@test.com,password123,,
+                csv2,csv2@test.com,,%s,CSV Hai
+                """.formatted(LEGACY_HASH);
+
+        List<JsonNode> lines = importUsers("text/csv", body);
+
+        assertEquals(1, lines.size());
+        assertEquals(2, lines.get(0).get("created").asLong());
+        assertEquals("CSV Hai", jdbcTemplate.queryForObject(
+                "SELECT display_name FROM users WHERE username_normalized = 'csv2'", String.class));
+    }
+
+    @Test
+    @WithMockUser
+    void import_ShouldBeForbidden_ForNonAdmin() throws Exception {
+        mockMvc.perform(post("/api/admin/users/import")
+                        .contentType("application/x-ndjson")
+                        .content("{}"))
+               .andExpect(status().isForbidden());
+    }
+
+    private JsonNode rejectedRow(List<JsonNode> lines, long row) {
+        return lines.stream()
+                .filter(line -> line.path("row").asLong() == row)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private List<JsonNode> importUsers(String contentType, String body) throws Exception {
+        String response = mockMvc.perform(post("/api/admin/users/import")
+                        .contentType(contentType)
+                        .content(body.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : response.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.movie.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.movie.support.EmbeddedRedisInitializer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * Chạy luồng register -> login -> /me -> logout với Tomcat trên virtual thread
+ * và dùng JFR để bảo đảm không có chỗ nào giữ chặt carrier thread (synchronized quanh I/O).
+ * Bỏ qua các lần pin bên trong H2 vì H2 chỉ dùng cho test.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=true"
+)
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = EmbeddedRedisInitializer.class)
+@Sql(scripts = "/sql/cleanup.sql")
+class VirtualThreadPinningTest {
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void authFlow_ShouldNotPinCarrierThreads() throws Exception {
+        List<RecordedEvent> pinned = new CopyOnWriteArrayList<>();
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", pinned::add);
+            recording.startAsync();
+
+            assertEquals(201, send(post("/api/auth/register",
+                    "{\"username\":\"vtuser\",\"email\":\"vt@test.com\",\"password\":\"password123\"}", null)).statusCode());
+            HttpResponse<String> login = send(post("/api/auth/login",
+                    "{\"username\":\"vtuser\",\"password\":\"password123\"}", null));
+            assertEquals(200, login.statusCode());
+            String cookie = login.headers().firstValue("Set-Cookie").orElseThrow().split(";", 2)[0];
+            for (int i = 0; i < 5; i++) {
+                assertEquals(200, send(request("/api/auth/me", cookie).GET().build()).statusCode());
+            }
+            assertEquals(200, send(post("/api/auth/logout", "", cookie)).statusCode());
+
+            recording.stop();
+        }
+
+        List<RecordedEvent> applicationPins = pinned.stream()
+                .filter(event -> event.getStackTrace() != null)
+                .filter(event -> event.getStackTrace().getFrames().stream()
+                        .noneMatch(frame -> frame.getMethod().getType().getName().startsWith("org.h2.")))
+                .toList();
+        assertTrue(applicationPins.isEmpty(), () -> applicationPins.stream()
+                .map(event -> event.getStackTrace().getFrames().stream()
+                        .limit(15)
+                        .map(RecordedFrame::toString)
+                        .collect(Collectors.joining("\n  ")))
+                .collect(Collectors.joining("\n---\n")));
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest post(String path, String json, String cookie) {
+        return request(path, cookie)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, String cookie) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (cookie != null) {
+            builder.header("Cookie", cookie);
+        }
+        return builder;
+    }
+}
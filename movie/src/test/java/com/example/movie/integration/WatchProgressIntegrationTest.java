@@ -0,0 +1,299 @@
+package com.example.movie.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.movie.models.Movie;
+import com.example.movie.repositories.MovieRepository;
+import com.example.movie.repositories.WatchProgressRepository;
+import com.example.movie.services.movie.WatchProgressService;
+import com.example.movie.support.EmbeddedRedisInitializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.session.data.redis.RedisSessionRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+// Near-cache session ngắn để touch từ frame STOMP tới Redis nhanh (xem heartbeats_ShouldKeepSessionAlive)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.session.near-cache.ttl=200ms",
+        "app.session.near-cache.touch-flush-interval=200ms",
+        // Namespace khác mặc định: touch phải ghi vào đúng key mà RedisSessionRepository đọc
+        "spring.session.redis.namespace=test:session",
+        // Test tự gọi flush(); flush theo lịch chen giữa sẽ làm sai số phim đang chờ
+        "app.movies.progress.flush-interval=1h",
+        "app.movies.progress.max-pending-per-user=3"
+})
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = EmbeddedRedisInitializer.class)
+@Sql(scripts = "/sql/cleanup.sql")
+class WatchProgressIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private WatchProgressRepository watchProgressRepository;
+
+    @Autowired
+    private WatchProgressService watchProgressService;
+
+    @Autowired
+    private SessionRepository<? extends Session> sessionRepository;
+
+    @Autowired
+    private RedisSessionRepository redisSessionRepository;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private WebSocketStompClient stompClient;
+    private String cookie;
+
+    @BeforeEach
+    void login() throws Exception {
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        stompClient.setMessageConverter(converter);
+
+        String username = "viewer" + UUID.randomUUID().toString().substring(0, 8);
+        assertEquals(201, send(post("/api/auth/register", """
+                {"username":"%s","email":"%s@test.com","password":"password123"}""".formatted(username, username), null)).statusCode());
+        HttpResponse<String> login = send(post("/api/auth/login", """
+                {"username":"%s","password":"password123"}""".formatted(username), null));
+        assertEquals(200, login.statusCode());
+        cookie = login.headers().firstValue("Set-Cookie").orElseThrow().split(";", 2)[0];
+    }
+
+    @Test
+    void heartbeats_ShouldBeCoalesced_AndBackContinueWatching() throws Exception {
+        UUID watching = movieRepository.save(Movie.builder().title("Đang xem").build()).getId();
+        UUID finished = movieRepository.save(Movie.builder().title("Đã xem xong").build()).getId();
+
+        StompSession session = connect(cookie);
+        // Frame được xử lý song song trên clientInboundChannel nên gửi cách nhau như player thật
+        // (heartbeat vài giây một lần), nếu không vị trí 20 có thể được xử lý sau 30
+        for (int position : new int[]{10, 20, 30}) {
+            session.send("/app/progress", Map.of("movieId", watching, "positionSeconds", position, "durationSeconds", 6000));
+            Thread.sleep(100);
+        }
+        session.send("/app/progress", Map.of("movieId", finished, "positionSeconds", 5900, "durationSeconds", 6000));
+
+        JsonNode items = awaitContinueWatching(nodes -> nodes.size() == 1 && nodes.get(0).get("positionSeconds").asInt() == 30);
+        assertEquals(watching.toString(), items.get(0).get("movieId").asText());
+        assertEquals("Đang xem", items.get(0).get("title").asText());
+        session.disconnect();
+    }
+
+    @Test
+    void upsert_ShouldNotOverwriteNewerProgress() throws Exception {
+        UUID movieId = movieRepository.save(Movie.builder().title("Hai thiết bị").build()).getId();
+        UUID userId = UUID.fromString(objectMapper.readTree(send(get("/api/auth/me", cookie)).body()).get("id").asText());
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        watchProgressRepository.upsert(List.of(new WatchProgressRepository.Row(userId, movieId, 300, null, now)), 10);
+        watchProgressRepository.upsert(List.of(new WatchProgressRepository.Row(userId, movieId, 100, null, now.minusMinutes(1))), 10);
+
+        JsonNode items = objectMapper.readTree(send(get("/api/movies/continue-watching", cookie)).body());
+        assertEquals(300, items.get(0).get("positionSeconds").asInt());
+    }
+
+    @Test
+    void invalidHeartbeat_ShouldReportErrorToSender() throws Exception {
+        StompSession session = connect(cookie);
+        BlockingQueue<Map<?, ?>> errors = subscribeErrors(session);
+
+        session.send("/app/progress", Map.of("positionSeconds", -5));
+        Map<?, ?> error = errors.poll(5, TimeUnit.SECONDS);
+        assertNotNull(error);
+        assertEquals(400, error.get("status"));
+        assertTrue(((Map<?, ?>) error.get("errors")).containsKey("movieId"));
+        session.disconnect();
+    }
+
+    @Test
+    void heartbeats_ShouldBeRejected_ForUnknownMovieAndPendingLimit() throws Exception {
+        StompSession session = connect(cookie);
+        BlockingQueue<Map<?, ?>> errors = subscribeErrors(session);
+
+        session.send("/app/progress", Map.of("movieId", UUID.randomUUID(), "positionSeconds", 1));
+        Map<?, ?> error = errors.poll(5, TimeUnit.SECONDS);
+        assertNotNull(error);
+        assertEquals(404, error.get("status"));
+
+        // Tối đa 3 phim chờ flush cho mỗi user (properties của test): phim thứ 4 bị từ chối
+        for (int i = 0; i < 4; i++) {
+            UUID movieId = movieRepository.save(Movie.builder().title("Phim " + i).build()).getId();
+            session.send("/app/progress", Map.of("movieId", movieId, "positionSeconds", 10));
+        }
+        error = errors.poll(5, TimeUnit.SECONDS);
+        assertNotNull(error);
+        assertEquals(429, error.get("status"));
+        assertNull(errors.poll(500, TimeUnit.MILLISECONDS));
+
+        watchProgressService.flush();
+        assertEquals(3, objectMapper.readTree(send(get("/api/movies/continue-watching", cookie)).body()).size());
+        session.disconnect();
+    }
+
+    @Test
+    void upsert_ShouldSkipDeletedMovies() throws Exception {
+        UUID kept = movieRepository.save(Movie.builder().title("Còn").build()).getId();
+        UUID deleted = movieRepository.save(Movie.builder().title("Đã xóa").build()).getId();
+        UUID userId = UUID.fromString(objectMapper.readTree(send(get("/api/auth/me", cookie)).body()).get("id").asText());
+        movieRepository.deleteById(deleted);
+
+        // Phim bị xóa giữa lúc nhận heartbeat và lúc flush: không vi phạm khóa ngoại, các dòng khác vẫn được ghi
+        LocalDateTime now = LocalDateTime.now();
+        watchProgressRepository.upsert(List.of(
+                new WatchProgressRepository.Row(userId, deleted, 10, null, now),
+                new WatchProgressRepository.Row(userId, kept, 20, null, now)), 10);
+
+        JsonNode items = objectMapper.readTree(send(get("/api/movies/continue-watching", cookie)).body());
+        assertEquals(1, items.size());
+        assertEquals(kept.toString(), items.get(0).get("movieId").asText());
+    }
+
+    @Test
+    void connection_ShouldRequireLiveSession() throws Exception {
+        assertThrows(ExecutionException.class, () -> connect(null));
+
+        StompSession session = connect(cookie);
+        assertEquals(200, send(post("/api/auth/logout", "", cookie)).statusCode());
+        session.send("/app/progress", Map.of("movieId", UUID.randomUUID(), "positionSeconds", 1));
+        // Server trả frame ERROR rồi đóng kết nối
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (session.isConnected() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertFalse(session.isConnected());
+    }
+
+    @Test
+    void heartbeats_ShouldKeepSessionAlive() throws Exception {
+        UUID movieId = movieRepository.save(Movie.builder().title("Phim dài").build()).getId();
+        String sessionId = new String(Base64.getDecoder().decode(cookie.split("=", 2)[1]), StandardCharsets.UTF_8);
+        setMaxInactiveInterval(sessionRepository, sessionId, Duration.ofSeconds(2));
+
+        // Chỉ có frame STOMP, không có request HTTP nào, trong gấp đôi thời gian chờ của session
+        StompSession session = connect(cookie);
+        for (int position = 0; position < 16; position++) {
+            session.send("/app/progress", Map.of("movieId", movieId, "positionSeconds", position));
+            Thread.sleep(250);
+        }
+
+        assertTrue(session.isConnected());
+        // Đọc thẳng Redis, không qua near-cache
+        assertNotNull(redisSessionRepository.findById(sessionId));
+        session.disconnect();
+    }
+
+    private static <S extends Session> void setMaxInactiveInterval(SessionRepository<S> repository, String id, Duration interval) {
+        S session = repository.findById(id);
+        session.setMaxInactiveInterval(interval);
+        repository.save(session);
+    }
+
+    private JsonNode awaitContinueWatching(Predicate<JsonNode> done) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        JsonNode items;
+        do {
+            watchProgressService.flush();
+            items = objectMapper.readTree(send(get("/api/movies/continue-watching", cookie)).body());
+            if (done.test(items)) {
+                return items;
+            }
+            Thread.sleep(50);
+        } while (System.nanoTime() < deadline);
+        fail("continue-watching: " + items);
+        return items;
+    }
+
+    private BlockingQueue<Map<?, ?>> subscribeErrors(StompSession session) throws InterruptedException {
+        BlockingQueue<Map<?, ?>> errors = new LinkedBlockingQueue<>();
+        session.subscribe("/user/queue/errors", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                errors.add((Map<?, ?>) payload);
+            }
+        });
+        // Frame inbound được xử lý trên thread pool: chờ SUBSCRIBE đăng ký xong trước khi gửi
+        Thread.sleep(200);
+        return errors;
+    }
+
+    private StompSession connect(String sessionCookie) throws Exception {
+        WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+        if (sessionCookie != null) {
+            headers.add("Cookie", sessionCookie);
+        }
+        return stompClient.connectAsync("ws://localhost:" + port + "/ws", headers, new StompSessionHandlerAdapter() {
+        }).get(5, TimeUnit.SECONDS);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest get(String path, String sessionCookie) {
+        return request(path, sessionCookie).GET().build();
+    }
+
+    private HttpRequest post(String path, String json, String sessionCookie) {
+        return request(path, sessionCookie)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, String sessionCookie) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (sessionCookie != null) {
+            builder.header("Cookie", sessionCookie);
+        }
+        return builder;
+    }
+}
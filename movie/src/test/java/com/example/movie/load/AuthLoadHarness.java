@@ -0,0 +1,191 @@
+package com.example.movie.load;
+
+import com.example.movie.MovieApplication;
+import com.example.movie.support.EmbeddedRedisInitializer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Load test end-to-end cho luồng auth.
+ *
+ * Khởi động MovieApplication với profile test (H2 + Redis giả lập như AuthIntegrationTest) trên cổng ngẫu nhiên,
+ * hoặc bắn vào --base-url có sẵn. Mỗi virtual user đăng ký một tài khoản, dùng nó cho --sessions-per-user phiên
+ * (login -> /me --me-per-session lần -> logout) rồi đăng ký tài khoản mới. Chỉ số của giai đoạn warmup bị bỏ qua.
+ *
+ * Chạy: ./mvnw -Pload test-compile exec:exec -Dload.args="--users=50 --warmup=10s --duration=60s"
+ */
+public class AuthLoadHarness {
+
+    static final String REGISTER = "register";
+    static final String LOGIN = "login";
+    static final String ME = "me";
+    static final String LOGOUT = "logout";
+
+    private static final String PASSWORD = "password123";
+
+    private final LoadOptions options;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private volatile LoadReport active;
+    private volatile boolean running = true;
+    private String baseUrl;
+
+    public AuthLoadHarness(LoadOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // devtools sẽ chạy lại main() ở thread khác và làm mất tham số của harness. Đặt ở đây (JVM riêng của -Pload)
+        // chứ không phải trong run(): devtools chỉ đọc system property, và trong JVM chạy test nó đã tự tắt
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        LoadOptions options = LoadOptions.parse(args);
+        LoadReport report = new AuthLoadHarness(options).run();
+        report.print(System.out);
+        if (options.out() != null) {
+            report.write(options.out());
+            System.out.println("result: " + options.out().toAbsolutePath());
+        }
+        System.exit(0);
+    }
+
+    public LoadReport run() throws InterruptedException {
+        ConfigurableApplicationContext application = null;
+        if (options.baseUrl() == null) {
+            application = startApplication();
+            baseUrl = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+        } else {
+            baseUrl = options.baseUrl();
+        }
+
+        try {
+            return drive();
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext startApplication() {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        // DB riêng để không đụng vào H2 của các context test khác trong cùng JVM
+        properties.put("spring.datasource.url", "jdbc:h2:mem:loaddb;DB_CLOSE_DELAY=-1");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("logging.level.root", "WARN");
+        // Mọi virtual user đến từ cùng một IP và đăng nhập lặp lại: bỏ giới hạn đăng nhập khi đo năng lực
+        properties.put("app.auth.rate-limit.enabled", "false");
+        properties.putAll(options.applicationProperties());
+
+        // Truyền như tham số dòng lệnh để ghi đè được application-test.yml
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(MovieApplication.class)
+                .profiles("test")
+                .initializers(new EmbeddedRedisInitializer())
+                .run(args);
+    }
+
+    private LoadReport drive() throws InterruptedException {
+        List<String> endpoints = List.of(REGISTER, LOGIN, ME, LOGOUT);
+        active = new LoadReport(endpoints);
+
+        List<Thread> users = new ArrayList<>();
+        for (int i = 0; i < options.users(); i++) {
+            int user = i;
+            // Virtual thread để chạy được hàng nghìn user mà không tốn thread hệ điều hành
+            users.add(Thread.ofVirtual().name("load-user-" + i).start(() -> virtualUser(user)));
+        }
+
+        Thread.sleep(options.warmup().toMillis());
+        LoadReport measured = new LoadReport(endpoints);
+        long start = System.nanoTime();
+        active = measured;
+        Thread.sleep(options.duration().toMillis());
+        running = false;
+        measured.setElapsed(Duration.ofNanos(System.nanoTime() - start));
+
+        for (Thread user : users) {
+            user.join(Duration.ofSeconds(10).toMillis());
+        }
+        return measured;
+    }
+
+    private void virtualUser(int user) {
+        int account = 0;
+        while (running) {
+            String username = "load" + user + "x" + account++ + "x" + Long.toString(System.nanoTime(), 36);
+            String registerBody = """
+                    {"username":"%s","email":"%s@load.test","password":"%s"}""".formatted(username, username, PASSWORD);
+            if (send(REGISTER, post("/api/auth/register", registerBody, null)).isEmpty()) {
+                continue;
+            }
+            String loginBody = """
+                    {"username":"%s","password":"%s"}""".formatted(username, PASSWORD);
+
+            for (int session = 0; session < options.sessionsPerUser() && running; session++) {
+                Optional<String> cookie = send(LOGIN, post("/api/auth/login", loginBody, null))
+                        .flatMap(response -> response.headers().firstValue("Set-Cookie"))
+                        .map(header -> header.split(";", 2)[0]);
+                if (cookie.isEmpty()) {
+                    continue;
+                }
+                for (int i = 0; i < options.meRequestsPerSession() && running; i++) {
+                    send(ME, request("/api/auth/me", cookie.get()).GET().build());
+                }
+                send(LOGOUT, post("/api/auth/logout", "", cookie.get()));
+            }
+        }
+    }
+
+    /**
+     * Gửi request, ghi nhận độ trễ; trả về response nếu thành công (2xx)
+     */
+    private Optional<HttpResponse<Void>> send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            boolean success = response.statusCode() / 100 == 2;
+            active.record(endpoint, System.nanoTime() - start, success);
+            return success ? Optional.of(response) : Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+            return Optional.empty();
+        } catch (Exception e) {
+            active.record(endpoint, System.nanoTime() - start, false);
+            return Optional.empty();
+        }
+    }
+
+    private HttpRequest post(String path, String json, String cookie) {
+        return request(path, cookie)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, String cookie) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+        if (cookie != null) {
+            builder.header("Cookie", cookie);
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.movie.load;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Chạy harness thật ngắn để bảo đảm nó không bị hỏng theo thời gian.
+ * Kết quả phụ thuộc tốc độ máy trong một cửa sổ thời gian nên không nằm trong lần chạy test mặc định: ./mvnw -Pload test
+ */
+@Tag("load")
+class AuthLoadHarnessTest {
+
+    @Test
+    void run_ShouldDriveEveryEndpointWithoutErrors() throws Exception {
+        LoadOptions options = LoadOptions.parse("--users=2", "--warmup=0s", "--duration=2s", "--me-per-session=2",
+                "--sessions-per-user=2");
+
+        LoadReport report = new AuthLoadHarness(options).run();
+
+        for (String endpoint : List.of(
+                AuthLoadHarness.REGISTER, AuthLoadHarness.LOGIN, AuthLoadHarness.ME, AuthLoadHarness.LOGOUT)) {
+            assertTrue(report.count(endpoint) > 0, endpoint);
+            assertEquals(0, report.errors(endpoint), endpoint);
+        }
+    }
+}
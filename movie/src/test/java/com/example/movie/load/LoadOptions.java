@@ -0,0 +1,54 @@
+package com.example.movie.load;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tham số của load harness, dạng --key=value.
+ * Các key không thuộc harness (vd. --app.security.bcrypt.strength=10) được chuyển thành property của ứng dụng nhúng.
+ */
+public record LoadOptions(
+        int users,
+        Duration warmup,
+        Duration duration,
+        int meRequestsPerSession,
+        int sessionsPerUser,
+        String baseUrl,
+        Path out,
+        Map<String, String> applicationProperties
+) {
+
+    public static LoadOptions parse(String... args) {
+        int users = 20;
+        Duration warmup = Duration.ofSeconds(10);
+        Duration duration = Duration.ofSeconds(30);
+        int meRequestsPerSession = 5;
+        int sessionsPerUser = 10;
+        String baseUrl = null;
+        Path out = null;
+        Map<String, String> applicationProperties = new LinkedHashMap<>();
+
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (key) {
+                case "users" -> users = Integer.parseInt(value);
+                case "warmup" -> warmup = DurationStyle.detectAndParse(value);
+                case "duration" -> duration = DurationStyle.detectAndParse(value);
+                case "me-per-session" -> meRequestsPerSession = Integer.parseInt(value);
+                case "sessions-per-user" -> sessionsPerUser = Integer.parseInt(value);
+                case "base-url" -> baseUrl = value;
+                case "out" -> out = Path.of(value);
+                default -> applicationProperties.put(key, value);
+            }
+        }
+        return new LoadOptions(users, warmup, duration, meRequestsPerSession, sessionsPerUser, baseUrl, out, applicationProperties);
+    }
+}
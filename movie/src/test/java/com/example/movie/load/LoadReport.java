@@ -0,0 +1,107 @@
+package com.example.movie.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thống kê theo endpoint: throughput, số lỗi và phân vị độ trễ (HdrHistogram, độ phân giải micro giây)
+ */
+public class LoadReport {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+    private volatile Duration elapsed = Duration.ZERO;
+
+    public LoadReport(List<String> endpointNames) {
+        for (String name : endpointNames) {
+            endpoints.put(name, new Endpoint());
+        }
+    }
+
+    public void record(String endpoint, long latencyNanos, boolean success) {
+        Endpoint stats = endpoints.get(endpoint);
+        stats.latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+        if (!success) {
+            stats.errors.increment();
+        }
+    }
+
+    void setElapsed(Duration elapsed) {
+        this.elapsed = elapsed;
+    }
+
+    public long count(String endpoint) {
+        return endpoints.get(endpoint).latency.getTotalCount();
+    }
+
+    public long errors(String endpoint) {
+        return endpoints.get(endpoint).errors.sum();
+    }
+
+    public double throughput(String endpoint) {
+        double seconds = elapsed.toNanos() / 1e9;
+        return seconds == 0 ? 0 : count(endpoint) / seconds;
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%n%-10s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        endpoints.forEach((name, stats) -> {
+            Histogram histogram = stats.latency;
+            out.printf("%-10s %10d %8d %10.1f", name, histogram.getTotalCount(), stats.errors.sum(), throughput(name));
+            for (double percentile : PERCENTILES) {
+                out.printf(" %9.2f", histogram.getValueAtPercentile(percentile) / 1000.0);
+            }
+            out.printf(" %9.2f%n", histogram.getMaxValue() / 1000.0);
+        });
+        out.printf("elapsed: %.1fs%n", elapsed.toMillis() / 1000.0);
+    }
+
+    /**
+     * Ghi kết quả dạng JSON để so sánh giữa các lần chạy / commit
+     */
+    public void write(Path file) throws IOException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("elapsedSeconds", elapsed.toMillis() / 1000.0);
+        Map<String, Object> perEndpoint = new LinkedHashMap<>();
+        endpoints.forEach((name, stats) -> {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("requests", stats.latency.getTotalCount());
+            values.put("errors", stats.errors.sum());
+            values.put("throughput", throughput(name));
+            Map<String, Double> percentiles = new LinkedHashMap<>();
+            for (double percentile : PERCENTILES) {
+                percentiles.put("p" + percentile, stats.latency.getValueAtPercentile(percentile) / 1000.0);
+            }
+            percentiles.put("max", stats.latency.getMaxValue() / 1000.0);
+            values.put("latencyMs", percentiles);
+            perEndpoint.put(name, values);
+        });
+        result.put("endpoints", perEndpoint);
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), result);
+    }
+
+    private static final class Endpoint {
+        private final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+}
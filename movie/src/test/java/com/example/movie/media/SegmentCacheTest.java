@@ -0,0 +1,144 @@
+package com.example.movie.media;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class SegmentCacheTest {
+
+    @TempDir
+    Path root;
+
+    private MeterRegistry registry;
+    private SegmentCache cache;
+    private MediaStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        // 256KB off-heap, block 4KB, segment tối đa 32KB
+        cache = new SegmentCache(registry, DataSize.ofKilobytes(256), DataSize.ofKilobytes(32),
+                DataSize.ofKilobytes(4), DataSize.ofKilobytes(64));
+        storage = new MediaStorage(root);
+    }
+
+    @Test
+    void open_ShouldReadOnce_ThenServeFromOffHeap() throws Exception {
+        byte[] content = bytes(10_000, 1);
+        VideoFile file = write("seg_001.ts", content);
+
+        assertArrayEquals(content, read(file));
+        assertArrayEquals(content, read(file));
+
+        assertEquals(1, gets("miss"));
+        assertEquals(1, gets("hit"));
+        assertEquals(12 * 1024, registry.get("media.segment-cache.off-heap.used").gauge().value());
+    }
+
+    @Test
+    void open_ShouldSingleFlightConcurrentMisses() throws Exception {
+        byte[] content = bytes(30_000, 2);
+        VideoFile file = write("seg_002.ts", content);
+
+        int readers = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(readers)) {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < readers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return read(file);
+                }));
+            }
+            start.countDown();
+            for (Future<byte[]> result : results) {
+                assertArrayEquals(content, result.get());
+            }
+        }
+
+        assertEquals(1, gets("miss"));
+        assertEquals(readers - 1, gets("hit"));
+    }
+
+    @Test
+    void open_ShouldStayWithinCapacity_AndKeepEvictedSegmentReadable() throws Exception {
+        byte[] first = bytes(32 * 1024, 3);
+        VideoFile firstFile = write("seg_first.ts", first);
+        CachedSegment held = cache.open(firstFile);
+        assertNotNull(held);
+
+        // Gấp nhiều lần capacity: segment đầu bị loại nhưng block của nó chưa được cấp lại khi còn người giữ
+        for (int i = 0; i < 40; i++) {
+            VideoFile file = write("seg_" + i + ".ts", bytes(32 * 1024, 10 + i));
+            assertArrayEquals(bytes(32 * 1024, 10 + i), read(file));
+        }
+        double used = registry.get("media.segment-cache.off-heap.used").gauge().value();
+        assertTrue(used <= 256 * 1024, "used " + used);
+        assertTrue(registry.get("cache.evictions").functionCounter().count() > 0);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        held.writeTo(Channels.newChannel(out));
+        held.release();
+        assertArrayEquals(first, out.toByteArray());
+    }
+
+    @Test
+    void open_ShouldBypassLargeFiles_AndReloadChangedFiles() throws Exception {
+        assertNull(cache.open(write("big.ts", bytes(64 * 1024, 4))));
+
+        VideoFile original = write("index.m3u8", bytes(100, 5));
+        assertArrayEquals(bytes(100, 5), read(original));
+        Path path = original.path();
+        Files.write(path, bytes(100, 6));
+        Files.setLastModifiedTime(path, FileTime.from(Instant.now().plusSeconds(60)));
+        assertArrayEquals(bytes(100, 6), read(storage.resolve("index.m3u8")));
+    }
+
+    private byte[] read(VideoFile file) throws IOException {
+        CachedSegment segment = cache.open(file);
+        assertNotNull(segment);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            segment.writeTo(Channels.newChannel(out));
+            return out.toByteArray();
+        } finally {
+            segment.release();
+        }
+    }
+
+    private VideoFile write(String name, byte[] content) throws IOException {
+        Files.write(root.resolve(name), content);
+        return storage.resolve(name);
+    }
+
+    private double gets(String result) {
+        return registry.get("cache.gets").tag("result", result).functionCounter().count();
+    }
+
+    private static byte[] bytes(int length, int seed) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (i * 31 + seed);
+        }
+        return bytes;
+    }
+}
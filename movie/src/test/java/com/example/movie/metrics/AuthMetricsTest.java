@@ -0,0 +1,51 @@
+package com.example.movie.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.movie.metrics.AuthMetrics.Operation;
+import com.example.movie.metrics.AuthMetrics.Outcome;
+import com.example.movie.metrics.AuthMetrics.Phase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+class AuthMetricsTest {
+
+    @Test
+    void record_ShouldUsePreRegisteredTimers_WhenEnabled() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AuthMetrics metrics = new AuthMetrics(registry, true);
+
+        metrics.record(Operation.LOGIN, Outcome.BAD_CREDENTIALS, metrics.start());
+        metrics.recordPhase(Operation.REGISTER, Phase.BCRYPT, metrics.start());
+
+        assertEquals(1, registry.get("auth.requests")
+                .tags("operation", "login", "outcome", "bad_credentials").timer().count());
+        assertEquals(1, registry.get("auth.phase")
+                .tags("operation", "register", "phase", "bcrypt").timer().count());
+    }
+
+    @Test
+    void record_ShouldFallBackToError_WhenOutcomeDoesNotApply() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AuthMetrics metrics = new AuthMetrics(registry, true);
+
+        metrics.record(Operation.CURRENT_USER, Outcome.DUPLICATE, metrics.start());
+
+        assertNull(registry.find("auth.requests").tags("operation", "current_user", "outcome", "duplicate").timer());
+        assertEquals(1, registry.get("auth.requests")
+                .tags("operation", "current_user", "outcome", "error").timer().count());
+    }
+
+    @Test
+    void record_ShouldRegisterNothing_WhenDisabled() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AuthMetrics metrics = new AuthMetrics(registry, false);
+
+        long start = metrics.start();
+        metrics.record(Operation.REGISTER, Outcome.SUCCESS, start);
+        metrics.recordPhase(Operation.REGISTER, Phase.REPOSITORY, start);
+
+        assertEquals(0, start);
+        assertTrue(registry.getMeters().isEmpty());
+    }
+}
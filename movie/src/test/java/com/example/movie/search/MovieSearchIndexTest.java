@@ -0,0 +1,114 @@
+package com.example.movie.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+class MovieSearchIndexTest {
+
+    private final MovieSearchIndex index = new MovieSearchIndex(2);
+
+    @Test
+    void fold_ShouldStripVietnameseDiacritics() {
+        assertEquals(List.of("bo", "gia", "phan", "2"), TextFolding.tokens("Bố Già: Phần 2"));
+        assertEquals(List.of("dat", "rung", "phuong", "nam"), TextFolding.tokens("Đất Rừng Phương Nam"));
+    }
+
+    @Test
+    void search_ShouldMatchAllTermsWithoutDiacritics_AndRankShorterTitlesFirst() {
+        IndexedMovie godfather = movie("Bố Già", "The Godfather", 10);
+        IndexedMovie sequel = movie("Bố Già Phần 2", "The Godfather Part II", 10);
+        index.put(movie("Già Làng", null, 1000));
+        index.put(sequel);
+        index.put(godfather);
+
+        assertEquals(List.of(godfather, sequel), index.search("bo gia", 10));
+        assertEquals(List.of(sequel), index.search("godfather part", 10));
+        assertEquals(List.of(), index.search("bo gia 3", 10));
+    }
+
+    @Test
+    void suggest_ShouldCompleteLastWordByPopularity() {
+        IndexedMovie popular = movie("Mắt Biếc", null, 500);
+        IndexedMovie other = movie("Mai", null, 100);
+        IndexedMovie least = movie("Lật Mặt", null, 1);
+        index.put(other);
+        index.put(popular);
+        index.put(least);
+
+        assertEquals(List.of(popular, other, least), index.suggest("m", 10));
+        assertEquals(List.of(popular, other), index.suggest("m", 2));
+        assertEquals(List.of(popular), index.suggest("mat bi", 10));
+    }
+
+    @Test
+    void suggest_ShouldScanSubtree_WhenPrecomputedTopIsStale() {
+        IndexedMovie a = movie("Hai Phượng", null, 300);
+        IndexedMovie b = movie("Hạnh Phúc", null, 200);
+        IndexedMovie c = movie("Hoa Hồng", null, 100);
+        index.put(a);
+        index.put(b);
+        index.put(c);
+        index.remove(a.id());
+        index.remove(b.id());
+
+        // Top của prefix "h" chỉ giữ 2 doc (a, b) và cả hai đã bị xóa
+        assertEquals(List.of(c), index.suggest("h", 10));
+    }
+
+    @Test
+    void put_ShouldReplaceOlderVersion_AndIgnoreStaleOrRemovedOnes() {
+        UUID id = UUID.randomUUID();
+        index.put(new IndexedMovie(id, "Tên Cũ", null, 2020, 0, 1));
+        index.put(new IndexedMovie(id, "Tên Mới", null, 2020, 0, 2));
+        index.put(new IndexedMovie(id, "Tên Cũ", null, 2020, 0, 1));
+
+        assertEquals(List.of(), index.search("cu", 10));
+        assertEquals(1, index.search("moi", 10).size());
+        assertEquals(1, index.size());
+        assertEquals(1, index.deadCount());
+
+        index.remove(id);
+        index.put(new IndexedMovie(id, "Tên Mới", null, 2020, 0, 3));
+        assertEquals(List.of(), index.search("moi", 10));
+    }
+
+    @Test
+    void load_ShouldRankLikeUnorderedInserts() {
+        String[] words = {"Người", "Của", "Tình", "Yêu", "Mùa", "Hè", "Đêm", "Nam"};
+        SplittableRandom random = new SplittableRandom(7);
+        List<IndexedMovie> movies = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder title = new StringBuilder();
+            for (int w = 1 + random.nextInt(5); w > 0; w--) {
+                title.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            // Độ phổ biến khác nhau để không có hai kết quả bằng điểm
+            movies.add(new IndexedMovie(UUID.randomUUID(), title.toString(), null, 2020, i, 1));
+        }
+        Collections.shuffle(movies, new Random(7));
+
+        MovieSearchIndex loaded = new MovieSearchIndex(16);
+        loaded.put(movies.get(0));
+        loaded.load(movies.subList(1, 4900));
+        movies.subList(4900, 5000).forEach(loaded::put);
+        MovieSearchIndex inserted = new MovieSearchIndex(16);
+        movies.forEach(inserted::put);
+
+        for (String query : List.of("nguoi", "tinh yeu", "mua he dem", "nam nguoi cua", "yeu nguoi")) {
+            assertEquals(inserted.search(query, 10), loaded.search(query, 10), query);
+            assertEquals(inserted.suggest(query + " m", 10), loaded.suggest(query + " m", 10), query);
+        }
+    }
+
+    private static IndexedMovie movie(String title, String originalTitle, long popularity) {
+        return new IndexedMovie(UUID.randomUUID(), title, originalTitle, 2020, popularity, 1);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.movie.security.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.movie.exception.TooManyRequestsException;
+import com.example.movie.support.EmbeddedRedisInitializer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = EmbeddedRedisInitializer.class)
+@Sql(scripts = {"/sql/cleanup.sql", "/sql/insert_user.sql"})
+class LoginRateLimiterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Test
+    void login_ShouldReturn429WithRetryAfter_WhenUsernameBudgetExhausted() throws Exception {
+        String body = "{\"username\":\"limituser\",\"password\":\"wrong-password\"}";
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(body))
+                   .andExpect(status().isUnauthorized());
+        }
+
+        mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(body))
+               .andExpect(status().isTooManyRequests())
+               .andExpect(header().exists("Retry-After"));
+
+        // Người dùng thật ở IP khác không bị khóa theo
+        mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(body)
+                       .with(request -> {
+                           request.setRemoteAddr("10.0.0.2");
+                           return request;
+                       }))
+               .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void sync_ShouldShareBudgetAcrossNodes() {
+        LoginRateLimiter nodeA = limiter("test:ratelimit:share:");
+        LoginRateLimiter nodeB = limiter("test:ratelimit:share:");
+
+        nodeB.check("shared", null);
+        for (int i = 0; i < 2; i++) {
+            nodeA.check("shared", null);
+        }
+        nodeA.sync();
+        nodeB.sync();
+
+        // node B mới tiêu 1 lượt nhưng cả cụm đã tiêu hết 3
+        assertThrows(TooManyRequestsException.class, () -> nodeB.check("shared", null));
+    }
+
+    @Test
+    void sync_ShouldOnlySendKeysWithNewAttempts() {
+        LoginRateLimiter limiter = limiter("test:ratelimit:dirty:");
+
+        limiter.check("dirty", "10.0.0.3");
+        assertEquals(2, limiter.dirtyKeys());
+
+        limiter.sync();
+        assertEquals(0, limiter.dirtyKeys());
+        assertNotNull(redisTemplate.opsForValue().get("test:ratelimit:dirty:username:dirty@10.0.0.3"));
+
+        // Không có lượt thử mới thì lần đồng bộ sau không gửi gì
+        limiter.sync();
+        assertEquals(0, limiter.dirtyKeys());
+    }
+
+    private LoginRateLimiter limiter(String keyPrefix) {
+        return new LoginRateLimiter(redisTemplate, new SimpleMeterRegistry(), true, keyPrefix,
+                3, Duration.ofMinutes(1), 100, Duration.ofMinutes(1), 1000, Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.movie.security.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    private static final long INTERVAL = 1_000;
+    private static final long CAPACITY = 3;
+
+    @Test
+    void tryAcquire_ShouldAllowBurstUpToCapacityThenReject() {
+        TokenBucket bucket = new TokenBucket();
+        long now = 1_000_000;
+
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals(0, bucket.tryAcquire(now, INTERVAL, CAPACITY));
+        }
+        assertEquals(INTERVAL, bucket.tryAcquire(now, INTERVAL, CAPACITY));
+    }
+
+    @Test
+    void tryAcquire_ShouldRefillOverTime() {
+        TokenBucket bucket = new TokenBucket();
+        long now = 1_000_000;
+        for (int i = 0; i < CAPACITY; i++) {
+            bucket.tryAcquire(now, INTERVAL, CAPACITY);
+        }
+
+        assertTrue(bucket.tryAcquire(now + INTERVAL / 2, INTERVAL, CAPACITY) > 0);
+        assertEquals(0, bucket.tryAcquire(now + INTERVAL, INTERVAL, CAPACITY));
+    }
+
+    @Test
+    void merge_ShouldApplyConsumptionFromOtherNodes() {
+        TokenBucket bucket = new TokenBucket();
+        long now = 1_000_000;
+
+        bucket.merge(now + CAPACITY * INTERVAL);
+
+        assertTrue(bucket.tryAcquire(now, INTERVAL, CAPACITY) > 0);
+        assertEquals(0, bucket.drainPendingCost());
+    }
+}
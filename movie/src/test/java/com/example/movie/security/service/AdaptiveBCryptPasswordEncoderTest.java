@@ -0,0 +1,41 @@
+package com.example.movie.security.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+
+class AdaptiveBCryptPasswordEncoderTest {
+
+    private final AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+
+    @Test
+    void upgradeEncoding_ShouldBeTrue_WhenCostDiffers() {
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password")));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("password")));
+    }
+
+    @Test
+    void delegatingEncoder_ShouldMatchAndUpgradeLegacyHash() {
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", encoder));
+        delegating.setDefaultPasswordEncoderForMatches(encoder);
+
+        String legacy = new BCryptPasswordEncoder(5).encode("password");
+
+        assertTrue(delegating.matches("password", legacy));
+        assertTrue(delegating.upgradeEncoding(legacy));
+        assertFalse(delegating.upgradeEncoding(delegating.encode("password")));
+    }
+
+    @Test
+    void calibrate_ShouldStayWithinBounds() {
+        int strength = AdaptiveBCryptPasswordEncoder.calibrate(Duration.ofMillis(1), 4, 6);
+
+        assertTrue(strength >= 4 && strength <= 6);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.movie.security.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.movie.exception.AppException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+class PasswordHashingServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHashingService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.destroy();
+        }
+    }
+
+    @Test
+    void encodeAndMatches_ShouldDelegateToBCrypt() {
+        service = new PasswordHashingService(new BCryptPasswordEncoder(4), 2, 4, Duration.ofSeconds(5), meterRegistry);
+
+        String hash = service.encode("password123");
+
+        assertTrue(service.matches("password123", hash));
+        assertFalse(service.matches("wrongpass", hash));
+        assertEquals(3, meterRegistry.get("auth.password.hash").timers().stream()
+                .mapToLong(t -> t.count()).sum());
+    }
+
+    @Test
+    void encode_ShouldShedLoad_WhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        service = new PasswordHashingService(blocking, 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // 1 tác vụ chiếm thread, 1 tác vụ nằm trong hàng đợi
+            callers.submit(() -> service.encode("a"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            callers.submit(() -> service.encode("b"));
+            while (meterRegistry.get("auth.password.queue.size").gauge().value() < 1) {
+                Thread.onSpinWait();
+            }
+
+            AppException ex = assertThrows(AppException.class, () -> service.encode("c"));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatus());
+            assertEquals(1.0, meterRegistry.get("auth.password.rejected").counter().count());
+        } finally {
+            release.countDown();
+            callers.shutdown();
+        }
+    }
+}
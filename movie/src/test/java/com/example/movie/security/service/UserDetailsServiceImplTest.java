@@ -0,0 +1,112 @@
+package com.example.movie.security.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.movie.security.principal.UserPrincipal;
+import com.example.movie.support.EmbeddedRedisInitializer;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// H2 ở chế độ PostgreSQL để EXPLAIN phản ánh gần đúng câu lệnh chạy trên Postgres
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:logindb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.movie.security.service.UserDetailsServiceImplTest$RecordingInspector"
+})
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = EmbeddedRedisInitializer.class)
+@Sql(scripts = {"/sql/cleanup.sql", "/sql/insert_user.sql"})
+class UserDetailsServiceImplTest {
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        RecordingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void loadUserByUsername_ShouldIgnoreCase() {
+        UserPrincipal byUsername = (UserPrincipal) userDetailsService.loadUserByUsername("FlowUser");
+        UserPrincipal byEmail = (UserPrincipal) userDetailsService.loadUserByUsername(" FLOW@test.com ");
+
+        assertEquals("flowuser", byUsername.getUsername());
+        assertEquals("flow@test.com", byUsername.getEmail());
+        assertEquals(byUsername.getId(), byEmail.getId());
+        assertNotNull(byEmail.getPassword());
+    }
+
+    @Test
+    void loadUserByUsername_ShouldThrow_WhenMissing() {
+        assertThrows(UsernameNotFoundException.class,
+                () -> userDetailsService.loadUserByUsername("nobody"));
+    }
+
+    @Test
+    void usernameLookup_ShouldProbeSingleIndex() {
+        userDetailsService.loadUserByUsername("flowuser");
+
+        String plan = explainLastSelect("flowuser");
+        assertFalse(plan.contains("tablescan"), plan);
+        assertTrue(plan.contains("uk_users_username"), plan);
+    }
+
+    @Test
+    void emailLookup_ShouldProbeSingleIndex() {
+        userDetailsService.loadUserByUsername("flow@test.com");
+
+        String plan = explainLastSelect("flow@test.com");
+        assertFalse(plan.contains("tablescan"), plan);
+        assertTrue(plan.contains("uk_users_email"), plan);
+    }
+
+    @Test
+    void lookup_ShouldNotSelectUnusedColumns() {
+        userDetailsService.loadUserByUsername("flowuser");
+
+        String sql = lastSelect().toLowerCase(Locale.ROOT);
+        assertFalse(sql.contains("last_login_at"), sql);
+        assertFalse(sql.contains("provider"), sql);
+        assertFalse(sql.contains(" or "), sql);
+    }
+
+    private String explainLastSelect(String parameter) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("EXPLAIN " + lastSelect(), parameter);
+        return rows.get(0).values().iterator().next().toString().toLowerCase(Locale.ROOT);
+    }
+
+    private String lastSelect() {
+        return RecordingInspector.STATEMENTS.stream()
+                .filter(sql -> sql.toLowerCase(Locale.ROOT).contains("from users"))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+    }
+
+    public static class RecordingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.movie.security.session;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.movie.enums.AuthProvider;
+import com.example.movie.enums.Role;
+import com.example.movie.models.User;
+import com.example.movie.security.principal.UserPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import java.util.UUID;
+
+class CompactSessionSerializerTest {
+
+    private final CompactSessionSerializer serializer = new CompactSessionSerializer();
+    private final JdkSerializationRedisSerializer jdk = new JdkSerializationRedisSerializer();
+
+    @Test
+    void securityContext_ShouldRoundTripWithoutPassword() {
+        SecurityContext context = context();
+
+        byte[] bytes = serializer.serialize(context);
+        SecurityContext restored = (SecurityContext) serializer.deserialize(bytes);
+
+        UserPrincipal original = (UserPrincipal) context.getAuthentication().getPrincipal();
+        UserPrincipal principal = (UserPrincipal) restored.getAuthentication().getPrincipal();
+        assertEquals(CompactSessionSerializer.MARKER, bytes[0]);
+        assertEquals(original.getId(), principal.getId());
+        assertEquals("flowuser", principal.getUsername());
+        assertEquals(Role.ADMIN, principal.getRole());
+        assertTrue(principal.isEnabled());
+        assertNull(principal.getPassword());
+        assertTrue(restored.getAuthentication().isAuthenticated());
+        assertEquals("ROLE_ADMIN", restored.getAuthentication().getAuthorities().iterator().next().getAuthority());
+        assertTrue(bytes.length < jdk.serialize(context).length);
+    }
+
+    @Test
+    void legacyJdkSession_ShouldStillBeReadable() {
+        SecurityContext context = context();
+
+        SecurityContext restored = (SecurityContext) serializer.deserialize(jdk.serialize(context));
+
+        assertEquals("flowuser", restored.getAuthentication().getName());
+    }
+
+    @Test
+    void otherAttributes_ShouldUseJdkSerialization() {
+        byte[] bytes = serializer.serialize("some-attribute");
+
+        assertEquals("some-attribute", serializer.deserialize(bytes));
+        assertEquals((byte) 0xAC, bytes[0]);
+    }
+
+    @Test
+    void unknownVersion_ShouldBeTreatedAsMissing() {
+        byte[] bytes = serializer.serialize(context());
+        bytes[1] = 99;
+
+        assertNull(serializer.deserialize(bytes));
+    }
+
+    private SecurityContext context() {
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .username("flowuser")
+                .passwordHash("$2a$10$hash")
+                .role(Role.ADMIN)
+                .provider(AuthProvider.LOCAL)
+                .build();
+        UserPrincipal principal = UserPrincipal.fromUser(user);
+        return new SecurityContextImpl(
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities())
+        );
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.movie.security.session;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.session.MapSession;
+import org.springframework.session.MapSessionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+class NearCacheSessionRepositoryTest {
+
+    private MapSessionRepository delegate;
+    private final List<Map<String, NearCacheSessionRepository.Touch>> flushed = new ArrayList<>();
+    private final List<String> invalidations = new ArrayList<>();
+    private NearCacheSessionRepository<MapSession> repository;
+
+    @BeforeEach
+    void setUp() {
+        delegate = spy(new MapSessionRepository(new ConcurrentHashMap<>()));
+        repository = new NearCacheSessionRepository<>(
+                delegate,
+                touches -> flushed.add(new HashMap<>(touches)),
+                invalidations::add,
+                100,
+                Duration.ofMinutes(1),
+                Duration.ofHours(1)
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.destroy();
+    }
+
+    @Test
+    void findById_ShouldHitDelegateOnlyOnce() {
+        String id = createSavedSession();
+
+        repository.findById(id);
+        repository.findById(id);
+
+        verify(delegate, times(1)).findById(id);
+    }
+
+    @Test
+    void touchOnlySave_ShouldBeBufferedUntilFlush() {
+        String id = createSavedSession();
+        clearInvocations(delegate);
+
+        NearCacheSessionRepository.CachedSession session = repository.findById(id);
+        Instant now = Instant.now();
+        session.setLastAccessedTime(now);
+        repository.save(session);
+
+        verify(delegate, never()).save(any());
+        assertTrue(flushed.isEmpty());
+
+        repository.flushTouches();
+
+        assertEquals(1, flushed.size());
+        assertEquals(now, flushed.get(0).get(id).lastAccessedTime());
+        assertEquals(now, repository.findById(id).getLastAccessedTime());
+    }
+
+    @Test
+    void attributeChange_ShouldWriteThroughAndPublishInvalidation() {
+        String id = createSavedSession();
+        clearInvocations(delegate);
+
+        NearCacheSessionRepository.CachedSession session = repository.findById(id);
+        session.setAttribute("cart", "42");
+        repository.save(session);
+
+        verify(delegate).save(any());
+        assertEquals("42", delegate.findById(id).getAttribute("cart"));
+        assertEquals(List.of(id), invalidations);
+    }
+
+    @Test
+    void deleteById_ShouldEvictCachedCopy() {
+        String id = createSavedSession();
+        repository.findById(id);
+
+        repository.deleteById(id);
+
+        assertNull(repository.findById(id));
+        assertEquals(List.of(id), invalidations);
+    }
+
+    private String createSavedSession() {
+        NearCacheSessionRepository.CachedSession session = repository.createSession();
+        session.setAttribute("user", "flowuser");
+        repository.save(session);
+        repository.evictLocal(session.getId());
+        return session.getId();
+    }
+}
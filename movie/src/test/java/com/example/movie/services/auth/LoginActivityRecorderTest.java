@@ -0,0 +1,62 @@
+package com.example.movie.services.auth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.movie.support.EmbeddedRedisInitializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = EmbeddedRedisInitializer.class)
+@Sql(scripts = {"/sql/cleanup.sql", "/sql/insert_user.sql"})
+class LoginActivityRecorderTest {
+
+    private static final UUID FLOW_USER_ID = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+    @Autowired
+    private LoginActivityRecorder recorder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void flush_ShouldWriteLatestLoginPerUser() {
+        LocalDateTime earlier = LocalDateTime.now().minusMinutes(5).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime latest = earlier.plusMinutes(1);
+
+        recorder.record(FLOW_USER_ID, latest);
+        recorder.record(FLOW_USER_ID, earlier);
+        recorder.flush();
+
+        assertEquals(latest, lastLoginAt());
+    }
+
+    @Test
+    void flush_ShouldNotMoveLastLoginBackwards() {
+        LocalDateTime latest = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        recorder.record(FLOW_USER_ID, latest);
+        recorder.flush();
+        recorder.record(FLOW_USER_ID, latest.minusHours(1));
+        recorder.flush();
+
+        assertEquals(latest, lastLoginAt());
+    }
+
+    private LocalDateTime lastLoginAt() {
+        Timestamp value = jdbcTemplate.queryForObject(
+                "select last_login_at from users where id = ?", Timestamp.class, FLOW_USER_ID);
+        return value.toLocalDateTime();
+    }
+}
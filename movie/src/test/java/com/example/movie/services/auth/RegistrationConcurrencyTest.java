@@ -0,0 +1,124 @@
+package com.example.movie.services.auth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.movie.dto.request.RegisterRequest;
+import com.example.movie.exception.DuplicateResourceException;
+import com.example.movie.support.EmbeddedRedisInitializer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = EmbeddedRedisInitializer.class)
+@Sql(scripts = "/sql/cleanup.sql")
+class RegistrationConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void concurrentRegistrations_WithSameUsername_ShouldCreateSingleRow() throws Exception {
+        List<Callable<Object>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            int n = i;
+            tasks.add(() -> authService.registerUser(request("raceuser", "race" + n + "@test.com")));
+        }
+
+        List<Object> outcomes = runConcurrently(tasks);
+
+        long created = outcomes.stream().filter(o -> !(o instanceof Throwable)).count();
+        long duplicates = outcomes.stream().filter(DuplicateResourceException.class::isInstance)
+                .map(DuplicateResourceException.class::cast)
+                .filter(ex -> ex.getMessage().equals("Tên đăng nhập đã tồn tại!"))
+                .count();
+        assertEquals(1, created);
+        assertEquals(THREADS - 1, duplicates);
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from users where username = 'raceuser'", Integer.class));
+    }
+
+    @Test
+    void registration_ShouldUseOneStatementPerAttempt() throws Exception {
+        List<Callable<Object>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            int n = i;
+            tasks.add(() -> authService.registerUser(request("user" + n, "user" + n + "@test.com")));
+        }
+
+        List<Object> outcomes = runConcurrently(tasks);
+
+        assertTrue(outcomes.stream().noneMatch(Throwable.class::isInstance));
+        // Trước đây: findByUsername + findByEmail + insert = 3 câu lệnh cho mỗi lần đăng ký
+        assertEquals(THREADS, statistics.getPrepareStatementCount());
+    }
+
+    private List<Object> runConcurrently(List<Callable<Object>> tasks) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (Callable<Object> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+
+            List<Object> outcomes = new ArrayList<>();
+            for (Future<Object> future : futures) {
+                try {
+                    outcomes.add(future.get());
+                } catch (ExecutionException ex) {
+                    outcomes.add(ex.getCause());
+                }
+            }
+            return outcomes;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private RegisterRequest request(String username, String email) {
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername(username);
+        request.setEmail(email);
+        request.setPassword("password123");
+        return request;
+    }
+}
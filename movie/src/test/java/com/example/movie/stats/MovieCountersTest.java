@@ -0,0 +1,77 @@
+package com.example.movie.stats;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.movie.stats.MovieCounters.Delta;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class MovieCountersTest {
+
+    @Test
+    void deltas_ShouldNotLoseConcurrentIncrements() throws Exception {
+        MovieCounters counters = new MovieCounters();
+        MovieCounters.Cursor cursor = counters.newCursor();
+        UUID hot = UUID.randomUUID();
+        int threads = 8;
+        int increments = 50_000;
+
+        CountDownLatch start = new CountDownLatch(1);
+        long drained = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < increments; i++) {
+                        counters.recordView(hot);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            // Flush trong lúc vẫn đang đếm
+            while (!writers.stream().allMatch(Future::isDone)) {
+                drained += drain(cursor);
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        }
+        drained += drain(cursor);
+
+        assertEquals((long) threads * increments, drained);
+        assertTrue(cursor.deltas().isEmpty());
+    }
+
+    @Test
+    void cursors_ShouldAdvanceIndependently() {
+        MovieCounters counters = new MovieCounters();
+        MovieCounters.Cursor database = counters.newCursor();
+        MovieCounters.Cursor redis = counters.newCursor();
+        UUID movieId = UUID.randomUUID();
+
+        counters.recordView(movieId);
+        counters.recordPlay(movieId);
+        database.commit(database.deltas());
+        // Redis lỗi: không commit
+        assertEquals(List.of(new Delta(movieId, 1, 1)), redis.deltas());
+
+        counters.recordView(movieId);
+        assertEquals(List.of(new Delta(movieId, 1, 0)), database.deltas());
+        assertEquals(List.of(new Delta(movieId, 2, 1)), redis.deltas());
+    }
+
+    private static long drain(MovieCounters.Cursor cursor) {
+        List<Delta> deltas = cursor.deltas();
+        cursor.commit(deltas);
+        return deltas.stream().mapToLong(Delta::views).sum();
+    }
+}
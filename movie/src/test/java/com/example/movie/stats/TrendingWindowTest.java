@@ -0,0 +1,61 @@
+package com.example.movie.stats;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.movie.stats.MovieCounters.Delta;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+class TrendingWindowTest {
+
+    private final UUID a = UUID.randomUUID();
+    private final UUID b = UUID.randomUUID();
+    private final UUID c = UUID.randomUUID();
+
+    @Test
+    void top_ShouldRankByViewsPlusWeightedPlays() {
+        TrendingWindow window = new TrendingWindow(3, 5);
+        window.advance(List.of(new Delta(a, 10, 0), new Delta(b, 2, 2), new Delta(c, 1, 0)));
+
+        List<TrendingWindow.Entry> top = window.top(2);
+
+        assertEquals(List.of(b, a), top.stream().map(TrendingWindow.Entry::movieId).toList());
+        assertEquals(12, top.get(0).score());
+        assertEquals(2, top.get(0).plays());
+    }
+
+    @Test
+    void advance_ShouldDropBucketsOlderThanWindow() {
+        TrendingWindow window = new TrendingWindow(2, 1);
+        window.advance(List.of(new Delta(a, 100, 0)));
+        window.advance(List.of(new Delta(b, 3, 0)));
+        assertEquals(a, window.top(1).getFirst().movieId());
+
+        window.advance(List.of(new Delta(b, 1, 0), new Delta(c, 2, 0)));
+
+        assertEquals(List.of(b, c), window.top(3).stream().map(TrendingWindow.Entry::movieId).toList());
+        assertEquals(4, window.top(1).getFirst().views());
+        assertEquals(2, window.size());
+
+        window.advance(List.of());
+        window.advance(List.of());
+        assertEquals(0, window.size());
+        assertTrue(window.top(3).isEmpty());
+    }
+
+    @Test
+    void top_ShouldMatchFullSort() {
+        TrendingWindow window = new TrendingWindow(1, 1);
+        List<Delta> bucket = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            bucket.add(new Delta(UUID.randomUUID(), (i * 7919L) % 1_000, 0));
+        }
+        window.advance(bucket);
+
+        List<Long> expected = bucket.stream().map(Delta::views).sorted((x, y) -> Long.compare(y, x)).limit(10).toList();
+        assertEquals(expected, window.top(10).stream().map(TrendingWindow.Entry::views).toList());
+    }
+}
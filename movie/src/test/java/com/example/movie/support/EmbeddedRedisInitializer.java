@@ -0,0 +1,38 @@
+package com.example.movie.support;
+
+import com.github.fppt.jedismock.RedisServer;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.support.TestPropertySourceUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Khởi động một Redis giả lập (jedis-mock) dùng chung cho cả JVM test
+ * và trỏ spring.data.redis vào nó.
+ */
+public class EmbeddedRedisInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+    private static RedisServer server;
+
+    @Override
+    public void initialize(ConfigurableApplicationContext context) {
+        RedisServer redis = start();
+        TestPropertySourceUtils.addInlinedPropertiesToEnvironment(context,
+                "spring.data.redis.host=" + redis.getHost(),
+                "spring.data.redis.port=" + redis.getBindPort());
+    }
+
+    private static synchronized RedisServer start() {
+        if (server == null) {
+            try {
+                server = RedisServer.newRedisServer();
+                server.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return server;
+    }
+}
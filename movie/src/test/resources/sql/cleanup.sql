@@ -1 +1,4 @@
+delete from movie_stats;
+delete from watch_progress;
+delete from movies;
 delete from users;